@@ -0,0 +1,188 @@
+package io.github.danielreker.javarenderer.benchmarks;
+
+import io.github.danielreker.javarenderer.core.Renderer;
+import io.github.danielreker.javarenderer.core.container.FrameBuffer;
+import io.github.danielreker.javarenderer.core.container.IndexBuffer;
+import io.github.danielreker.javarenderer.core.container.VertexBuffer;
+import io.github.danielreker.javarenderer.core.enums.PrimitiveType;
+import io.github.danielreker.javarenderer.core.shader.ShaderProgram;
+import io.github.danielreker.javarenderer.core.shader.io.FragmentShaderIoBase;
+import io.github.danielreker.javarenderer.core.shader.io.VertexShaderIoBase;
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// The standard scenes. Each is drawn with one instanced, indexed draw call.
+public enum BenchmarkScene {
+    // One triangle covering the whole frame: fill rate.
+    LARGE_TRIANGLE,
+    // A grid of 2x2 pixel quads: per-triangle setup and binning.
+    TINY_TRIANGLES,
+    // The cubes of CubeDemo, seen from its starting camera.
+    CUBE_FIELD,
+    // CUBE_FIELD with shaders that pass 28 interpolated components.
+    HIGH_VARYINGS,
+    // Full-frame quads at decreasing depth, drawn back to front, so every layer passes the depth test.
+    OVERDRAW;
+
+    static final int OVERDRAW_LAYERS = 8;
+    static final int TINY_QUAD_SPACING = 4;
+
+    static final List<BenchVertex> CUBE_VERTICES = Arrays.asList(
+            new BenchVertex(new Vector3f(-0.5f, -0.5f, -0.5f), new Vector2f(0.0f, 0.0f)),
+            new BenchVertex(new Vector3f( 0.5f, -0.5f, -0.5f), new Vector2f(1.0f, 0.0f)),
+            new BenchVertex(new Vector3f( 0.5f,  0.5f, -0.5f), new Vector2f(1.0f, 1.0f)),
+            new BenchVertex(new Vector3f(-0.5f,  0.5f, -0.5f), new Vector2f(0.0f, 1.0f)),
+            new BenchVertex(new Vector3f(-0.5f, -0.5f,  0.5f), new Vector2f(0.0f, 0.0f)),
+            new BenchVertex(new Vector3f( 0.5f,  0.5f,  0.5f), new Vector2f(1.0f, 1.0f)),
+            new BenchVertex(new Vector3f( 0.5f, -0.5f,  0.5f), new Vector2f(1.0f, 0.0f)),
+            new BenchVertex(new Vector3f(-0.5f,  0.5f,  0.5f), new Vector2f(0.0f, 1.0f)),
+            new BenchVertex(new Vector3f(-0.5f,  0.5f,  0.5f), new Vector2f(1.0f, 0.0f)),
+            new BenchVertex(new Vector3f(-0.5f, -0.5f, -0.5f), new Vector2f(0.0f, 1.0f)),
+            new BenchVertex(new Vector3f(-0.5f,  0.5f, -0.5f), new Vector2f(1.0f, 1.0f)),
+            new BenchVertex(new Vector3f( 0.5f,  0.5f,  0.5f), new Vector2f(1.0f, 0.0f)),
+            new BenchVertex(new Vector3f( 0.5f, -0.5f, -0.5f), new Vector2f(0.0f, 1.0f)),
+            new BenchVertex(new Vector3f( 0.5f, -0.5f,  0.5f), new Vector2f(0.0f, 0.0f)),
+            new BenchVertex(new Vector3f( 0.5f, -0.5f, -0.5f), new Vector2f(1.0f, 1.0f)),
+            new BenchVertex(new Vector3f(-0.5f,  0.5f,  0.5f), new Vector2f(0.0f, 0.0f))
+    );
+
+    static final int[] CUBE_INDICES = {
+             0,  1,  2,  2,  3,  0,
+             4,  5,  6,  5,  4,  7,
+             8,  9, 10,  9,  8,  4,
+            11,  2, 12, 12, 13, 11,
+             9,  6, 14,  6,  9,  4,
+             3,  2, 11, 11, 15,  3
+    };
+
+    static final Vector3f[] CUBE_POSITIONS = {
+            new Vector3f( 0.0f,  0.0f,  0.0f),
+            new Vector3f( 2.0f,  5.0f, -15.0f),
+            new Vector3f(-1.5f, -2.2f, -2.5f),
+            new Vector3f(-3.8f, -2.0f, -12.3f),
+            new Vector3f( 2.4f, -0.4f, -3.5f),
+            new Vector3f(-1.7f,  3.0f, -7.5f),
+            new Vector3f( 1.3f, -2.0f, -2.5f),
+            new Vector3f( 1.5f,  2.0f, -2.5f),
+            new Vector3f( 1.5f,  0.2f, -1.5f),
+            new Vector3f(-1.3f,  1.0f, -1.5f)
+    };
+
+    // Buffers and program of a scene, built once per benchmark trial.
+    public static final class Prepared<V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase> {
+        private final ShaderProgram<V_IO, F_IO> program;
+        private final VertexBuffer<BenchVertex> vertices;
+        private final IndexBuffer indices;
+        private final VertexBuffer<BenchInstance> instances;
+
+        Prepared(
+                ShaderProgram<V_IO, F_IO> program,
+                VertexBuffer<BenchVertex> vertices,
+                IndexBuffer indices,
+                List<BenchInstance> instances
+        ) {
+            this.program = program;
+            this.vertices = vertices;
+            this.indices = indices;
+            this.instances = VertexBuffer.create(instances);
+        }
+
+        public ShaderProgram<V_IO, F_IO> getProgram() { return program; }
+
+        public void draw(Renderer renderer, FrameBuffer target) {
+            renderer.renderIndexedInstanced(target, program, vertices, indices, PrimitiveType.TRIANGLES,
+                    0, indices.getIndexCount(), instances.getVertexCount(), instances);
+        }
+    }
+
+    public Prepared<?, ?> prepare(int width, int height) {
+        return switch (this) {
+            case LARGE_TRIANGLE -> new Prepared<>(texturedProgram(new Matrix4f()),
+                    VertexBuffer.create(List.of(
+                            new BenchVertex(new Vector3f(-1.0f, -1.0f, 0.0f), new Vector2f(0.0f, 0.0f)),
+                            new BenchVertex(new Vector3f( 3.0f, -1.0f, 0.0f), new Vector2f(2.0f, 0.0f)),
+                            new BenchVertex(new Vector3f(-1.0f,  3.0f, 0.0f), new Vector2f(0.0f, 2.0f)))),
+                    IndexBuffer.create(new int[] {0, 1, 2}),
+                    List.of(new BenchInstance(new Matrix4f())));
+            case TINY_TRIANGLES -> tinyTriangles(width, height);
+            case CUBE_FIELD -> new Prepared<>(texturedProgram(cubeViewProjection(width, height)),
+                    VertexBuffer.create(CUBE_VERTICES), IndexBuffer.create(CUBE_INDICES), cubeInstances());
+            case HIGH_VARYINGS -> {
+                ShaderProgram<ManyVaryingsVertexShaderIo, ManyVaryingsFragmentShaderIo> program =
+                        ShaderProgram.create(new ManyVaryingsVertexShader(), new ManyVaryingsFragmentShader());
+                program.setIoReuse(true);
+                program.setUniform("viewProjection", cubeViewProjection(width, height));
+                yield new Prepared<>(program,
+                        VertexBuffer.create(CUBE_VERTICES), IndexBuffer.create(CUBE_INDICES), cubeInstances());
+            }
+            case OVERDRAW -> {
+                List<BenchInstance> layers = new ArrayList<>();
+                for (int layer = 0; layer < OVERDRAW_LAYERS; layer++) {
+                    float depth = 0.9f - 1.8f * layer / (OVERDRAW_LAYERS - 1);
+                    layers.add(new BenchInstance(new Matrix4f().translate(0.0f, 0.0f, depth)));
+                }
+                yield new Prepared<>(texturedProgram(new Matrix4f()),
+                        VertexBuffer.create(List.of(
+                                new BenchVertex(new Vector3f(-1.0f, -1.0f, 0.0f), new Vector2f(0.0f, 0.0f)),
+                                new BenchVertex(new Vector3f( 1.0f, -1.0f, 0.0f), new Vector2f(1.0f, 0.0f)),
+                                new BenchVertex(new Vector3f( 1.0f,  1.0f, 0.0f), new Vector2f(1.0f, 1.0f)),
+                                new BenchVertex(new Vector3f(-1.0f,  1.0f, 0.0f), new Vector2f(0.0f, 1.0f)))),
+                        IndexBuffer.create(new int[] {0, 1, 2, 2, 3, 0}),
+                        layers);
+            }
+        };
+    }
+
+    static ShaderProgram<TexturedVertexShaderIo, TexturedFragmentShaderIo> texturedProgram(Matrix4f viewProjection) {
+        ShaderProgram<TexturedVertexShaderIo, TexturedFragmentShaderIo> program =
+                ShaderProgram.create(new TexturedVertexShader(), new CheckerFragmentShader());
+        program.setIoReuse(true);
+        program.setUniform("viewProjection", viewProjection);
+        return program;
+    }
+
+    static Matrix4f cubeViewProjection(int width, int height) {
+        return new Matrix4f()
+                .perspective((float) Math.toRadians(45.0f), (float) width / height, 0.1f, 100.0f)
+                .lookAt(new Vector3f(0.0f, 0.0f, 3.0f), new Vector3f(0.0f, 0.0f, 2.0f), new Vector3f(0.0f, 1.0f, 0.0f));
+    }
+
+    static List<BenchInstance> cubeInstances() {
+        List<BenchInstance> instances = new ArrayList<>();
+        for (Vector3f position : CUBE_POSITIONS) {
+            Matrix4f model = new Matrix4f().translate(position).rotate(0.5f + position.x + position.y, 0.5f, 1.0f, 0.0f);
+            instances.add(new BenchInstance(model));
+        }
+        return instances;
+    }
+
+    private static Prepared<?, ?> tinyTriangles(int width, int height) {
+        // Quads two pixels wide with their corners between pixel centers, so each covers four pixels.
+        List<BenchVertex> vertices = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        float pixelWidth = 2.0f / width;
+        float pixelHeight = 2.0f / height;
+        for (int y = 1; y + 2 < height; y += TINY_QUAD_SPACING) {
+            for (int x = 1; x + 2 < width; x += TINY_QUAD_SPACING) {
+                float x0 = -1.0f + x * pixelWidth;
+                float y0 = -1.0f + y * pixelHeight;
+                float x1 = x0 + 2.0f * pixelWidth;
+                float y1 = y0 + 2.0f * pixelHeight;
+                int base = vertices.size();
+                vertices.add(new BenchVertex(new Vector3f(x0, y0, 0.0f), new Vector2f(0.0f, 0.0f)));
+                vertices.add(new BenchVertex(new Vector3f(x1, y0, 0.0f), new Vector2f(1.0f, 0.0f)));
+                vertices.add(new BenchVertex(new Vector3f(x1, y1, 0.0f), new Vector2f(1.0f, 1.0f)));
+                vertices.add(new BenchVertex(new Vector3f(x0, y1, 0.0f), new Vector2f(0.0f, 1.0f)));
+                indices.addAll(List.of(base, base + 1, base + 2, base + 2, base + 3, base));
+            }
+        }
+        return new Prepared<>(texturedProgram(new Matrix4f()), VertexBuffer.create(vertices),
+                IndexBuffer.create(indices.stream().mapToInt(Integer::intValue).toArray()),
+                List.of(new BenchInstance(new Matrix4f())));
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.danielreker.javarenderer.benchmarks;
+
+import io.github.danielreker.javarenderer.core.shader.AbstractFragmentShader;
+import io.github.danielreker.javarenderer.core.shader.AbstractVertexShader;
+import io.github.danielreker.javarenderer.core.shader.annotations.Attribute;
+import io.github.danielreker.javarenderer.core.shader.annotations.Uniform;
+import io.github.danielreker.javarenderer.core.shader.annotations.Varying;
+import io.github.danielreker.javarenderer.core.shader.io.FragmentShaderIoBase;
+import io.github.danielreker.javarenderer.core.shader.io.VertexShaderIoBase;
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+
+class BenchVertex {
+    @Attribute public Vector3f position;
+    @Attribute public Vector2f texCoord;
+
+    public BenchVertex(Vector3f position, Vector2f texCoord) {
+        this.position = position;
+        this.texCoord = texCoord;
+    }
+}
+
+class BenchInstance {
+    @Attribute public Matrix4f model;
+
+    public BenchInstance(Matrix4f model) {
+        this.model = model;
+    }
+}
+
+// The cube shaders of CubeDemo: one vec2 varying and a checkerboard.
+class TexturedVertexShaderIo extends VertexShaderIoBase {
+    @Uniform public Matrix4f viewProjection;
+
+    @Attribute public Matrix4f model;
+    @Attribute public Vector3f position;
+    @Attribute public Vector2f texCoord;
+
+    @Varying public Vector2f varyingTexCoord = new Vector2f();
+}
+
+class TexturedVertexShader extends AbstractVertexShader<TexturedVertexShaderIo> {
+    @Override
+    public void main(TexturedVertexShaderIo io) {
+        Vector4f position = io.gl_Position.set(io.position, 1.0f);
+        io.model.transform(position);
+        io.viewProjection.transform(position);
+        io.varyingTexCoord.set(io.texCoord);
+    }
+}
+
+class TexturedFragmentShaderIo extends FragmentShaderIoBase {
+    @Varying public Vector2f varyingTexCoord;
+}
+
+class CheckerFragmentShader extends AbstractFragmentShader<TexturedFragmentShaderIo> {
+    @Override
+    public void main(TexturedFragmentShaderIo io) {
+        int checkX = (int) Math.floor(io.varyingTexCoord.x * 10.0f);
+        int checkY = (int) Math.floor(io.varyingTexCoord.y * 10.0f);
+        if (((checkX + checkY) & 1) == 0) {
+            io.gl_FragColor.set(1.0f, 1.0f, 1.0f, 1.0f);
+        } else {
+            io.gl_FragColor.set(0.2f, 0.2f, 0.2f, 1.0f);
+        }
+    }
+}
+
+// 28 interpolated components, to stress setup and interpolation rather than shading.
+class ManyVaryingsVertexShaderIo extends VertexShaderIoBase {
+    @Uniform public Matrix4f viewProjection;
+
+    @Attribute public Matrix4f model;
+    @Attribute public Vector3f position;
+    @Attribute public Vector2f texCoord;
+
+    @Varying public Vector4f color0 = new Vector4f();
+    @Varying public Vector4f color1 = new Vector4f();
+    @Varying public Vector4f color2 = new Vector4f();
+    @Varying public Vector4f color3 = new Vector4f();
+    @Varying public Vector3f normal = new Vector3f();
+    @Varying public Vector3f worldPosition = new Vector3f();
+    @Varying public Vector2f uv0 = new Vector2f();
+    @Varying public Vector2f uv1 = new Vector2f();
+    @Varying public float fog;
+    @Varying public float intensity;
+}
+
+class ManyVaryingsVertexShader extends AbstractVertexShader<ManyVaryingsVertexShaderIo> {
+    @Override
+    public void main(ManyVaryingsVertexShaderIo io) {
+        Vector4f position = io.gl_Position.set(io.position, 1.0f);
+        io.model.transform(position);
+        io.worldPosition.set(position.x, position.y, position.z);
+        io.viewProjection.transform(position);
+
+        float u = io.texCoord.x;
+        float v = io.texCoord.y;
+        io.color0.set(u, v, 0.5f, 1.0f);
+        io.color1.set(v, u, 0.25f, 1.0f);
+        io.color2.set(1.0f - u, v, u * v, 1.0f);
+        io.color3.set(u, 1.0f - v, 0.75f, 1.0f);
+        io.normal.set(io.position).normalize();
+        io.uv0.set(u, v);
+        io.uv1.set(v, u);
+        io.fog = position.w * 0.01f;
+        io.intensity = 0.5f + 0.5f * u;
+    }
+}
+
+class ManyVaryingsFragmentShaderIo extends FragmentShaderIoBase {
+    @Varying public Vector4f color0;
+    @Varying public Vector4f color1;
+    @Varying public Vector4f color2;
+    @Varying public Vector4f color3;
+    @Varying public Vector3f normal;
+    @Varying public Vector3f worldPosition;
+    @Varying public Vector2f uv0;
+    @Varying public Vector2f uv1;
+    @Varying public float fog;
+    @Varying public float intensity;
+}
+
+class ManyVaryingsFragmentShader extends AbstractFragmentShader<ManyVaryingsFragmentShaderIo> {
+    @Override
+    public void main(ManyVaryingsFragmentShaderIo io) {
+        float shade = io.intensity * (1.0f - io.fog) * Math.abs(io.normal.z) + 0.05f * io.worldPosition.y;
+        io.gl_FragColor.set(
+                (io.color0.x + io.color1.x + io.color2.x + io.color3.x) * 0.25f * shade + io.uv0.x * 0.1f,
+                (io.color0.y + io.color1.y + io.color2.y + io.color3.y) * 0.25f * shade + io.uv1.y * 0.1f,
+                (io.color0.z + io.color1.z + io.color2.z + io.color3.z) * 0.25f * shade,
+                1.0f);
+    }
+}
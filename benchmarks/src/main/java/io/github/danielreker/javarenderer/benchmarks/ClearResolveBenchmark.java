@@ -0,0 +1,86 @@
+package io.github.danielreker.javarenderer.benchmarks;
+
+import io.github.danielreker.javarenderer.core.container.FrameBuffer;
+import io.github.danielreker.javarenderer.core.enums.RenderBufferFormat;
+import org.joml.Vector4f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+// Clearing a 1080p frame buffer and resolving its color attachment to ARGB pixels. drawnPercent is the share
+// of rows that have been drawn into since the last clear; the rest still have a pending clear.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ClearResolveBenchmark {
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+    private static final Vector4f DRAWN_COLOR = new Vector4f(0.8f, 0.4f, 0.2f, 1.0f);
+
+    @Param({"RGBA32F", "RGBA8"})
+    public RenderBufferFormat format;
+
+    @Param({"0", "50", "100"})
+    public int drawnPercent;
+
+    private FrameBuffer frameBuffer;
+    private int drawnPixels;
+    private int[] pixels;
+    private BufferedImage image;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        frameBuffer = FrameBuffer.create(WIDTH, HEIGHT, format, RenderBufferFormat.DEPTH32F,
+                RasterBenchmark.CLEAR_COLOR, 1.0f);
+        drawnPixels = WIDTH * (HEIGHT * drawnPercent / 100);
+        pixels = new int[WIDTH * HEIGHT];
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        draw();
+    }
+
+    private void draw() {
+        frameBuffer.getColorAttachment().fill(0, drawnPixels, DRAWN_COLOR);
+        frameBuffer.getDepthAttachment().fill(0, drawnPixels, 0.5f);
+    }
+
+    @Benchmark
+    public FrameBuffer clear() {
+        frameBuffer.clear(RasterBenchmark.CLEAR_COLOR, 1.0f);
+        return frameBuffer;
+    }
+
+    // A frame's worth of clearing: the clear itself plus the tiles that drawing then resolves.
+    @Benchmark
+    public FrameBuffer clearAndDraw() {
+        frameBuffer.clear(RasterBenchmark.CLEAR_COLOR, 1.0f);
+        draw();
+        return frameBuffer;
+    }
+
+    @Benchmark
+    public int[] resolveToArray() {
+        frameBuffer.resolveColor(pixels, true, false);
+        return pixels;
+    }
+
+    @Benchmark
+    public BufferedImage resolveToImageParallel() {
+        frameBuffer.resolveColor(image, true, true);
+        return image;
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.danielreker.javarenderer.benchmarks;
+
+import io.github.danielreker.javarenderer.core.Renderer;
+import io.github.danielreker.javarenderer.core.container.FrameBuffer;
+import io.github.danielreker.javarenderer.core.enums.RasterMode;
+import org.joml.Vector4f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Whole frames of the standard scenes: clear, vertex processing, setup, binning and shading.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RasterBenchmark {
+    static final int FRAME_WIDTH = 800;
+    static final int FRAME_HEIGHT = 600;
+    static final Vector4f CLEAR_COLOR = new Vector4f(0.1f, 0.1f, 0.1f, 1.0f);
+
+    @Param({"LARGE_TRIANGLE", "TINY_TRIANGLES", "CUBE_FIELD", "HIGH_VARYINGS", "OVERDRAW"})
+    public BenchmarkScene scene;
+
+    @Param({"SEQUENTIAL", "TILED_PARALLEL"})
+    public RasterMode rasterMode;
+
+    private Renderer renderer;
+    private FrameBuffer frameBuffer;
+    private BenchmarkScene.Prepared<?, ?> prepared;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        renderer = new Renderer();
+        renderer.setRasterMode(rasterMode);
+        frameBuffer = FrameBuffer.create(FRAME_WIDTH, FRAME_HEIGHT, CLEAR_COLOR, 1.0f);
+        prepared = scene.prepare(FRAME_WIDTH, FRAME_HEIGHT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        renderer.shutdown();
+    }
+
+    @Benchmark
+    public FrameBuffer renderFrame() {
+        frameBuffer.clear(CLEAR_COLOR, 1.0f);
+        prepared.draw(renderer, frameBuffer);
+        return frameBuffer;
+    }
+}
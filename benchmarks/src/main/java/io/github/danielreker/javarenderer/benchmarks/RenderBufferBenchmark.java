@@ -0,0 +1,88 @@
+package io.github.danielreker.javarenderer.benchmarks;
+
+import io.github.danielreker.javarenderer.core.container.ColorRenderBuffer;
+import io.github.danielreker.javarenderer.core.container.DepthRenderBuffer;
+import io.github.danielreker.javarenderer.core.enums.RenderBufferFormat;
+import org.joml.Vector4f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Pixel access through the checked (x, y) and unchecked index accessors, over a 64x64 region. Results are
+// per pixel read and written back.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RenderBufferBenchmark {
+    private static final int REGION_SIZE = 64;
+    private static final int PIXELS = REGION_SIZE * REGION_SIZE;
+
+    @Param({"RGBA32F", "RGBA8"})
+    public RenderBufferFormat format;
+
+    private ColorRenderBuffer colorBuffer;
+    private DepthRenderBuffer depthBuffer;
+    private final Vector4f color = new Vector4f();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        colorBuffer = ColorRenderBuffer.create(RasterBenchmark.FRAME_WIDTH, RasterBenchmark.FRAME_HEIGHT,
+                format, RasterBenchmark.CLEAR_COLOR);
+        colorBuffer.resolve();
+        depthBuffer = new DepthRenderBuffer(RasterBenchmark.FRAME_WIDTH, RasterBenchmark.FRAME_HEIGHT, 1.0f);
+        depthBuffer.resolve();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIXELS)
+    public ColorRenderBuffer checkedColor() {
+        for (int y = 0; y < REGION_SIZE; y++) {
+            for (int x = 0; x < REGION_SIZE; x++) {
+                Vector4f value = colorBuffer.getValue(x, y);
+                value.x = 1.0f - value.x;
+                colorBuffer.setValue(x, y, value);
+            }
+        }
+        return colorBuffer;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIXELS)
+    public ColorRenderBuffer uncheckedColor() {
+        for (int y = 0; y < REGION_SIZE; y++) {
+            int rowIndex = colorBuffer.indexOf(0, y);
+            for (int x = 0; x < REGION_SIZE; x++) {
+                colorBuffer.getColor(rowIndex + x, color);
+                colorBuffer.setColor(rowIndex + x, 1.0f - color.x, color.y, color.z, color.w);
+            }
+        }
+        return colorBuffer;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIXELS)
+    public DepthRenderBuffer uncheckedDepth() {
+        for (int y = 0; y < REGION_SIZE; y++) {
+            int rowIndex = depthBuffer.indexOf(0, y);
+            for (int x = 0; x < REGION_SIZE; x++) {
+                depthBuffer.setDepth(rowIndex + x, 1.0f - depthBuffer.getDepth(rowIndex + x));
+            }
+        }
+        return depthBuffer;
+    }
+}
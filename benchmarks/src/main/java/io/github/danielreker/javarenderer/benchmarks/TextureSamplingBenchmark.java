@@ -0,0 +1,84 @@
+package io.github.danielreker.javarenderer.benchmarks;
+
+import io.github.danielreker.javarenderer.core.enums.TextureFilter;
+import io.github.danielreker.javarenderer.core.enums.WrapMode;
+import io.github.danielreker.javarenderer.core.texture.Sampler;
+import io.github.danielreker.javarenderer.core.texture.Texture2D;
+import org.joml.Vector4f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Samples a 1024x1024 mipmapped texture over a 64x64 pixel region mapped onto it at an angle, so that rows
+// of pixels walk the texture diagonally. texelsPerPixel below 1 magnifies, above 1 minifies. Results are per
+// sample.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TextureSamplingBenchmark {
+    private static final int TEXTURE_SIZE = 1024;
+    private static final int REGION_SIZE = 64;
+    private static final int SAMPLES = REGION_SIZE * REGION_SIZE;
+    private static final double ANGLE = Math.toRadians(30.0);
+
+    @Param({"NEAREST", "BILINEAR", "TRILINEAR"})
+    public TextureFilter filter;
+
+    @Param({"0.5", "1", "6"})
+    public float texelsPerPixel;
+
+    private Texture2D texture;
+    private Sampler sampler;
+    private float dudx, dvdx, dudy, dvdy;
+    private final Vector4f color = new Vector4f();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        int[] texels = new int[TEXTURE_SIZE * TEXTURE_SIZE];
+        for (int i = 0; i < texels.length; i++) {
+            texels[i] = random.nextInt() | 0xFF000000;
+        }
+        texture = Texture2D.create(TEXTURE_SIZE, TEXTURE_SIZE, texels, true);
+        sampler = Sampler.create(filter, WrapMode.REPEAT);
+
+        float step = texelsPerPixel / TEXTURE_SIZE;
+        dudx = (float) (Math.cos(ANGLE) * step);
+        dvdx = (float) (Math.sin(ANGLE) * step);
+        dudy = -dvdx;
+        dvdy = dudx;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public float sampleGrad() {
+        float sum = 0.0f;
+        for (int y = 0; y < REGION_SIZE; y++) {
+            float u = 0.3f + y * dudy;
+            float v = 0.2f + y * dvdy;
+            for (int x = 0; x < REGION_SIZE; x++) {
+                sampler.sampleGrad(texture, u, v, dudx, dvdx, dudy, dvdy, color);
+                sum += color.x;
+                u += dudx;
+                v += dvdx;
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.danielreker.javarenderer.benchmarks;
+
+import io.github.danielreker.javarenderer.core.shader.ShaderProgram;
+import io.github.danielreker.javarenderer.core.shader.VaryingInterpolator;
+import io.github.danielreker.javarenderer.core.shader.io.FragmentShaderIoBase;
+import io.github.danielreker.javarenderer.core.shader.io.VertexShaderIoBase;
+import org.joml.Matrix4f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Perspective-correct interpolation of one triangle's varyings, per fragment into the fragment IO and per
+// 8x8 batch into lanes. Results are per fragment.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class VaryingInterpolationBenchmark {
+    private static final int FRAGMENT_COUNT = 64;
+
+    // LOW is the cube shaders' single vec2; HIGH is 28 components of mixed types.
+    @Param({"LOW", "HIGH"})
+    public String varyings;
+
+    private VaryingInterpolator interpolator;
+    private VertexShaderIoBase provokingVertex;
+    private FragmentShaderIoBase fragmentIo;
+    private float[] triangleData;
+    private final float[] b0 = new float[FRAGMENT_COUNT];
+    private final float[] b1 = new float[FRAGMENT_COUNT];
+    private final float[] b2 = new float[FRAGMENT_COUNT];
+    private final float[] perspectiveCorrection = new float[FRAGMENT_COUNT];
+    private float[][] lanes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Matrix4f viewProjection = BenchmarkScene.cubeViewProjection(RasterBenchmark.FRAME_WIDTH, RasterBenchmark.FRAME_HEIGHT);
+        if (varyings.equals("HIGH")) {
+            ShaderProgram<ManyVaryingsVertexShaderIo, ManyVaryingsFragmentShaderIo> program =
+                    ShaderProgram.create(new ManyVaryingsVertexShader(), new ManyVaryingsFragmentShader());
+            program.setIoReuse(true);
+            program.setUniform("viewProjection", viewProjection);
+            setUpTriangle(program);
+        } else {
+            setUpTriangle(BenchmarkScene.texturedProgram(viewProjection));
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < FRAGMENT_COUNT; i++) {
+            float u = random.nextFloat();
+            float v = random.nextFloat() * (1.0f - u);
+            b0[i] = u;
+            b1[i] = v;
+            b2[i] = 1.0f - u - v;
+            perspectiveCorrection[i] = 1.0f + random.nextFloat();
+        }
+    }
+
+    private <V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase>
+    void setUpTriangle(ShaderProgram<V_IO, F_IO> program) {
+        interpolator = program.getVaryingInterpolator();
+        triangleData = new float[3 * interpolator.getComponentCount()];
+        lanes = new float[interpolator.getComponentCount()][FRAGMENT_COUNT];
+        BenchInstance instance = new BenchInstance(new Matrix4f());
+        for (int vertex = 0; vertex < 3; vertex++) {
+            V_IO vsIo = program.createAndPrepareVertexIO(BenchmarkScene.CUBE_VERTICES.get(vertex), instance, 0, null, 0);
+            program.executeVertexShader(vsIo);
+            interpolator.gather(vsIo, 1.0f / vsIo.gl_Position.w, triangleData, vertex);
+            if (vertex == 0) provokingVertex = vsIo;
+        }
+        fragmentIo = program.createAndPrepareFragmentIO(0.5f, 0.5f, 0.5f, 1.0f);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAGMENT_COUNT)
+    public void interpolatePerFragment(Blackhole blackhole) {
+        for (int i = 0; i < FRAGMENT_COUNT; i++) {
+            interpolator.interpolate(triangleData, provokingVertex,
+                    b0[i], b1[i], b2[i], perspectiveCorrection[i], fragmentIo);
+            blackhole.consume(fragmentIo);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAGMENT_COUNT)
+    public float[][] interpolateLanes() {
+        interpolator.interpolateLanes(triangleData, b0, b1, b2, perspectiveCorrection, FRAGMENT_COUNT, lanes);
+        return lanes;
+    }
+}
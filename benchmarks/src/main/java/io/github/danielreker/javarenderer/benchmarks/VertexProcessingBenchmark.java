@@ -0,0 +1,95 @@
+package io.github.danielreker.javarenderer.benchmarks;
+
+import io.github.danielreker.javarenderer.core.Renderer;
+import io.github.danielreker.javarenderer.core.container.FrameBuffer;
+import io.github.danielreker.javarenderer.core.container.VertexBuffer;
+import io.github.danielreker.javarenderer.core.enums.PrimitiveType;
+import io.github.danielreker.javarenderer.core.shader.ShaderProgram;
+import io.github.danielreker.javarenderer.core.shader.VertexIoPool;
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Vertex fetch and vertex shading, once directly through the program and once as a draw whose triangles all
+// lie behind the camera, so the renderer does its vertex work and clipping but rasterizes nothing.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VertexProcessingBenchmark {
+    @Param({"1536", "65536"})
+    public int vertexCount;
+
+    @Param({"true", "false"})
+    public boolean ioReuse;
+
+    private Renderer renderer;
+    private FrameBuffer frameBuffer;
+    private ShaderProgram<TexturedVertexShaderIo, TexturedFragmentShaderIo> program;
+    private VertexBuffer<BenchVertex> vertices;
+    private VertexBuffer<BenchInstance> instances;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        renderer = new Renderer();
+        frameBuffer = FrameBuffer.create(RasterBenchmark.FRAME_WIDTH, RasterBenchmark.FRAME_HEIGHT,
+                RasterBenchmark.CLEAR_COLOR, 1.0f);
+        program = BenchmarkScene.texturedProgram(
+                BenchmarkScene.cubeViewProjection(RasterBenchmark.FRAME_WIDTH, RasterBenchmark.FRAME_HEIGHT));
+        program.setIoReuse(ioReuse);
+
+        // The camera is at z = 3 looking down -z; everything here is behind it.
+        Random random = new Random(42);
+        List<BenchVertex> vertexList = new ArrayList<>(vertexCount);
+        for (int i = 0; i < vertexCount; i++) {
+            vertexList.add(new BenchVertex(
+                    new Vector3f(random.nextFloat() * 4.0f - 2.0f, random.nextFloat() * 4.0f - 2.0f, 5.0f + random.nextFloat()),
+                    new Vector2f(random.nextFloat(), random.nextFloat())));
+        }
+        vertices = VertexBuffer.create(vertexList);
+        instances = VertexBuffer.create(List.of(new BenchInstance(new Matrix4f())));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        renderer.shutdown();
+    }
+
+    @Benchmark
+    public void shadeVertices(Blackhole blackhole) {
+        VertexIoPool<TexturedVertexShaderIo> pool = program.acquireVertexIoPool(vertexCount);
+        for (int i = 0; i < vertexCount; i++) {
+            TexturedVertexShaderIo vsIo = program.createAndPrepareVertexIO(vertices, i, instances, 0, pool, i);
+            program.executeVertexShader(vsIo);
+            blackhole.consume(vsIo);
+        }
+    }
+
+    @Benchmark
+    public FrameBuffer drawRejectedTriangles() {
+        renderer.renderInstanced(frameBuffer, program, vertices, PrimitiveType.TRIANGLES,
+                0, vertexCount - vertexCount % 3, 1, instances);
+        return frameBuffer;
+    }
+}
@@ -0,0 +1,195 @@
+package io.github.danielreker.javarenderer.core;
+
+import io.github.danielreker.javarenderer.core.container.AbstractVertexBuffer;
+import io.github.danielreker.javarenderer.core.container.FrameBuffer;
+import io.github.danielreker.javarenderer.core.container.IndexBuffer;
+import io.github.danielreker.javarenderer.core.enums.CullMode;
+import io.github.danielreker.javarenderer.core.enums.FrontFace;
+import io.github.danielreker.javarenderer.core.enums.PrimitiveType;
+import io.github.danielreker.javarenderer.core.shader.ShaderProgram;
+import io.github.danielreker.javarenderer.core.shader.UniformSnapshot;
+import io.github.danielreker.javarenderer.core.shader.io.FragmentShaderIoBase;
+import io.github.danielreker.javarenderer.core.shader.io.VertexShaderIoBase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+// Draws recorded for Renderer.submit. Each draw captures the program's uniforms and the renderer's cull
+// mode and front face; vertex and index buffers are referenced and must not change before submission.
+// Opaque draws are rasterized front-to-back by sort depth, then translucent ones in recording order.
+public final class CommandBuffer {
+    private final Renderer renderer;
+    private final List<DrawCommand> commands = new ArrayList<>();
+    private float sortDepth = 0.0f;
+    private boolean opaque = true;
+
+    CommandBuffer(Renderer renderer) {
+        this.renderer = renderer;
+    }
+
+    public Renderer getRenderer() { return renderer; }
+    public float getSortDepth() { return sortDepth; }
+    public boolean isOpaque() { return opaque; }
+    public int size() { return commands.size(); }
+
+    // Applies to the draws recorded after it; smaller values are closer to the camera, e.g. view-space distance.
+    public void setSortDepth(float sortDepth) {
+        this.sortDepth = sortDepth;
+    }
+
+    // Translucent draws are not reordered, since their result depends on the order they are blended in.
+    public void setOpaque(boolean opaque) {
+        this.opaque = opaque;
+    }
+
+    // A buffer can be submitted any number of times; clearing empties it for the next frame.
+    public void clear() {
+        commands.clear();
+    }
+
+    public <V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase>
+    void draw(
+            FrameBuffer targetFrameBuffer,
+            ShaderProgram<V_IO, F_IO> program,
+            AbstractVertexBuffer vbo,
+            PrimitiveType mode,
+            int first,
+            int count
+    ) {
+        drawInstanced(targetFrameBuffer, program, vbo, mode, first, count, 1, null);
+    }
+
+    public <V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase>
+    void drawIndexed(
+            FrameBuffer targetFrameBuffer,
+            ShaderProgram<V_IO, F_IO> program,
+            AbstractVertexBuffer vbo,
+            IndexBuffer ibo,
+            PrimitiveType mode,
+            int firstIndex,
+            int indexCount
+    ) {
+        drawIndexedInstanced(targetFrameBuffer, program, vbo, ibo, mode, firstIndex, indexCount, 1, null);
+    }
+
+    public <V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase>
+    void drawInstanced(
+            FrameBuffer targetFrameBuffer,
+            ShaderProgram<V_IO, F_IO> program,
+            AbstractVertexBuffer vbo,
+            PrimitiveType mode,
+            int first,
+            int count,
+            int instanceCount,
+            AbstractVertexBuffer instanceBuffer
+    ) {
+        Objects.requireNonNull(targetFrameBuffer, "Target FrameBuffer cannot be null.");
+        Objects.requireNonNull(program, "ShaderProgram cannot be null.");
+        Objects.requireNonNull(vbo, "VertexBuffer cannot be null.");
+        Renderer.checkInstanceRange(instanceCount, instanceBuffer);
+        if (vbo.getVertexCount() == 0 || instanceCount == 0) return;
+        vbo.checkRange(first, count);
+        if (!isSupported(mode)) return;
+
+        record(targetFrameBuffer, program, vbo, null, first, count, instanceCount, instanceBuffer);
+    }
+
+    public <V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase>
+    void drawIndexedInstanced(
+            FrameBuffer targetFrameBuffer,
+            ShaderProgram<V_IO, F_IO> program,
+            AbstractVertexBuffer vbo,
+            IndexBuffer ibo,
+            PrimitiveType mode,
+            int firstIndex,
+            int indexCount,
+            int instanceCount,
+            AbstractVertexBuffer instanceBuffer
+    ) {
+        Objects.requireNonNull(targetFrameBuffer, "Target FrameBuffer cannot be null.");
+        Objects.requireNonNull(program, "ShaderProgram cannot be null.");
+        Objects.requireNonNull(vbo, "VertexBuffer cannot be null.");
+        Objects.requireNonNull(ibo, "IndexBuffer cannot be null.");
+        ibo.checkRange(firstIndex, indexCount);
+        Renderer.checkInstanceRange(instanceCount, instanceBuffer);
+        if (indexCount == 0 || instanceCount == 0) return;
+        if (!isSupported(mode)) return;
+
+        record(targetFrameBuffer, program, vbo, ibo, firstIndex, indexCount, instanceCount, instanceBuffer);
+    }
+
+    private static boolean isSupported(PrimitiveType mode) {
+        if (mode == PrimitiveType.TRIANGLES) return true;
+        System.err.println("Warning: PrimitiveType " + mode + " not yet supported. Only TRIANGLES.");
+        return false;
+    }
+
+    private void record(
+            FrameBuffer targetFrameBuffer,
+            ShaderProgram<?, ?> program,
+            AbstractVertexBuffer vbo,
+            IndexBuffer ibo,
+            int first,
+            int count,
+            int instanceCount,
+            AbstractVertexBuffer instanceBuffer
+    ) {
+        commands.add(new DrawCommand(commands.size(), targetFrameBuffer, program, program.snapshotUniforms(),
+                vbo, ibo, first, count, instanceCount, instanceBuffer,
+                renderer.getCullMode(), renderer.getFrontFace(), sortDepth, opaque));
+    }
+
+    List<DrawCommand> getCommands() {
+        return Collections.unmodifiableList(commands);
+    }
+
+    // first/count index the vertex buffer, or the index buffer when ibo is not null.
+    static final class DrawCommand {
+        final int sequence;
+        final FrameBuffer targetFrameBuffer;
+        final ShaderProgram<?, ?> program;
+        final UniformSnapshot uniforms;
+        final AbstractVertexBuffer vbo;
+        final IndexBuffer ibo;
+        final int first, count;
+        final int instanceCount;
+        final AbstractVertexBuffer instanceBuffer;
+        final CullMode cullMode;
+        final FrontFace frontFace;
+        final float sortDepth;
+        final boolean opaque;
+
+        DrawCommand(
+                int sequence,
+                FrameBuffer targetFrameBuffer,
+                ShaderProgram<?, ?> program,
+                UniformSnapshot uniforms,
+                AbstractVertexBuffer vbo,
+                IndexBuffer ibo,
+                int first, int count,
+                int instanceCount,
+                AbstractVertexBuffer instanceBuffer,
+                CullMode cullMode,
+                FrontFace frontFace,
+                float sortDepth,
+                boolean opaque
+        ) {
+            this.sequence = sequence;
+            this.targetFrameBuffer = targetFrameBuffer;
+            this.program = program;
+            this.uniforms = uniforms;
+            this.vbo = vbo;
+            this.ibo = ibo;
+            this.first = first;
+            this.count = count;
+            this.instanceCount = instanceCount;
+            this.instanceBuffer = instanceBuffer;
+            this.cullMode = cullMode;
+            this.frontFace = frontFace;
+            this.sortDepth = sortDepth;
+            this.opaque = opaque;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.danielreker.javarenderer.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// Flight Recorder event for one immediate draw or one command buffer pass. Costs nothing beyond an
+// isEnabled check unless a recording has the event enabled.
+@Name("io.github.danielreker.javarenderer.RenderPass")
+@Label("Render Pass")
+@Category("Java Renderer")
+@Description("An immediate draw, or the draws of one command buffer pass to the same frame buffer")
+@StackTrace(false)
+final class RenderPassEvent extends jdk.jfr.Event {
+    @Label("Draws")
+    int drawCount;
+
+    @Label("Vertices Submitted")
+    long vertexCount;
+
+    @Label("Triangles Rasterized")
+    long triangleCount;
+
+    @Label("Vertex Processing")
+    @Timespan(Timespan.NANOSECONDS)
+    long vertexProcessingTime;
+
+    @Label("Triangle Setup")
+    @Timespan(Timespan.NANOSECONDS)
+    long triangleSetupTime;
+
+    @Label("Rasterization")
+    @Timespan(Timespan.NANOSECONDS)
+    long rasterizationTime;
+}
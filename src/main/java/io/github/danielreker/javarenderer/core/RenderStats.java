@@ -0,0 +1,118 @@
+package io.github.danielreker.javarenderer.core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Pipeline statistics of a Renderer, like GL_ARB_pipeline_statistics_query, plus time spent per stage.
+// Counts accumulate while statistics are enabled, until reset(). Triangle counts after clipping are per
+// fanned piece; raster counts cover only the pixels of 8x8 blocks that reach per-pixel testing. Reads during
+// a draw may see part of it.
+public final class RenderStats {
+    private final LongAdder draws = new LongAdder();
+    private final LongAdder verticesSubmitted = new LongAdder();
+    private final LongAdder vertexShaderInvocations = new LongAdder();
+    private final LongAdder trianglesSubmitted = new LongAdder();
+    private final LongAdder trianglesClipped = new LongAdder();
+    private final LongAdder trianglesRejected = new LongAdder();
+    private final LongAdder trianglesCulled = new LongAdder();
+    private final LongAdder trianglesDegenerate = new LongAdder();
+    private final LongAdder trianglesRasterized = new LongAdder();
+    private final LongAdder blocksHierarchicalZRejected = new LongAdder();
+    private final LongAdder pixelsCoverageTested = new LongAdder();
+    private final LongAdder fragmentsCovered = new LongAdder();
+    private final LongAdder fragmentsDepthRejected = new LongAdder();
+    private final LongAdder fragmentShaderInvocations = new LongAdder();
+    private final LongAdder fragmentsDiscarded = new LongAdder();
+    private final LongAdder vertexProcessingNanos = new LongAdder();
+    private final LongAdder triangleSetupNanos = new LongAdder();
+    private final LongAdder rasterizationNanos = new LongAdder();
+
+    RenderStats() {}
+
+    public long getDrawCount() { return draws.sum(); }
+    // Vertices read by draws, instances included; indexed draws count every index.
+    public long getVerticesSubmitted() { return verticesSubmitted.sum(); }
+    // Lower than getVerticesSubmitted when indexed draws reuse shaded vertices.
+    public long getVertexShaderInvocations() { return vertexShaderInvocations.sum(); }
+    public long getTrianglesSubmitted() { return trianglesSubmitted.sum(); }
+    // Triangles that crossed the near plane or the guard band and went through the clipper.
+    public long getTrianglesClipped() { return trianglesClipped.sum(); }
+    // Triangles, or pieces of them, that lay entirely outside the view volume or the viewport.
+    public long getTrianglesRejected() { return trianglesRejected.sum(); }
+    public long getTrianglesCulled() { return trianglesCulled.sum(); }
+    public long getTrianglesDegenerate() { return trianglesDegenerate.sum(); }
+    public long getTrianglesRasterized() { return trianglesRasterized.sum(); }
+    public long getBlocksHierarchicalZRejected() { return blocksHierarchicalZRejected.sum(); }
+    public long getPixelsCoverageTested() { return pixelsCoverageTested.sum(); }
+    public long getFragmentsCovered() { return fragmentsCovered.sum(); }
+    public long getFragmentsDepthRejected() { return fragmentsDepthRejected.sum(); }
+    public long getFragmentShaderInvocations() { return fragmentShaderInvocations.sum(); }
+    public long getFragmentsDiscarded() { return fragmentsDiscarded.sum(); }
+    public long getVertexProcessingNanos() { return vertexProcessingNanos.sum(); }
+    public long getTriangleSetupNanos() { return triangleSetupNanos.sum(); }
+    // Includes fragment shading; in TILED_PARALLEL mode, wall-clock time across all raster threads.
+    public long getRasterizationNanos() { return rasterizationNanos.sum(); }
+
+    public void reset() {
+        draws.reset();
+        verticesSubmitted.reset();
+        vertexShaderInvocations.reset();
+        trianglesSubmitted.reset();
+        trianglesClipped.reset();
+        trianglesRejected.reset();
+        trianglesCulled.reset();
+        trianglesDegenerate.reset();
+        trianglesRasterized.reset();
+        blocksHierarchicalZRejected.reset();
+        pixelsCoverageTested.reset();
+        fragmentsCovered.reset();
+        fragmentsDepthRejected.reset();
+        fragmentShaderInvocations.reset();
+        fragmentsDiscarded.reset();
+        vertexProcessingNanos.reset();
+        triangleSetupNanos.reset();
+        rasterizationNanos.reset();
+    }
+
+    void addVertices(long submitted, long shaded) {
+        verticesSubmitted.add(submitted);
+        vertexShaderInvocations.add(shaded);
+    }
+
+    void addTriangleSubmitted() { trianglesSubmitted.increment(); }
+    void addTriangleClipped() { trianglesClipped.increment(); }
+    void addTriangleRejected() { trianglesRejected.increment(); }
+    void addTriangleCulled() { trianglesCulled.increment(); }
+    void addTriangleDegenerate() { trianglesDegenerate.increment(); }
+    void addTriangleRasterized() { trianglesRasterized.increment(); }
+    void addBlockHierarchicalZRejected() { blocksHierarchicalZRejected.increment(); }
+
+    // Called once per raster block, so the hot per-pixel loops only count in locals.
+    void addBlock(int pixelsTested, int covered, int depthRejected, int shaderInvocations, int discarded) {
+        pixelsCoverageTested.add(pixelsTested);
+        fragmentsCovered.add(covered);
+        if (depthRejected != 0) fragmentsDepthRejected.add(depthRejected);
+        if (shaderInvocations != 0) fragmentShaderInvocations.add(shaderInvocations);
+        if (discarded != 0) fragmentsDiscarded.add(discarded);
+    }
+
+    void addPass(int drawCount, long vertexNanos, long setupNanos, long rasterNanos) {
+        draws.add(drawCount);
+        vertexProcessingNanos.add(vertexNanos);
+        triangleSetupNanos.add(setupNanos);
+        rasterizationNanos.add(rasterNanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "draws=%d vertices=%d (shaded %d) triangles=%d (clipped %d, rejected %d, culled %d, degenerate %d,"
+                        + " rasterized %d) hiZRejectedBlocks=%d pixelsTested=%d covered=%d depthRejected=%d"
+                        + " fsInvocations=%d discarded=%d vertex=%.3fms setup=%.3fms raster=%.3fms",
+                getDrawCount(), getVerticesSubmitted(), getVertexShaderInvocations(),
+                getTrianglesSubmitted(), getTrianglesClipped(), getTrianglesRejected(), getTrianglesCulled(),
+                getTrianglesDegenerate(), getTrianglesRasterized(), getBlocksHierarchicalZRejected(),
+                getPixelsCoverageTested(), getFragmentsCovered(), getFragmentsDepthRejected(),
+                getFragmentShaderInvocations(), getFragmentsDiscarded(),
+                getVertexProcessingNanos() / 1e6, getTriangleSetupNanos() / 1e6, getRasterizationNanos() / 1e6);
+    }
+}
@@ -1,103 +1,857 @@
 package io.github.danielreker.javarenderer.core;
 
+import io.github.danielreker.javarenderer.core.container.AbstractVertexBuffer;
+import io.github.danielreker.javarenderer.core.container.ColorRenderBuffer;
+import io.github.danielreker.javarenderer.core.container.DepthRenderBuffer;
 import io.github.danielreker.javarenderer.core.container.FrameBuffer;
-import io.github.danielreker.javarenderer.core.container.RenderBuffer;
+import io.github.danielreker.javarenderer.core.container.HierarchicalZBuffer;
+import io.github.danielreker.javarenderer.core.container.IndexBuffer;
+import io.github.danielreker.javarenderer.core.enums.CullMode;
+import io.github.danielreker.javarenderer.core.enums.FrontFace;
 import io.github.danielreker.javarenderer.core.enums.PrimitiveType;
+import io.github.danielreker.javarenderer.core.enums.RasterBackend;
+import io.github.danielreker.javarenderer.core.enums.RasterMode;
 import io.github.danielreker.javarenderer.core.shader.io.FragmentShaderIoBase;
+import io.github.danielreker.javarenderer.core.shader.FragmentBatch;
 import io.github.danielreker.javarenderer.core.shader.ShaderProgram;
+import io.github.danielreker.javarenderer.core.shader.UniformSnapshot;
+import io.github.danielreker.javarenderer.core.shader.VaryingInterpolator;
+import io.github.danielreker.javarenderer.core.shader.VertexIoPool;
 import io.github.danielreker.javarenderer.core.shader.io.VertexShaderIoBase;
-import io.github.danielreker.javarenderer.core.container.VertexBuffer;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public class Renderer {
+    public static final int DEFAULT_TILE_SIZE = 64;
+    public static final int DEFAULT_VERTEX_CHUNK_SIZE = 1024;
+    public static final int DEFAULT_PARALLEL_VERTEX_THRESHOLD = 8192;
 
-    public <V, V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase>
+    private static final int SUBPIXEL_BITS = 8;
+    private static final int SUBPIXEL_SCALE = 1 << SUBPIXEL_BITS;
+    private static final int SUBPIXEL_HALF = SUBPIXEL_SCALE >> 1;
+    private static final float MAX_SCREEN_COORDINATE = 1 << 20;
+    private static final float NEAR_CLIP_PLANE_W = 0.0001f;
+    private static final int CLIP_NEAR = 0;
+    private static final int CLIP_MIN_W = 1;
+    private static final int CLIP_GUARD_LEFT = 2;
+    private static final int CLIP_GUARD_RIGHT = 3;
+    private static final int CLIP_GUARD_BOTTOM = 4;
+    private static final int CLIP_GUARD_TOP = 5;
+    private static final int CLIP_PLANE_COUNT = 6;
+    private static final int CLIP_PLANES_MASK = (1 << CLIP_PLANE_COUNT) - 1;
+    // Viewport planes are only used to reject triangles that are entirely off-screen.
+    private static final int OUTSIDE_LEFT = 1 << CLIP_PLANE_COUNT;
+    private static final int OUTSIDE_RIGHT = OUTSIDE_LEFT << 1;
+    private static final int OUTSIDE_BOTTOM = OUTSIDE_LEFT << 2;
+    private static final int OUTSIDE_TOP = OUTSIDE_LEFT << 3;
+    // Also the size of a FragmentBatch, so that a batch never spans two raster blocks.
+    private static final int RASTER_BLOCK_SIZE = HierarchicalZBuffer.TILE_SIZE;
+    // Interpolated depth may stray slightly outside the vertex depth range through float rounding.
+    private static final float DEPTH_BOUNDS_EPSILON = 1e-5f;
+    // Indexed draws whose indices span at most this many vertices per index remap through a flat array;
+    // sparser ones use a hash table.
+    private static final int DENSE_INDEX_REMAP_RATIO = 4;
+
+    private RasterMode rasterMode = RasterMode.SEQUENTIAL;
+    private int tileSize = DEFAULT_TILE_SIZE;
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+    private ForkJoinPool rasterPool;
+    private boolean hierarchicalZEnabled = true;
+    private RasterBackend rasterBackend = RasterBackend.SCALAR;
+    private Executor vertexExecutor;
+    private int vertexChunkSize = DEFAULT_VERTEX_CHUNK_SIZE;
+    private int parallelVertexThreshold = DEFAULT_PARALLEL_VERTEX_THRESHOLD;
+    private CullMode cullMode = CullMode.NONE;
+    private FrontFace frontFace = FrontFace.COUNTER_CLOCKWISE;
+    private long culledTriangleCount;
+    private long degenerateTriangleCount;
+    private final RenderStats statistics = new RenderStats();
+    private boolean statisticsEnabled = false;
+
+    public RasterMode getRasterMode() { return rasterMode; }
+    public int getTileSize() { return tileSize; }
+    public int getThreadCount() { return threadCount; }
+    public CullMode getCullMode() { return cullMode; }
+    public FrontFace getFrontFace() { return frontFace; }
+
+    // Both counters are taken after clipping, so a clipped triangle may count once per fanned piece.
+    public long getCulledTriangleCount() { return culledTriangleCount; }
+    public long getDegenerateTriangleCount() { return degenerateTriangleCount; }
+
+    public void resetTriangleCounters() {
+        culledTriangleCount = 0;
+        degenerateTriangleCount = 0;
+    }
+
+    public boolean isStatisticsEnabled() { return statisticsEnabled; }
+
+    // The statistics stay readable, and keep their counts, while collection is disabled.
+    public RenderStats getStatistics() { return statistics; }
+
+    // Disabled by default. When disabled, drawing does no counting or timing beyond a flag check per triangle
+    // and per raster block; the render pass JFR event is timed only while a recording has it enabled.
+    // Must not be changed while a draw is in progress.
+    public void setStatisticsEnabled(boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+    }
+
+    public void setCullMode(CullMode cullMode) {
+        this.cullMode = Objects.requireNonNull(cullMode, "CullMode cannot be null.");
+    }
+
+    public void setFrontFace(FrontFace frontFace) {
+        this.frontFace = Objects.requireNonNull(frontFace, "FrontFace cannot be null.");
+    }
+
+    public void setRasterMode(RasterMode rasterMode) {
+        this.rasterMode = Objects.requireNonNull(rasterMode, "RasterMode cannot be null.");
+    }
+
+    public RasterBackend getRasterBackend() { return rasterBackend; }
+
+    // The VECTOR backend needs the jdk.incubator.vector module (--add-modules jdk.incubator.vector);
+    // without it the renderer warns and stays on SCALAR.
+    public void setRasterBackend(RasterBackend rasterBackend) {
+        Objects.requireNonNull(rasterBackend, "RasterBackend cannot be null.");
+        if (rasterBackend == RasterBackend.VECTOR && !isVectorBackendAvailable()) {
+            System.err.println("Warning: Module jdk.incubator.vector is not available. Using SCALAR raster backend.");
+            rasterBackend = RasterBackend.SCALAR;
+        }
+        this.rasterBackend = rasterBackend;
+    }
+
+    public static boolean isVectorBackendAvailable() {
+        return VectorBackendSupport.AVAILABLE;
+    }
+
+    public boolean isHierarchicalZEnabled() { return hierarchicalZEnabled; }
+
+    public void setHierarchicalZEnabled(boolean hierarchicalZEnabled) {
+        this.hierarchicalZEnabled = hierarchicalZEnabled;
+    }
+
+    // Tiles must cover whole hierarchical Z tiles so that no depth tile is shared between threads.
+    public void setTileSize(int tileSize) {
+        if (tileSize <= 0 || tileSize % RASTER_BLOCK_SIZE != 0) {
+            throw new IllegalArgumentException("Tile size must be a positive multiple of "
+                    + RASTER_BLOCK_SIZE + ": " + tileSize);
+        }
+        this.tileSize = tileSize;
+    }
+
+    public synchronized void setThreadCount(int threadCount) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threadCount);
+        }
+        if (threadCount != this.threadCount && rasterPool != null) {
+            rasterPool.shutdown();
+            rasterPool = null;
+        }
+        this.threadCount = threadCount;
+    }
+
+    private synchronized ForkJoinPool getRasterPool() {
+        if (rasterPool == null) {
+            rasterPool = new ForkJoinPool(threadCount);
+        }
+        return rasterPool;
+    }
+
+    public Executor getVertexExecutor() { return vertexExecutor; }
+    public int getVertexChunkSize() { return vertexChunkSize; }
+    public int getParallelVertexThreshold() { return parallelVertexThreshold; }
+
+    // Executor for parallel vertex shading; null (the default) uses the renderer's own thread pool.
+    // Vertex shaders of large draws run concurrently and must not share mutable state between invocations.
+    public void setVertexExecutor(Executor vertexExecutor) {
+        this.vertexExecutor = vertexExecutor;
+    }
+
+    public void setVertexChunkSize(int vertexChunkSize) {
+        if (vertexChunkSize <= 0) {
+            throw new IllegalArgumentException("Vertex chunk size must be positive: " + vertexChunkSize);
+        }
+        this.vertexChunkSize = vertexChunkSize;
+    }
+
+    // Draws shading fewer vertices than this stay on the calling thread; Integer.MAX_VALUE disables
+    // parallel vertex processing.
+    public void setParallelVertexThreshold(int parallelVertexThreshold) {
+        if (parallelVertexThreshold < 0) {
+            throw new IllegalArgumentException("Parallel vertex threshold cannot be negative: "
+                    + parallelVertexThreshold);
+        }
+        this.parallelVertexThreshold = parallelVertexThreshold;
+    }
+
+    public synchronized void shutdown() {
+        if (rasterPool != null) {
+            rasterPool.shutdown();
+            rasterPool = null;
+        }
+    }
+
+
+    public <V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase>
     void render(
             FrameBuffer targetFrameBuffer,
             ShaderProgram<V_IO, F_IO> program,
-            VertexBuffer<V> vbo,
+            AbstractVertexBuffer vbo,
             PrimitiveType mode,
             int first,
             int count
+    ) {
+        renderInstanced(targetFrameBuffer, program, vbo, mode, first, count, 1, null);
+    }
+
+    public <V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase>
+    void renderIndexed(
+            FrameBuffer targetFrameBuffer,
+            ShaderProgram<V_IO, F_IO> program,
+            AbstractVertexBuffer vbo,
+            IndexBuffer ibo,
+            PrimitiveType mode,
+            int firstIndex,
+            int indexCount
+    ) {
+        renderIndexedInstanced(targetFrameBuffer, program, vbo, ibo, mode, firstIndex, indexCount, 1, null);
+    }
+
+    public <V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase>
+    void renderInstanced(
+            FrameBuffer targetFrameBuffer,
+            ShaderProgram<V_IO, F_IO> program,
+            AbstractVertexBuffer vbo,
+            PrimitiveType mode,
+            int first,
+            int count,
+            int instanceCount,
+            AbstractVertexBuffer instanceBuffer
     ) {
         Objects.requireNonNull(targetFrameBuffer, "Target FrameBuffer cannot be null.");
         Objects.requireNonNull(program, "ShaderProgram cannot be null.");
         Objects.requireNonNull(vbo, "VertexBuffer cannot be null.");
-        if (vbo.getVertexCount() == 0) return;
+        checkInstanceRange(instanceCount, instanceBuffer);
+        if (vbo.getVertexCount() == 0 || instanceCount == 0) return;
 
-        List<V_IO> processedVertices = processVertices(vbo.streamRange(first, count), program).toList();
+        vbo.checkRange(first, count);
+        RenderPassEvent event = new RenderPassEvent();
+        event.begin();
+        StageTimes times = startStageTimes(event);
+        UniformSnapshot uniforms = program.snapshotUniforms();
+        List<V_IO> processedVertices = processVertices(vbo, first, count, instanceCount, instanceBuffer,
+                program, uniforms, new VertexSlotRange());
+        if (times != null) times.vertexNanos += times.lap();
 
         if (mode == PrimitiveType.TRIANGLES) {
-            assembleAndRasterizeTriangles(processedVertices, program, targetFrameBuffer);
+            assembleAndRasterizeTriangles(processedVertices, count, program, uniforms, targetFrameBuffer, times);
         } else {
             System.err.println("Warning: PrimitiveType " + mode + " not yet supported. Only TRIANGLES.");
         }
+        finishPass(event, times, 1, processedVertices.size());
     }
 
-    private <V, V_IO extends VertexShaderIoBase> Stream<V_IO> processVertices(
-            Stream<V> verticesStream,
-            ShaderProgram<V_IO, ?> program
+    public <V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase>
+    void renderIndexedInstanced(
+            FrameBuffer targetFrameBuffer,
+            ShaderProgram<V_IO, F_IO> program,
+            AbstractVertexBuffer vbo,
+            IndexBuffer ibo,
+            PrimitiveType mode,
+            int firstIndex,
+            int indexCount,
+            int instanceCount,
+            AbstractVertexBuffer instanceBuffer
     ) {
-        return verticesStream.map(vertexObject -> {
-            V_IO vsIo = program.createAndPrepareVertexIO(vertexObject);
-            if (vsIo != null) {
-                program.executeVertexShader(vsIo);
-            } else {
-                System.err.println("Warning: Failed to create Vertex I/O Object from Vertex Object "
-                        + vertexObject.getClass().getSimpleName());
+        Objects.requireNonNull(targetFrameBuffer, "Target FrameBuffer cannot be null.");
+        Objects.requireNonNull(program, "ShaderProgram cannot be null.");
+        Objects.requireNonNull(vbo, "VertexBuffer cannot be null.");
+        Objects.requireNonNull(ibo, "IndexBuffer cannot be null.");
+        ibo.checkRange(firstIndex, indexCount);
+        checkInstanceRange(instanceCount, instanceBuffer);
+        if (indexCount == 0 || instanceCount == 0) return;
+
+        RenderPassEvent event = new RenderPassEvent();
+        event.begin();
+        StageTimes times = startStageTimes(event);
+        UniformSnapshot uniforms = program.snapshotUniforms();
+        List<V_IO> processedVertices = processIndexedVertices(
+                vbo, ibo, firstIndex, indexCount, instanceCount, instanceBuffer, program, uniforms, new VertexSlotRange());
+        if (times != null) times.vertexNanos += times.lap();
+
+        if (mode == PrimitiveType.TRIANGLES) {
+            assembleAndRasterizeTriangles(processedVertices, indexCount, program, uniforms, targetFrameBuffer, times);
+        } else {
+            System.err.println("Warning: PrimitiveType " + mode + " not yet supported. Only TRIANGLES.");
+        }
+        finishPass(event, times, 1, processedVertices.size());
+    }
+
+    static void checkInstanceRange(int instanceCount, AbstractVertexBuffer instanceBuffer) {
+        if (instanceCount < 0) {
+            throw new IllegalArgumentException("Instance count cannot be negative: " + instanceCount);
+        }
+        if (instanceBuffer != null) {
+            instanceBuffer.checkRange(0, instanceCount);
+        }
+    }
+
+    // Command buffers record with this renderer's cull mode and front face at the time of each draw.
+    public CommandBuffer newCommandBuffer() {
+        return new CommandBuffer(this);
+    }
+
+    // Consecutive draws to the same frame buffer form a pass: vertices are shaded program by program, then
+    // all triangles of the pass are set up in raster order and share one binning pass. Passes run in
+    // recording order, so a pass can read what an earlier one rendered.
+    public void submit(CommandBuffer commandBuffer) {
+        Objects.requireNonNull(commandBuffer, "CommandBuffer cannot be null.");
+        if (commandBuffer.getRenderer() != this) {
+            throw new IllegalArgumentException("CommandBuffer was created by a different Renderer.");
+        }
+        List<CommandBuffer.DrawCommand> commands = commandBuffer.getCommands();
+        int passStart = 0;
+        for (int i = 1; i <= commands.size(); i++) {
+            if (i == commands.size() || commands.get(i).targetFrameBuffer != commands.get(passStart).targetFrameBuffer) {
+                executePass(commands.subList(passStart, i));
+                passStart = i;
+            }
+        }
+    }
+
+    private void executePass(List<CommandBuffer.DrawCommand> pass) {
+        RenderPassEvent event = new RenderPassEvent();
+        event.begin();
+        StageTimes times = startStageTimes(event);
+        FrameBuffer targetFrameBuffer = pass.get(0).targetFrameBuffer;
+        Map<ShaderProgram<?, ?>, Integer> programOrder = new IdentityHashMap<>();
+        for (CommandBuffer.DrawCommand command : pass) {
+            programOrder.putIfAbsent(command.program, programOrder.size());
+        }
+
+        List<CommandBuffer.DrawCommand> shadingOrder = new ArrayList<>(pass);
+        shadingOrder.sort(Comparator
+                .comparingInt((CommandBuffer.DrawCommand c) -> programOrder.get(c.program))
+                .thenComparingInt(c -> c.sequence));
+        Map<ShaderProgram<?, ?>, VertexSlotRange> slotRanges = new IdentityHashMap<>();
+        Map<CommandBuffer.DrawCommand, ShadedDraw<?>> shadedDraws = new IdentityHashMap<>();
+        long vertexCount = 0;
+        for (CommandBuffer.DrawCommand command : shadingOrder) {
+            VertexSlotRange slots = slotRanges.computeIfAbsent(command.program, program -> new VertexSlotRange());
+            ShadedDraw<?> draw = shadeDraw(command, command.program, slots);
+            shadedDraws.put(command, draw);
+            vertexCount += draw.vertices.size();
+        }
+        if (times != null) times.vertexNanos += times.lap();
+
+        // Opaque draws front-to-back so that hierarchical Z rejects as much as possible, then translucent
+        // draws in recording order. Draws with equal keys also keep recording order.
+        List<CommandBuffer.DrawCommand> rasterOrder = new ArrayList<>(pass);
+        rasterOrder.sort(Comparator
+                .comparing((CommandBuffer.DrawCommand c) -> !c.opaque)
+                .thenComparing((c1, c2) -> c1.opaque ? Float.compare(c1.sortDepth, c2.sortDepth) : 0)
+                .thenComparingInt(c -> c.opaque ? programOrder.get(c.program) : 0)
+                .thenComparingInt(c -> c.sequence));
+
+        List<TriangleSetup<?>> triangles = new ArrayList<>();
+        for (CommandBuffer.DrawCommand command : rasterOrder) {
+            setupDraw(shadedDraws.get(command), targetFrameBuffer, triangles);
+        }
+        if (times != null) {
+            times.setupNanos += times.lap();
+            times.triangleCount += triangles.size();
+        }
+
+        if (rasterMode == RasterMode.TILED_PARALLEL) {
+            rasterizeTiled(triangles, targetFrameBuffer);
+        } else {
+            int viewportMaxX = targetFrameBuffer.getWidth() - 1;
+            int viewportMaxY = targetFrameBuffer.getHeight() - 1;
+            for (TriangleSetup<?> triangle : triangles) {
+                rasterizeTriangle(triangle, targetFrameBuffer, 0, 0, viewportMaxX, viewportMaxY);
+            }
+        }
+        if (times != null) times.rasterNanos += times.lap();
+        finishPass(event, times, pass.size(), vertexCount);
+    }
+
+    // Null unless statistics are enabled or a JFR recording wants the event, so that untimed draws do not
+    // call System.nanoTime() at all.
+    private StageTimes startStageTimes(RenderPassEvent event) {
+        return statisticsEnabled || event.isEnabled() ? new StageTimes() : null;
+    }
+
+    private void finishPass(RenderPassEvent event, StageTimes times, int drawCount, long vertexCount) {
+        if (times == null) return;
+        if (statisticsEnabled) {
+            statistics.addPass(drawCount, times.vertexNanos, times.setupNanos, times.rasterNanos);
+        }
+        if (event.shouldCommit()) {
+            event.drawCount = drawCount;
+            event.vertexCount = vertexCount;
+            event.triangleCount = times.triangleCount;
+            event.vertexProcessingTime = times.vertexNanos;
+            event.triangleSetupTime = times.setupNanos;
+            event.rasterizationTime = times.rasterNanos;
+            event.commit();
+        }
+    }
+
+    private static final class StageTimes {
+        long vertexNanos;
+        long setupNanos;
+        long rasterNanos;
+        long triangleCount;
+        private long lapStart = System.nanoTime();
+
+        // Time since the previous lap, or since creation.
+        long lap() {
+            long now = System.nanoTime();
+            long elapsed = now - lapStart;
+            lapStart = now;
+            return elapsed;
+        }
+    }
+
+    private <V_IO extends VertexShaderIoBase> ShadedDraw<V_IO> shadeDraw(
+            CommandBuffer.DrawCommand command,
+            ShaderProgram<V_IO, ?> program,
+            VertexSlotRange slots
+    ) {
+        List<V_IO> vertices = command.ibo != null
+                ? processIndexedVertices(command.vbo, command.ibo, command.first, command.count,
+                        command.instanceCount, command.instanceBuffer, program, command.uniforms, slots)
+                : processVertices(command.vbo, command.first, command.count,
+                        command.instanceCount, command.instanceBuffer, program, command.uniforms, slots);
+        return new ShadedDraw<>(command, program, vertices);
+    }
+
+    private <V_IO extends VertexShaderIoBase> void setupDraw(
+            ShadedDraw<V_IO> draw,
+            FrameBuffer targetFrameBuffer,
+            List<? super TriangleSetup<V_IO>> output
+    ) {
+        CommandBuffer.DrawCommand command = draw.command;
+        assembleTriangles(draw.vertices, command.count, draw.program, command.uniforms,
+                command.cullMode, command.frontFace, targetFrameBuffer, output);
+    }
+
+    // All instances are shaded into one list, instance after instance, so they share a single raster pass.
+    private <V_IO extends VertexShaderIoBase> List<V_IO> processVertices(
+            AbstractVertexBuffer vbo,
+            int first,
+            int count,
+            int instanceCount,
+            AbstractVertexBuffer instanceBuffer,
+            ShaderProgram<V_IO, ?> program,
+            UniformSnapshot uniforms,
+            VertexSlotRange slots
+    ) {
+        int totalCount = Math.multiplyExact(count, instanceCount);
+        if (statisticsEnabled) statistics.addVertices(totalCount, totalCount);
+        int poolBase = slots.reserve(totalCount);
+        VertexIoPool<V_IO> ioPool = program.acquireVertexIoPool(poolBase + totalCount);
+        V_IO[] processedVertices = newVertexIoArray(totalCount);
+        forEachVertexChunk(totalCount, (from, to) -> {
+            for (int slot = from; slot < to; slot++) {
+                int instance = slot / count;
+                int i = slot - instance * count;
+                processedVertices[slot] = shadeVertex(vbo, first + i, instanceBuffer, instance,
+                        program, uniforms, ioPool, poolBase + slot);
             }
-            return vsIo;
         });
+        return Arrays.asList(processedVertices);
+    }
+
+    // Post-transform cache: every distinct index in the range is shaded once per instance and shared by all
+    // of its triangles. Distinct indices get dense cache slots in order of first use, so the cache and the IO
+    // pool scale with the vertices a draw references rather than with the span of its indices.
+    private <V_IO extends VertexShaderIoBase> List<V_IO> processIndexedVertices(
+            AbstractVertexBuffer vbo,
+            IndexBuffer ibo,
+            int firstIndex,
+            int indexCount,
+            int instanceCount,
+            AbstractVertexBuffer instanceBuffer,
+            ShaderProgram<V_IO, ?> program,
+            UniformSnapshot uniforms,
+            VertexSlotRange slots
+    ) {
+        int minIndex = Integer.MAX_VALUE;
+        int maxIndex = Integer.MIN_VALUE;
+        for (int i = firstIndex; i < firstIndex + indexCount; i++) {
+            int index = ibo.getIndex(i);
+            minIndex = Math.min(minIndex, index);
+            maxIndex = Math.max(maxIndex, index);
+        }
+        int referencedCount = maxIndex - minIndex + 1;
+        vbo.checkRange(minIndex, referencedCount);
+
+        int[] localSlots = new int[indexCount];
+        int[] uniqueIndices = new int[indexCount];
+        int uniqueCount = 0;
+        if (referencedCount <= DENSE_INDEX_REMAP_RATIO * (long) indexCount) {
+            // Slot + 1, so that zero marks an index not seen yet.
+            int[] remap = new int[referencedCount];
+            for (int i = 0; i < indexCount; i++) {
+                int index = ibo.getIndex(firstIndex + i);
+                int slot = remap[index - minIndex] - 1;
+                if (slot < 0) {
+                    slot = uniqueCount++;
+                    remap[index - minIndex] = slot + 1;
+                    uniqueIndices[slot] = index;
+                }
+                localSlots[i] = slot;
+            }
+        } else {
+            IndexSlotMap remap = new IndexSlotMap(indexCount);
+            for (int i = 0; i < indexCount; i++) {
+                int index = ibo.getIndex(firstIndex + i);
+                int slot = remap.putIfAbsent(index, uniqueCount);
+                if (slot < 0) {
+                    slot = uniqueCount++;
+                    uniqueIndices[slot] = index;
+                }
+                localSlots[i] = slot;
+            }
+        }
+
+        int cacheSize = Math.multiplyExact(uniqueCount, instanceCount);
+        if (statisticsEnabled) statistics.addVertices((long) indexCount * instanceCount, cacheSize);
+        int poolBase = slots.reserve(cacheSize);
+        VertexIoPool<V_IO> ioPool = program.acquireVertexIoPool(poolBase + cacheSize);
+        V_IO[] transformCache = newVertexIoArray(cacheSize);
+        int verticesPerInstance = uniqueCount;
+        forEachVertexChunk(cacheSize, (from, to) -> {
+            for (int cacheSlot = from; cacheSlot < to; cacheSlot++) {
+                int instance = cacheSlot / verticesPerInstance;
+                int index = uniqueIndices[cacheSlot - instance * verticesPerInstance];
+                transformCache[cacheSlot] = shadeVertex(vbo, index, instanceBuffer, instance,
+                        program, uniforms, ioPool, poolBase + cacheSlot);
+            }
+        });
+
+        V_IO[] processedVertices = newVertexIoArray(Math.multiplyExact(indexCount, instanceCount));
+        int out = 0;
+        for (int instance = 0; instance < instanceCount; instance++) {
+            int slotBase = instance * uniqueCount;
+            for (int i = 0; i < indexCount; i++) {
+                processedVertices[out++] = transformCache[slotBase + localSlots[i]];
+            }
+        }
+        return Arrays.asList(processedVertices);
+    }
+
+    // Open-addressing map from vertex index to cache slot, for draws whose indices span far more vertices
+    // than they reference. Sized for every index being distinct, so it never grows.
+    private static final class IndexSlotMap {
+        private final int[] keys;
+        private final int[] slots;
+
+        IndexSlotMap(int maxSize) {
+            int capacity = Integer.highestOneBit(2 * maxSize - 1) << 1;
+            keys = new int[capacity];
+            slots = new int[capacity];
+            Arrays.fill(slots, -1);
+        }
+
+        // Returns the slot already mapped to index, or maps it to slot and returns -1.
+        int putIfAbsent(int index, int slot) {
+            int mask = slots.length - 1;
+            int h = index * 0x9E3779B1;
+            for (int i = (h ^ (h >>> 16)) & mask; ; i = (i + 1) & mask) {
+                if (slots[i] < 0) {
+                    keys[i] = index;
+                    slots[i] = slot;
+                    return -1;
+                }
+                if (keys[i] == index) return slots[i];
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V_IO extends VertexShaderIoBase> V_IO[] newVertexIoArray(int length) {
+        return (V_IO[]) new VertexShaderIoBase[length];
+    }
+
+    // Hands out disjoint ranges of a program's vertex IO pool, so that the IOs of several draws with the
+    // same program can be alive at once.
+    private static final class VertexSlotRange {
+        private int next;
+
+        int reserve(int count) {
+            int base = next;
+            next = Math.addExact(next, count);
+            return base;
+        }
+    }
+
+    private static final class ShadedDraw<V_IO extends VertexShaderIoBase> {
+        final CommandBuffer.DrawCommand command;
+        final ShaderProgram<V_IO, ?> program;
+        final List<V_IO> vertices;
+
+        ShadedDraw(CommandBuffer.DrawCommand command, ShaderProgram<V_IO, ?> program, List<V_IO> vertices) {
+            this.command = command;
+            this.program = program;
+            this.vertices = vertices;
+        }
+    }
+
+    private interface VertexRangeTask {
+        void run(int from, int to);
+    }
+
+    // Vertices [0, count) are split into chunks of vertexChunkSize shaded on the vertex executor. Each task
+    // writes only its own slots of a preallocated array, so output order does not depend on scheduling.
+    private void forEachVertexChunk(int count, VertexRangeTask task) {
+        if (count < parallelVertexThreshold || count <= vertexChunkSize) {
+            task.run(0, count);
+            return;
+        }
+
+        Executor executor = vertexExecutor != null ? vertexExecutor : getRasterPool();
+        CompletableFuture<?>[] chunks = new CompletableFuture<?>[(count + vertexChunkSize - 1) / vertexChunkSize];
+        for (int c = 0; c < chunks.length; c++) {
+            int from = c * vertexChunkSize;
+            int to = Math.min(from + vertexChunkSize, count);
+            chunks[c] = CompletableFuture.runAsync(() -> task.run(from, to), executor);
+        }
+        try {
+            CompletableFuture.allOf(chunks).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            if (e.getCause() instanceof Error error) throw error;
+            throw e;
+        }
+    }
+
+    private <V_IO extends VertexShaderIoBase> V_IO shadeVertex(
+            AbstractVertexBuffer vbo,
+            int vertexIndex,
+            AbstractVertexBuffer instanceBuffer,
+            int instanceId,
+            ShaderProgram<V_IO, ?> program,
+            UniformSnapshot uniforms,
+            VertexIoPool<V_IO> ioPool,
+            int slot
+    ) {
+        V_IO vsIo = program.createAndPrepareVertexIO(vbo, vertexIndex, instanceBuffer, instanceId, ioPool, slot, uniforms);
+        if (vsIo != null) {
+            program.executeVertexShader(vsIo);
+        } else {
+            System.err.println("Warning: Failed to create Vertex I/O Object for vertex " + vertexIndex
+                    + " of " + vbo.getClass().getSimpleName());
+        }
+        return vsIo;
     }
 
     private <V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase>
     void assembleAndRasterizeTriangles(
             List<V_IO> allProcessedVertices,
+            int verticesPerInstance,
             ShaderProgram<V_IO, F_IO> program,
-            FrameBuffer targetFrameBuffer
+            UniformSnapshot uniforms,
+            FrameBuffer targetFrameBuffer,
+            StageTimes times
     ) {
-        for (int i = 0; i < allProcessedVertices.size() - 2; i += 3) {
-            V_IO v0_io = allProcessedVertices.get(i);
-            V_IO v1_io = allProcessedVertices.get(i + 1);
-            V_IO v2_io = allProcessedVertices.get(i + 2);
-            rasterizeTriangle(v0_io, v1_io, v2_io, program, targetFrameBuffer);
+        if (rasterMode == RasterMode.TILED_PARALLEL) {
+            List<TriangleSetup<V_IO>> triangles = new ArrayList<>(allProcessedVertices.size() / 3);
+            assembleTriangles(allProcessedVertices, verticesPerInstance, program, uniforms,
+                    cullMode, frontFace, targetFrameBuffer, triangles);
+            if (times != null) {
+                times.setupNanos += times.lap();
+                times.triangleCount += triangles.size();
+            }
+            rasterizeTiled(triangles, targetFrameBuffer);
+            if (times != null) times.rasterNanos += times.lap();
+            return;
+        }
+
+        // Setup and rasterization alternate per triangle here, so timing them costs two clock reads each.
+
+        int viewportMaxX = targetFrameBuffer.getWidth() - 1;
+        int viewportMaxY = targetFrameBuffer.getHeight() - 1;
+        List<TriangleSetup<V_IO>> triangles = new ArrayList<>();
+        for (int instanceBase = 0; instanceBase < allProcessedVertices.size(); instanceBase += verticesPerInstance) {
+            for (int i = instanceBase; i + 2 < instanceBase + verticesPerInstance; i += 3) {
+                V_IO v0_io = allProcessedVertices.get(i);
+                V_IO v1_io = allProcessedVertices.get(i + 1);
+                V_IO v2_io = allProcessedVertices.get(i + 2);
+                setupTriangles(v0_io, v1_io, v2_io, program, uniforms, cullMode, frontFace, targetFrameBuffer, triangles);
+                if (times != null) {
+                    times.setupNanos += times.lap();
+                    times.triangleCount += triangles.size();
+                }
+                for (int t = 0; t < triangles.size(); t++) {
+                    rasterizeTriangle(triangles.get(t), program, targetFrameBuffer, 0, 0, viewportMaxX, viewportMaxY);
+                }
+                if (times != null) times.rasterNanos += times.lap();
+                triangles.clear();
+            }
         }
     }
 
-    private <V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase>
-    void rasterizeTriangle(
+    private <V_IO extends VertexShaderIoBase> void assembleTriangles(
+            List<V_IO> allProcessedVertices,
+            int verticesPerInstance,
+            ShaderProgram<V_IO, ?> program,
+            UniformSnapshot uniforms,
+            CullMode cullMode,
+            FrontFace frontFace,
+            FrameBuffer targetFrameBuffer,
+            List<? super TriangleSetup<V_IO>> output
+    ) {
+        for (int instanceBase = 0; instanceBase < allProcessedVertices.size(); instanceBase += verticesPerInstance) {
+            for (int i = instanceBase; i + 2 < instanceBase + verticesPerInstance; i += 3) {
+                setupTriangles(
+                        allProcessedVertices.get(i), allProcessedVertices.get(i + 1), allProcessedVertices.get(i + 2),
+                        program, uniforms, cullMode, frontFace, targetFrameBuffer, output);
+            }
+        }
+    }
+
+    // Triangles may come from different draws; each carries its own program and uniforms.
+    private void rasterizeTiled(List<? extends TriangleSetup<?>> triangles, FrameBuffer targetFrameBuffer) {
+        if (triangles.isEmpty()) return;
+
+        int width = targetFrameBuffer.getWidth();
+        int height = targetFrameBuffer.getHeight();
+        int tilesX = (width + tileSize - 1) / tileSize;
+        int tilesY = (height + tileSize - 1) / tileSize;
+        TileBins bins = new TileBins(tilesX * tilesY);
+
+        for (int t = 0; t < triangles.size(); t++) {
+            TriangleSetup<?> triangle = triangles.get(t);
+            int firstTileX = triangle.minX / tileSize;
+            int lastTileX = triangle.maxX / tileSize;
+            int firstTileY = triangle.minY / tileSize;
+            int lastTileY = triangle.maxY / tileSize;
+            for (int tileY = firstTileY; tileY <= lastTileY; tileY++) {
+                for (int tileX = firstTileX; tileX <= lastTileX; tileX++) {
+                    bins.add(tileY * tilesX + tileX, t);
+                }
+            }
+        }
+
+        List<ForkJoinTask<?>> tileTasks = new ArrayList<>();
+        for (int tile = 0; tile < tilesX * tilesY; tile++) {
+            int binSize = bins.size(tile);
+            if (binSize == 0) continue;
+
+            int[] bin = bins.get(tile);
+            int tileMinX = (tile % tilesX) * tileSize;
+            int tileMinY = (tile / tilesX) * tileSize;
+            int tileMaxX = Math.min(tileMinX + tileSize, width) - 1;
+            int tileMaxY = Math.min(tileMinY + tileSize, height) - 1;
+            tileTasks.add(ForkJoinTask.adapt(() -> {
+                for (int i = 0; i < binSize; i++) {
+                    rasterizeTriangle(triangles.get(bin[i]), targetFrameBuffer,
+                            tileMinX, tileMinY, tileMaxX, tileMaxY);
+                }
+            }));
+        }
+
+        getRasterPool().submit(() -> ForkJoinTask.invokeAll(tileTasks)).join();
+    }
+
+    // Triangles are only clipped against the near plane and against a guard band that keeps screen
+    // coordinates inside the fixed-point range; everything else is left to the rasterizer's scissoring.
+    // Clipped polygons are fanned back into triangles that share the original provoking vertex.
+    private <V_IO extends VertexShaderIoBase> void setupTriangles(
             V_IO v0_io, V_IO v1_io, V_IO v2_io,
-            ShaderProgram<V_IO, F_IO> program,
-            FrameBuffer targetFrameBuffer
+            ShaderProgram<V_IO, ?> program,
+            UniformSnapshot uniforms,
+            CullMode cullMode,
+            FrontFace frontFace,
+            FrameBuffer targetFrameBuffer,
+            List<? super TriangleSetup<V_IO>> output
     ) {
         Vector4f p0_clip = v0_io.gl_Position;
         Vector4f p1_clip = v1_io.gl_Position;
         Vector4f p2_clip = v2_io.gl_Position;
 
-
-        final float NEAR_CLIP_PLANE_W = 0.0001f;
-
-        if (p0_clip.w < NEAR_CLIP_PLANE_W && p1_clip.w < NEAR_CLIP_PLANE_W && p2_clip.w < NEAR_CLIP_PLANE_W) {
+        float guardBandX = MAX_SCREEN_COORDINATE / targetFrameBuffer.getWidth();
+        float guardBandY = MAX_SCREEN_COORDINATE / targetFrameBuffer.getHeight();
+        int outcode0 = outcode(p0_clip, guardBandX, guardBandY);
+        int outcode1 = outcode(p1_clip, guardBandX, guardBandY);
+        int outcode2 = outcode(p2_clip, guardBandX, guardBandY);
+        if (statisticsEnabled) statistics.addTriangleSubmitted();
+        if ((outcode0 & outcode1 & outcode2) != 0) {
+            if (statisticsEnabled) statistics.addTriangleRejected();
             return;
         }
 
-        if (p0_clip.w < NEAR_CLIP_PLANE_W || p1_clip.w < NEAR_CLIP_PLANE_W || p2_clip.w < NEAR_CLIP_PLANE_W) {
-            // TODO: Implement proper clipping
+        VaryingInterpolator varyingInterpolator = program.getVaryingInterpolator();
+        int clipPlanes = (outcode0 | outcode1 | outcode2) & CLIP_PLANES_MASK;
+        if (clipPlanes == 0) {
+            TriangleSetup<V_IO> t = setupTriangle(v0_io, p0_clip, p1_clip, p2_clip, program, uniforms,
+                    cullMode, frontFace, targetFrameBuffer);
+            if (t != null) {
+                varyingInterpolator.gather(v0_io, t.w0_inv, t.varyings, 0);
+                varyingInterpolator.gather(v1_io, t.w1_inv, t.varyings, 1);
+                varyingInterpolator.gather(v2_io, t.w2_inv, t.varyings, 2);
+                output.add(t);
+            }
             return;
         }
 
+        if (statisticsEnabled) statistics.addTriangleClipped();
+        ClippedPolygon polygon = new ClippedPolygon(p0_clip, p1_clip, p2_clip);
+        for (int plane = 0; plane < CLIP_PLANE_COUNT; plane++) {
+            if ((clipPlanes & (1 << plane)) == 0) continue;
+            polygon = polygon.clip(plane, guardBandX, guardBandY);
+            if (polygon.size < 3) {
+                if (statisticsEnabled) statistics.addTriangleRejected();
+                return;
+            }
+        }
+
+        float[] sourceVaryings = new float[3 * varyingInterpolator.getComponentCount()];
+        varyingInterpolator.gather(v0_io, 1.0f, sourceVaryings, 0);
+        varyingInterpolator.gather(v1_io, 1.0f, sourceVaryings, 1);
+        varyingInterpolator.gather(v2_io, 1.0f, sourceVaryings, 2);
+
+        for (int k = 1; k + 1 < polygon.size; k++) {
+            TriangleSetup<V_IO> t = setupTriangle(v0_io,
+                    polygon.positions[0], polygon.positions[k], polygon.positions[k + 1],
+                    program, uniforms, cullMode, frontFace, targetFrameBuffer);
+            if (t == null) continue;
+            polygon.blendVaryings(varyingInterpolator, sourceVaryings, 0, t.w0_inv, t.varyings, 0);
+            polygon.blendVaryings(varyingInterpolator, sourceVaryings, k, t.w1_inv, t.varyings, 1);
+            polygon.blendVaryings(varyingInterpolator, sourceVaryings, k + 1, t.w2_inv, t.varyings, 2);
+            output.add(t);
+        }
+    }
 
-        Vector3f p0_ndc = ndcFromClip(v0_io.gl_Position);
-        Vector3f p1_ndc = ndcFromClip(v1_io.gl_Position);
-        Vector3f p2_ndc = ndcFromClip(v2_io.gl_Position);
+    // Varyings are left for the caller to fill, since clipped vertices have no shader output of their own.
+    private <V_IO extends VertexShaderIoBase> TriangleSetup<V_IO> setupTriangle(
+            V_IO provokingVertex,
+            Vector4f p0_clip, Vector4f p1_clip, Vector4f p2_clip,
+            ShaderProgram<V_IO, ?> program,
+            UniformSnapshot uniforms,
+            CullMode cullMode,
+            FrontFace frontFace,
+            FrameBuffer targetFrameBuffer
+    ) {
+        Vector3f p0_ndc = ndcFromClip(p0_clip);
+        Vector3f p1_ndc = ndcFromClip(p1_clip);
+        Vector3f p2_ndc = ndcFromClip(p2_clip);
 
         float viewportWidth = targetFrameBuffer.getWidth();
         float viewportHeight = targetFrameBuffer.getHeight();
@@ -106,71 +860,463 @@ public class Renderer {
         Vector2f v1_screen = viewportTransform(p1_ndc, viewportWidth, viewportHeight);
         Vector2f v2_screen = viewportTransform(p2_ndc, viewportWidth, viewportHeight);
 
-        float w0_inv = 1.0f / v0_io.gl_Position.w;
-        float w1_inv = 1.0f / v1_io.gl_Position.w;
-        float w2_inv = 1.0f / v2_io.gl_Position.w;
+        // The guard band keeps clipped vertices well inside this range; this only catches non-finite input.
+        if (!isWithinFixedPointRange(v0_screen) || !isWithinFixedPointRange(v1_screen)
+                || !isWithinFixedPointRange(v2_screen)) {
+            if (statisticsEnabled) statistics.addTriangleRejected();
+            return null;
+        }
 
-        int minX = (int) Math.floor(Math.min(v0_screen.x, Math.min(v1_screen.x, v2_screen.x)));
-        int maxX = (int) Math.ceil(Math.max(v0_screen.x, Math.max(v1_screen.x, v2_screen.x)));
-        int minY = (int) Math.floor(Math.min(v0_screen.y, Math.min(v1_screen.y, v2_screen.y)));
-        int maxY = (int) Math.ceil(Math.max(v0_screen.y, Math.max(v1_screen.y, v2_screen.y)));
+        long x0 = toFixed(v0_screen.x), y0 = toFixed(v0_screen.y);
+        long x1 = toFixed(v1_screen.x), y1 = toFixed(v1_screen.y);
+        long x2 = toFixed(v2_screen.x), y2 = toFixed(v2_screen.y);
 
-        minX = Math.max(0, minX);
-        minY = Math.max(0, minY);
-        maxX = Math.min((int) viewportWidth - 1, maxX);
-        maxY = Math.min((int) viewportHeight - 1, maxY);
+        long areaTriangle = (x2 - x0) * (y1 - y0) - (y2 - y0) * (x1 - x0);
+        if (areaTriangle == 0) {
+            degenerateTriangleCount++;
+            if (statisticsEnabled) statistics.addTriangleDegenerate();
+            return null;
+        }
+        if (isCulled(areaTriangle, cullMode, frontFace)) {
+            culledTriangleCount++;
+            if (statisticsEnabled) statistics.addTriangleCulled();
+            return null;
+        }
 
-        RenderBuffer<Vector4f> colorBuffer = targetFrameBuffer.getColorAttachment();
-        RenderBuffer<Float> depthBuffer = targetFrameBuffer.getDepthAttachment();
+        int minX = (int) (Math.min(x0, Math.min(x1, x2)) >> SUBPIXEL_BITS);
+        int maxX = (int) (Math.max(x0, Math.max(x1, x2)) >> SUBPIXEL_BITS);
+        int minY = (int) (Math.min(y0, Math.min(y1, y2)) >> SUBPIXEL_BITS);
+        int maxY = (int) (Math.max(y0, Math.max(y1, y2)) >> SUBPIXEL_BITS);
 
-        float areaTriangle = edgeFunction(v0_screen, v1_screen, v2_screen);
-        if (areaTriangle == 0) return;
+        TriangleSetup<V_IO> t = new TriangleSetup<>();
+        t.minX = Math.max(0, minX);
+        t.minY = Math.max(0, minY);
+        t.maxX = Math.min((int) viewportWidth - 1, maxX);
+        t.maxY = Math.min((int) viewportHeight - 1, maxY);
+        if (t.minX > t.maxX || t.minY > t.maxY) {
+            if (statisticsEnabled) statistics.addTriangleRejected();
+            return null;
+        }
+        if (statisticsEnabled) statistics.addTriangleRasterized();
 
-        for (int y = minY; y <= maxY; y++) {
-            for (int x = minX; x <= maxX; x++) {
-                Vector2f pixelCenter = new Vector2f(x + 0.5f, y + 0.5f);
+        t.program = program;
+        t.uniforms = uniforms;
+        t.provokingVertex = provokingVertex;
+        t.z0 = p0_ndc.z;
+        t.z1 = p1_ndc.z;
+        t.z2 = p2_ndc.z;
+        t.w0_inv = 1.0f / p0_clip.w;
+        t.w1_inv = 1.0f / p1_clip.w;
+        t.w2_inv = 1.0f / p2_clip.w;
+        t.minDepth = (Math.min(t.z0, Math.min(t.z1, t.z2)) + 1.0f) * 0.5f;
+        t.maxDepth = (Math.max(t.z0, Math.max(t.z1, t.z2)) + 1.0f) * 0.5f;
 
-                float b0 = edgeFunction(v1_screen, v2_screen, pixelCenter) / areaTriangle;
-                float b1 = edgeFunction(v2_screen, v0_screen, pixelCenter) / areaTriangle;
-                float b2 = edgeFunction(v0_screen, v1_screen, pixelCenter) / areaTriangle;
+        t.varyings = new float[3 * program.getVaryingInterpolator().getComponentCount()];
 
-                if (b0 >= 0 && b1 >= 0 && b2 >= 0) {
-                    float perspectiveCorrection = 1.0f / (b0 * w0_inv + b1 * w1_inv + b2 * w2_inv);
+        // Normalize the winding so that the interior is where every edge function is positive.
+        long sign = areaTriangle > 0 ? 1 : -1;
+        t.invArea = 1.0f / (areaTriangle * sign);
+        t.edge0 = new EdgeFunction(x1, y1, x2, y2, sign);
+        t.edge1 = new EdgeFunction(x2, y2, x0, y0, sign);
+        t.edge2 = new EdgeFunction(x0, y0, x1, y1, sign);
+
+        return t;
+    }
 
-                    float interpolatedDepthNDC = (b0 * p0_ndc.z * w0_inv +
-                            b1 * p1_ndc.z * w1_inv +
-                            b2 * p2_ndc.z * w2_inv) * perspectiveCorrection;
+    private <V_IO extends VertexShaderIoBase> void rasterizeTriangle(
+            TriangleSetup<V_IO> triangle,
+            FrameBuffer targetFrameBuffer,
+            int clipMinX, int clipMinY, int clipMaxX, int clipMaxY
+    ) {
+        rasterizeTriangle(triangle, triangle.program, targetFrameBuffer, clipMinX, clipMinY, clipMaxX, clipMaxY);
+    }
 
+    private <V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase>
+    void rasterizeTriangle(
+            TriangleSetup<V_IO> triangle,
+            ShaderProgram<V_IO, F_IO> program,
+            FrameBuffer targetFrameBuffer,
+            int clipMinX, int clipMinY, int clipMaxX, int clipMaxY
+    ) {
+        int minX = Math.max(clipMinX, triangle.minX);
+        int minY = Math.max(clipMinY, triangle.minY);
+        int maxX = Math.min(clipMaxX, triangle.maxX);
+        int maxY = Math.min(clipMaxY, triangle.maxY);
+        if (minX > maxX || minY > maxY) return;
+
+        EdgeFunction edge0 = triangle.edge0;
+        EdgeFunction edge1 = triangle.edge1;
+        EdgeFunction edge2 = triangle.edge2;
+
+        ColorRenderBuffer colorBuffer = targetFrameBuffer.getColorAttachment();
+        DepthRenderBuffer depthBuffer = targetFrameBuffer.getDepthAttachment();
+        HierarchicalZBuffer hierarchicalZ = depthBuffer != null ? depthBuffer.getHierarchicalZ() : null;
+        boolean earlyDepth = hierarchicalZ != null && hierarchicalZEnabled && program.isEarlyDepthRejectionAllowed();
+        RenderStats stats = statisticsEnabled ? statistics : null;
+
+        // Blocks are aligned to the hierarchical Z grid, so each block maps to exactly one depth tile and one
+        // clear tile of each attachment.
+        for (int blockY = minY & -RASTER_BLOCK_SIZE; blockY <= maxY; blockY += RASTER_BLOCK_SIZE) {
+            int blockMinY = Math.max(blockY, minY);
+            int blockMaxY = Math.min(blockY + RASTER_BLOCK_SIZE - 1, maxY);
+
+            for (int blockX = minX & -RASTER_BLOCK_SIZE; blockX <= maxX; blockX += RASTER_BLOCK_SIZE) {
+                int blockMinX = Math.max(blockX, minX);
+                int blockMaxX = Math.min(blockX + RASTER_BLOCK_SIZE - 1, maxX);
+                int depthTile = hierarchicalZ != null ? hierarchicalZ.tileIndexOf(blockX, blockY) : -1;
+
+                boolean depthAccepted = false;
+                if (earlyDepth) {
+                    if (triangle.minDepth - DEPTH_BOUNDS_EPSILON >= hierarchicalZ.getMaxDepth(depthTile)) {
+                        if (stats != null) stats.addBlockHierarchicalZRejected();
+                        continue;
+                    }
+                    depthAccepted = triangle.maxDepth + DEPTH_BOUNDS_EPSILON < hierarchicalZ.getMinDepth(depthTile);
+                }
+
+                int spanX = blockMaxX - blockMinX;
+                int spanY = blockMaxY - blockMinY;
+                long e0 = edge0.evaluate(blockMinX, blockMinY);
+                long e1 = edge1.evaluate(blockMinX, blockMinY);
+                long e2 = edge2.evaluate(blockMinX, blockMinY);
+
+                long e0Max = e0 + edge0.maxOffset(spanX, spanY);
+                long e1Max = e1 + edge1.maxOffset(spanX, spanY);
+                long e2Max = e2 + edge2.maxOffset(spanX, spanY);
+                if (e0Max < 0 || e1Max < 0 || e2Max < 0) continue;
+
+                long e0Min = e0 + edge0.minOffset(spanX, spanY);
+                long e1Min = e1 + edge1.minOffset(spanX, spanY);
+                long e2Min = e2 + edge2.minOffset(spanX, spanY);
+                boolean blockInside = (e0Min | e1Min | e2Min) >= 0;
+
+                // Fast clear: the block is about to be drawn into, so its pixels have to hold the clear values.
+                if (colorBuffer != null) colorBuffer.resolveTile(colorBuffer.clearTileIndexOf(blockX, blockY));
+                if (depthBuffer != null) depthBuffer.resolveTile(depthTile);
+
+                rasterizeBlock(triangle, program, targetFrameBuffer,
+                        blockMinX, blockMinY, blockMaxX, blockMaxY, e0, e1, e2,
+                        blockInside, depthTile, depthAccepted, stats);
+            }
+        }
+    }
+
+    private <V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase>
+    void rasterizeBlock(
+            TriangleSetup<V_IO> triangle,
+            ShaderProgram<V_IO, F_IO> program,
+            FrameBuffer targetFrameBuffer,
+            int blockMinX, int blockMinY, int blockMaxX, int blockMaxY,
+            long e0Start, long e1Start, long e2Start,
+            boolean blockInside,
+            int depthTile,
+            boolean depthAccepted,
+            RenderStats stats
+    ) {
+        if (program.isFragmentShaderBatched()) {
+            rasterizeBlockBatched(triangle, program, targetFrameBuffer,
+                    blockMinX, blockMinY, blockMaxX, blockMaxY, e0Start, e1Start, e2Start,
+                    blockInside, depthTile, depthAccepted, stats);
+            return;
+        }
+
+        VaryingInterpolator varyingInterpolator = program.getVaryingInterpolator();
+        float w0_inv = triangle.w0_inv;
+        float w1_inv = triangle.w1_inv;
+        float w2_inv = triangle.w2_inv;
+        float z0 = triangle.z0 * w0_inv;
+        float z1 = triangle.z1 * w1_inv;
+        float z2 = triangle.z2 * w2_inv;
+        float invArea = triangle.invArea;
+        EdgeFunction edge0 = triangle.edge0;
+        EdgeFunction edge1 = triangle.edge1;
+        EdgeFunction edge2 = triangle.edge2;
+
+        ColorRenderBuffer colorBuffer = targetFrameBuffer.getColorAttachment();
+        DepthRenderBuffer depthBuffer = targetFrameBuffer.getDepthAttachment();
+        HierarchicalZBuffer hierarchicalZ = depthBuffer != null ? depthBuffer.getHierarchicalZ() : null;
+        int rowStride = targetFrameBuffer.getWidth();
+        float[] depthTestData = depthBuffer != null && !depthAccepted ? depthBuffer.getData() : null;
+        boolean vectorCoverage = rasterBackend == RasterBackend.VECTOR;
+        // Counted in locals and handed to the statistics once per block.
+        int covered = 0;
+        int depthRejected = 0;
+        int shaded = 0;
+        int discarded = 0;
+
+        long e0Row = e0Start;
+        long e1Row = e1Start;
+        long e2Row = e2Start;
+        for (int y = blockMinY; y <= blockMaxY; y++) {
+            int rowIndex = y * rowStride;
+            if (vectorCoverage) {
+                // The mask holds the pixels that are covered and pass the depth test; only those are set up
+                // again in scalar code, with the same arithmetic, for shading.
+                int rowMask = VectorRowCoverage.coverRow(triangle, e0Row, e1Row, e2Row,
+                        blockMaxX - blockMinX + 1, depthTestData, rowIndex + blockMinX);
+                int passed = Integer.bitCount(rowMask);
+                shaded += passed;
+                if (stats != null && depthTestData != null) {
+                    // The mask does not tell depth failures from uncovered pixels; only worth a second pass
+                    // while statistics are collected.
+                    int rowCovered = Integer.bitCount(VectorRowCoverage.coverRow(triangle, e0Row, e1Row, e2Row,
+                            blockMaxX - blockMinX + 1, null, rowIndex + blockMinX));
+                    covered += rowCovered;
+                    depthRejected += rowCovered - passed;
+                } else {
+                    covered += passed;
+                }
+                while (rowMask != 0) {
+                    int i = Integer.numberOfTrailingZeros(rowMask);
+                    rowMask &= rowMask - 1;
+
+                    float b0 = (e0Row + edge0.stepX * i - edge0.bias) * invArea;
+                    float b1 = (e1Row + edge1.stepX * i - edge1.bias) * invArea;
+                    float b2 = (e2Row + edge2.stepX * i - edge2.bias) * invArea;
+                    float perspectiveCorrection = 1.0f / (b0 * w0_inv + b1 * w1_inv + b2 * w2_inv);
+                    float interpolatedDepthNDC = (b0 * z0 + b1 * z1 + b2 * z2) * perspectiveCorrection;
                     float depthForBuffer = (interpolatedDepthNDC + 1.0f) * 0.5f;
 
-                    if (depthBuffer == null || depthForBuffer < depthBuffer.getValue(x, y)) {
-                        Map<String, Object> interpolatedVaryings =
-                                interpolateVaryings(v0_io, v1_io, v2_io, b0, b1, b2, w0_inv, w1_inv, w2_inv,
-                                        perspectiveCorrection, program);
-
-                        Vector4f fragCoords = new Vector4f(pixelCenter.x, pixelCenter.y, depthForBuffer,
-                                1.0f / ( (b0 * w0_inv + b1 * w1_inv + b2 * w2_inv) / perspectiveCorrection)  );
-
-                        F_IO fsIo = program.createAndPrepareFragmentIO(interpolatedVaryings, fragCoords);
-                        if (fsIo != null) {
-                            program.executeFragmentShader(fsIo);
-
-                            if (!fsIo.discarded) {
-                                if (colorBuffer != null) {
-                                    colorBuffer.setValue(x, y, fsIo.gl_FragColor);
-                                }
-                                if (depthBuffer != null) {
-                                    float finalDepth = fsIo.gl_FragDepth != null ? fsIo.gl_FragDepth : depthForBuffer;
-                                    depthBuffer.setValue(x, y, finalDepth);
-                                }
+                    if (shadeFragment(triangle, program, varyingInterpolator, colorBuffer, depthBuffer, hierarchicalZ,
+                            depthTile, blockMinX + i, y, rowIndex + blockMinX + i,
+                            b0, b1, b2, perspectiveCorrection, depthForBuffer)) {
+                        discarded++;
+                    }
+                }
+            } else {
+                long e0 = e0Row;
+                long e1 = e1Row;
+                long e2 = e2Row;
+                for (int x = blockMinX; x <= blockMaxX; x++) {
+                    if (blockInside || (e0 | e1 | e2) >= 0) {
+                        int pixelIndex = rowIndex + x;
+                        covered++;
+
+                        float b0 = (e0 - edge0.bias) * invArea;
+                        float b1 = (e1 - edge1.bias) * invArea;
+                        float b2 = (e2 - edge2.bias) * invArea;
+
+                        float perspectiveCorrection = 1.0f / (b0 * w0_inv + b1 * w1_inv + b2 * w2_inv);
+
+                        float interpolatedDepthNDC = (b0 * z0 + b1 * z1 + b2 * z2) * perspectiveCorrection;
+
+                        float depthForBuffer = (interpolatedDepthNDC + 1.0f) * 0.5f;
+
+                        if (depthTestData == null || depthForBuffer < depthTestData[pixelIndex]) {
+                            shaded++;
+                            if (shadeFragment(triangle, program, varyingInterpolator, colorBuffer, depthBuffer,
+                                    hierarchicalZ, depthTile, x, y, pixelIndex,
+                                    b0, b1, b2, perspectiveCorrection, depthForBuffer)) {
+                                discarded++;
                             }
+                        } else {
+                            depthRejected++;
                         }
                     }
+                    e0 += edge0.stepX;
+                    e1 += edge1.stepX;
+                    e2 += edge2.stepX;
                 }
             }
+            e0Row += edge0.stepY;
+            e1Row += edge1.stepY;
+            e2Row += edge2.stepY;
+        }
+        if (stats != null) {
+            stats.addBlock((blockMaxX - blockMinX + 1) * (blockMaxY - blockMinY + 1),
+                    covered, depthRejected, shaded, discarded);
         }
     }
 
+    // Sets up every lane of the grid cell containing the block, so that lanes outside the triangle carry
+    // extrapolated values for derivatives, then shades the covered lanes with one shader invocation.
+    private <V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase>
+    void rasterizeBlockBatched(
+            TriangleSetup<V_IO> triangle,
+            ShaderProgram<V_IO, F_IO> program,
+            FrameBuffer targetFrameBuffer,
+            int blockMinX, int blockMinY, int blockMaxX, int blockMaxY,
+            long e0Start, long e1Start, long e2Start,
+            boolean blockInside,
+            int depthTile,
+            boolean depthAccepted,
+            RenderStats stats
+    ) {
+        float w0_inv = triangle.w0_inv;
+        float w1_inv = triangle.w1_inv;
+        float w2_inv = triangle.w2_inv;
+        float z0 = triangle.z0 * w0_inv;
+        float z1 = triangle.z1 * w1_inv;
+        float z2 = triangle.z2 * w2_inv;
+        float invArea = triangle.invArea;
+        EdgeFunction edge0 = triangle.edge0;
+        EdgeFunction edge1 = triangle.edge1;
+        EdgeFunction edge2 = triangle.edge2;
+
+        ColorRenderBuffer colorBuffer = targetFrameBuffer.getColorAttachment();
+        DepthRenderBuffer depthBuffer = targetFrameBuffer.getDepthAttachment();
+        HierarchicalZBuffer hierarchicalZ = depthBuffer != null ? depthBuffer.getHierarchicalZ() : null;
+        int rowStride = targetFrameBuffer.getWidth();
+        float[] depthTestData = depthBuffer != null && !depthAccepted ? depthBuffer.getData() : null;
+
+        int originX = blockMinX & -FragmentBatch.WIDTH;
+        int originY = blockMinY & -FragmentBatch.HEIGHT;
+        FragmentBatch<F_IO> batch = program.acquireFragmentBatch();
+        batch.begin(originX, originY, triangle.varyings, triangle.provokingVertex, triangle.uniforms);
+
+        int offsetX = blockMinX - originX;
+        int offsetY = blockMinY - originY;
+        long e0Row = e0Start - edge0.stepX * offsetX - edge0.stepY * offsetY;
+        long e1Row = e1Start - edge1.stepX * offsetX - edge1.stepY * offsetY;
+        long e2Row = e2Start - edge2.stepX * offsetX - edge2.stepY * offsetY;
+        int inside = 0;
+        for (int row = 0; row < FragmentBatch.HEIGHT; row++) {
+            int y = originY + row;
+            boolean rowInBlock = y >= blockMinY && y <= blockMaxY;
+            long e0 = e0Row;
+            long e1 = e1Row;
+            long e2 = e2Row;
+            for (int column = 0; column < FragmentBatch.WIDTH; column++) {
+                int x = originX + column;
+                float b0 = (e0 - edge0.bias) * invArea;
+                float b1 = (e1 - edge1.bias) * invArea;
+                float b2 = (e2 - edge2.bias) * invArea;
+                float perspectiveCorrection = 1.0f / (b0 * w0_inv + b1 * w1_inv + b2 * w2_inv);
+                float interpolatedDepthNDC = (b0 * z0 + b1 * z1 + b2 * z2) * perspectiveCorrection;
+                float depthForBuffer = (interpolatedDepthNDC + 1.0f) * 0.5f;
+
+                boolean laneInside = rowInBlock && x >= blockMinX && x <= blockMaxX
+                        && (blockInside || (e0 | e1 | e2) >= 0);
+                boolean covered = laneInside
+                        && (depthTestData == null || depthForBuffer < depthTestData[y * rowStride + x]);
+                if (laneInside) inside++;
+                batch.setFragment(row * FragmentBatch.WIDTH + column,
+                        b0, b1, b2, perspectiveCorrection, depthForBuffer, covered);
+
+                e0 += edge0.stepX;
+                e1 += edge1.stepX;
+                e2 += edge2.stepX;
+            }
+            e0Row += edge0.stepY;
+            e1Row += edge1.stepY;
+            e2Row += edge2.stepY;
+        }
+        int shaded = Long.bitCount(batch.getCoverageMask());
+        if (shaded == 0) {
+            if (stats != null) {
+                stats.addBlock((blockMaxX - blockMinX + 1) * (blockMaxY - blockMinY + 1), inside, inside, 0, 0);
+            }
+            return;
+        }
+
+        program.executeFragmentBatch(batch);
+        if (stats != null) {
+            // Helper lanes run the shader too, but only covered lanes count as invocations.
+            stats.addBlock((blockMaxX - blockMinX + 1) * (blockMaxY - blockMinY + 1), inside, inside - shaded,
+                    shaded, Long.bitCount(batch.getDiscardMask() & batch.getCoverageMask()));
+        }
+
+        if ((batch.getDiscardMask() | batch.getFragDepthMask()) != 0 && program.isEarlyDepthRejectionAllowed()) {
+            program.disableEarlyDepthRejection();
+        }
+
+        for (long mask = batch.getCoverageMask() & ~batch.getDiscardMask(); mask != 0; mask &= mask - 1) {
+            int lane = Long.numberOfTrailingZeros(mask);
+            int pixelIndex = (originY + lane / FragmentBatch.WIDTH) * rowStride + originX + lane % FragmentBatch.WIDTH;
+            if (colorBuffer != null) {
+                colorBuffer.setColor(pixelIndex,
+                        batch.getRed(lane), batch.getGreen(lane), batch.getBlue(lane), batch.getAlpha(lane));
+            }
+            if (depthBuffer != null) {
+                float finalDepth = batch.getOutputDepth(lane);
+                hierarchicalZ.recordWrite(depthTile, depthBuffer.getData()[pixelIndex], finalDepth);
+                depthBuffer.setDepth(pixelIndex, finalDepth);
+            }
+        }
+    }
+
+    // Returns whether the fragment shader discarded the fragment.
+    private <V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase>
+    boolean shadeFragment(
+            TriangleSetup<V_IO> triangle,
+            ShaderProgram<V_IO, F_IO> program,
+            VaryingInterpolator varyingInterpolator,
+            ColorRenderBuffer colorBuffer,
+            DepthRenderBuffer depthBuffer,
+            HierarchicalZBuffer hierarchicalZ,
+            int depthTile,
+            int x, int y, int pixelIndex,
+            float b0, float b1, float b2,
+            float perspectiveCorrection,
+            float depthForBuffer
+    ) {
+        F_IO fsIo = program.createAndPrepareFragmentIO(triangle.uniforms,
+                x + 0.5f, y + 0.5f, depthForBuffer, perspectiveCorrection * perspectiveCorrection);
+        if (fsIo == null) return false;
+
+        varyingInterpolator.interpolate(triangle.varyings, triangle.provokingVertex,
+                b0, b1, b2, perspectiveCorrection, fsIo);
+        program.executeFragmentShader(fsIo);
+
+        if (fsIo.discarded || fsIo.gl_FragDepth != null) {
+            if (program.isEarlyDepthRejectionAllowed()) {
+                program.disableEarlyDepthRejection();
+            }
+        }
+
+        if (!fsIo.discarded) {
+            if (colorBuffer != null) {
+                colorBuffer.setColor(pixelIndex, fsIo.gl_FragColor);
+            }
+            if (depthBuffer != null) {
+                float finalDepth = fsIo.gl_FragDepth != null ? fsIo.gl_FragDepth : depthForBuffer;
+                hierarchicalZ.recordWrite(depthTile, depthBuffer.getData()[pixelIndex], finalDepth);
+                depthBuffer.setDepth(pixelIndex, finalDepth);
+            }
+        }
+        return fsIo.discarded;
+    }
+
+    // Screen space has y pointing up, so a counter-clockwise triangle has a negative signed area here.
+    private static boolean isCulled(long signedArea, CullMode cullMode, FrontFace frontFace) {
+        if (cullMode == CullMode.NONE) return false;
+        boolean counterClockwise = signedArea < 0;
+        boolean frontFacing = counterClockwise == (frontFace == FrontFace.COUNTER_CLOCKWISE);
+        return frontFacing == (cullMode == CullMode.FRONT);
+    }
+
+    private static int outcode(Vector4f p, float guardBandX, float guardBandY) {
+        int code = 0;
+        for (int plane = 0; plane < CLIP_PLANE_COUNT; plane++) {
+            if (clipDistance(plane, p, guardBandX, guardBandY) < 0) code |= 1 << plane;
+        }
+        if (p.x < -p.w) code |= OUTSIDE_LEFT;
+        if (p.x > p.w) code |= OUTSIDE_RIGHT;
+        if (p.y < -p.w) code |= OUTSIDE_BOTTOM;
+        if (p.y > p.w) code |= OUTSIDE_TOP;
+        return code;
+    }
+
+    private static float clipDistance(int plane, Vector4f p, float guardBandX, float guardBandY) {
+        return switch (plane) {
+            case CLIP_NEAR -> p.z + p.w;
+            case CLIP_MIN_W -> p.w - NEAR_CLIP_PLANE_W;
+            case CLIP_GUARD_LEFT -> p.x + guardBandX * p.w;
+            case CLIP_GUARD_RIGHT -> guardBandX * p.w - p.x;
+            case CLIP_GUARD_BOTTOM -> p.y + guardBandY * p.w;
+            case CLIP_GUARD_TOP -> guardBandY * p.w - p.y;
+            default -> throw new IllegalArgumentException("Unknown clip plane: " + plane);
+        };
+    }
+
+    private static long toFixed(float screenCoordinate) {
+        return Math.round((double) screenCoordinate * SUBPIXEL_SCALE);
+    }
+
+    private static boolean isWithinFixedPointRange(Vector2f screenCoords) {
+        return Math.abs(screenCoords.x) <= MAX_SCREEN_COORDINATE && Math.abs(screenCoords.y) <= MAX_SCREEN_COORDINATE;
+    }
+
     private Vector3f ndcFromClip(Vector4f clipCoords) {
         if (clipCoords.w == 0) return new Vector3f(clipCoords.x, clipCoords.y, clipCoords.z);
         float invW = 1.0f / clipCoords.w;
@@ -183,60 +1329,153 @@ public class Renderer {
         return new Vector2f(screenX, screenY);
     }
 
-    private float edgeFunction(Vector2f a, Vector2f b, Vector2f p) {
-        return (p.x - a.x) * (b.y - a.y) - (p.y - a.y) * (b.x - a.x);
+    // Holder so that the module lookup and the vector class initialization happen once, on first use.
+    private static final class VectorBackendSupport {
+        static final boolean AVAILABLE = probe();
+
+        private static boolean probe() {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return false;
+            try {
+                Class.forName(VectorRowCoverage.class.getName(), true, Renderer.class.getClassLoader());
+                return true;
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+    }
+
+    static final class TriangleSetup<V_IO extends VertexShaderIoBase> {
+        ShaderProgram<V_IO, ?> program;
+        UniformSnapshot uniforms;
+        V_IO provokingVertex;
+        float z0, z1, z2;
+        float minDepth, maxDepth;
+        float w0_inv, w1_inv, w2_inv;
+        float invArea;
+        float[] varyings;
+        EdgeFunction edge0, edge1, edge2;
+        int minX, minY, maxX, maxY;
     }
 
-    private <V_IO extends VertexShaderIoBase> Map<String, Object> interpolateVaryings(
-            V_IO v0_io, V_IO v1_io, V_IO v2_io,
-            float b0, float b1, float b2,
-            float w0_inv, float w1_inv, float w2_inv,
-            float perspectiveCorrection,
-            ShaderProgram<V_IO, ?> program
-    ) {
-        Map<String, Object> interpolatedVaryings = new HashMap<>();
+    // E(p) = (p.x - a.x) * (b.y - a.y) - (p.y - a.y) * (b.x - a.x) in fixed point, sampled at pixel centers
+    // and stepped per pixel. The bias of -1 on edges that are not top-left turns "E >= 0" into "E > 0".
+    static final class EdgeFunction {
+        final long a, b, c;
+        final long stepX, stepY;
+        final long bias;
 
-        program.getVertexShaderVaryingOutputFields().forEach((name, field) -> {
-            try {
-                Object val0 = field.get(v0_io);
-                Object val1 = field.get(v1_io);
-                Object val2 = field.get(v2_io);
-
-                switch (val0) {
-                    case Vector4f vector4f when val1 instanceof Vector4f && val2 instanceof Vector4f -> {
-                        Vector4f v = new Vector4f();
-                        v.x = (b0 * vector4f.x * w0_inv + b1 * ((Vector4f) val1).x * w1_inv + b2 * ((Vector4f) val2).x * w2_inv) * perspectiveCorrection;
-                        v.y = (b0 * vector4f.y * w0_inv + b1 * ((Vector4f) val1).y * w1_inv + b2 * ((Vector4f) val2).y * w2_inv) * perspectiveCorrection;
-                        v.z = (b0 * vector4f.z * w0_inv + b1 * ((Vector4f) val1).z * w1_inv + b2 * ((Vector4f) val2).z * w2_inv) * perspectiveCorrection;
-                        v.w = (b0 * vector4f.w * w0_inv + b1 * ((Vector4f) val1).w * w1_inv + b2 * ((Vector4f) val2).w * w2_inv) * perspectiveCorrection;
-                        interpolatedVaryings.put(name, v);
-                    }
-                    case Vector3f vector3f when val1 instanceof Vector3f && val2 instanceof Vector3f -> {
-                        Vector3f v = new Vector3f();
-                        v.x = (b0 * vector3f.x * w0_inv + b1 * ((Vector3f) val1).x * w1_inv + b2 * ((Vector3f) val2).x * w2_inv) * perspectiveCorrection;
-                        v.y = (b0 * vector3f.y * w0_inv + b1 * ((Vector3f) val1).y * w1_inv + b2 * ((Vector3f) val2).y * w2_inv) * perspectiveCorrection;
-                        v.z = (b0 * vector3f.z * w0_inv + b1 * ((Vector3f) val1).z * w1_inv + b2 * ((Vector3f) val2).z * w2_inv) * perspectiveCorrection;
-                        interpolatedVaryings.put(name, v);
-                    }
-                    case Vector2f vector2f when val1 instanceof Vector2f && val2 instanceof Vector2f -> {
-                        Vector2f v = new Vector2f();
-                        v.x = (b0 * vector2f.x * w0_inv + b1 * ((Vector2f) val1).x * w1_inv + b2 * ((Vector2f) val2).x * w2_inv) * perspectiveCorrection;
-                        v.y = (b0 * vector2f.y * w0_inv + b1 * ((Vector2f) val1).y * w1_inv + b2 * ((Vector2f) val2).y * w2_inv) * perspectiveCorrection;
-                        interpolatedVaryings.put(name, v);
-                    }
-                    case Float v when val1 instanceof Float && val2 instanceof Float -> {
-                        float f = (b0 * v * w0_inv + b1 * (Float) val1 * w1_inv + b2 * (Float) val2 * w2_inv) * perspectiveCorrection;
-                        interpolatedVaryings.put(name, f);
-                    }
-                    default -> {
-                        System.err.println("Warning: Varying '" + name + "' of type " + val0.getClass().getSimpleName() + " cannot be interpolated. Using value from first vertex.");
-                        interpolatedVaryings.put(name, val0);
-                    }
+        EdgeFunction(long ax, long ay, long bx, long by, long sign) {
+            this.a = (by - ay) * sign;
+            this.b = (ax - bx) * sign;
+            this.c = (ay * (bx - ax) - ax * (by - ay)) * sign;
+            this.stepX = a << SUBPIXEL_BITS;
+            this.stepY = b << SUBPIXEL_BITS;
+            boolean topLeft = a > 0 || (a == 0 && b > 0);
+            this.bias = topLeft ? 0 : -1;
+        }
+
+        long evaluate(int x, int y) {
+            long px = ((long) x << SUBPIXEL_BITS) + SUBPIXEL_HALF;
+            long py = ((long) y << SUBPIXEL_BITS) + SUBPIXEL_HALF;
+            return a * px + b * py + c + bias;
+        }
+
+        long maxOffset(int spanX, int spanY) {
+            return Math.max(0, stepX * spanX) + Math.max(0, stepY * spanY);
+        }
+
+        long minOffset(int spanX, int spanY) {
+            return Math.min(0, stepX * spanX) + Math.min(0, stepY * spanY);
+        }
+    }
+
+    // Sutherland-Hodgman polygon in clip space. Each vertex also keeps its weights relative to the
+    // three original vertices, so varyings can be derived without running the vertex shader again.
+    private static final class ClippedPolygon {
+        final Vector4f[] positions;
+        final float[] weights;
+        int size;
+
+        ClippedPolygon(Vector4f p0, Vector4f p1, Vector4f p2) {
+            this(3);
+            positions[0] = p0;
+            positions[1] = p1;
+            positions[2] = p2;
+            weights[0] = 1.0f;
+            weights[4] = 1.0f;
+            weights[8] = 1.0f;
+            size = 3;
+        }
+
+        private ClippedPolygon(int capacity) {
+            positions = new Vector4f[capacity];
+            weights = new float[3 * capacity];
+        }
+
+        ClippedPolygon clip(int plane, float guardBandX, float guardBandY) {
+            // Each edge adds at most two vertices. Rounding can leave the polygon slightly non-convex, so a
+            // single plane may add more than one vertex and the result cannot be bounded by the plane count.
+            ClippedPolygon result = new ClippedPolygon(2 * size);
+            for (int i = 0; i < size; i++) {
+                int next = i + 1 == size ? 0 : i + 1;
+                float d = clipDistance(plane, positions[i], guardBandX, guardBandY);
+                float dNext = clipDistance(plane, positions[next], guardBandX, guardBandY);
+                if (d >= 0) {
+                    result.add(this, i, next, 0.0f);
+                }
+                // Vertices lying exactly on the plane are kept as-is rather than duplicated by an
+                // intersection, which would only produce zero-area slivers.
+                if ((d > 0 && dNext < 0) || (d < 0 && dNext > 0)) {
+                    result.add(this, i, next, d / (d - dNext));
                 }
-            } catch (IllegalAccessException e) {
-                System.err.println("Error interpolating varying " + name + ": " + e.getMessage());
             }
-        });
-        return interpolatedVaryings;
+            return result;
+        }
+
+        private void add(ClippedPolygon source, int from, int to, float t) {
+            Vector4f a = source.positions[from];
+            if (t == 0.0f) {
+                positions[size] = a;
+            } else {
+                positions[size] = new Vector4f(a).lerp(source.positions[to], t);
+            }
+            for (int k = 0; k < 3; k++) {
+                float wa = source.weights[3 * from + k];
+                weights[3 * size + k] = wa + (source.weights[3 * to + k] - wa) * t;
+            }
+            size++;
+        }
+
+        void blendVaryings(
+                VaryingInterpolator varyingInterpolator, float[] sourceVaryings,
+                int vertex, float wInv, float[] triangleData, int vertexSlot
+        ) {
+            varyingInterpolator.blend(sourceVaryings,
+                    weights[3 * vertex], weights[3 * vertex + 1], weights[3 * vertex + 2],
+                    wInv, triangleData, vertexSlot);
+        }
+    }
+
+    private static final class TileBins {
+        private final int[][] triangleIndices;
+        private final int[] sizes;
+
+        TileBins(int tileCount) {
+            this.triangleIndices = new int[tileCount][];
+            this.sizes = new int[tileCount];
+        }
+
+        void add(int tile, int triangleIndex) {
+            int[] bin = triangleIndices[tile];
+            if (bin == null) {
+                bin = triangleIndices[tile] = new int[16];
+            } else if (sizes[tile] == bin.length) {
+                bin = triangleIndices[tile] = Arrays.copyOf(bin, bin.length * 2);
+            }
+            bin[sizes[tile]++] = triangleIndex;
+        }
+
+        int[] get(int tile) { return triangleIndices[tile]; }
+        int size(int tile) { return sizes[tile]; }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+package io.github.danielreker.javarenderer.core;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+// Coverage and depth test for one row of a raster block using the Vector API. Edge functions are evaluated
+// in long lanes and barycentrics and depth in float lanes of the same lane count, with the same operations in
+// the same order as the scalar path, so the resulting mask is bit-identical to it.
+// Only loaded when the jdk.incubator.vector module is present, see Renderer.isVectorBackendAvailable().
+final class VectorRowCoverage {
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOATS =
+            VectorSpecies.of(float.class, VectorShape.forBitSize(LONGS.length() * Float.SIZE));
+    private static final LongVector LANE_INDICES = LongVector.zero(LONGS).addIndex(1);
+
+    private VectorRowCoverage() {}
+
+    // Returns a bit mask of the pixels [0, count) of the row that are inside the triangle and, if depthData
+    // is not null, closer than depthData[depthOffset + i]. count must not exceed 32.
+    static int coverRow(
+            Renderer.TriangleSetup<?> triangle,
+            long e0, long e1, long e2,
+            int count,
+            float[] depthData, int depthOffset
+    ) {
+        Renderer.EdgeFunction edge0 = triangle.edge0;
+        Renderer.EdgeFunction edge1 = triangle.edge1;
+        Renderer.EdgeFunction edge2 = triangle.edge2;
+        float invArea = triangle.invArea;
+        float w0_inv = triangle.w0_inv;
+        float w1_inv = triangle.w1_inv;
+        float w2_inv = triangle.w2_inv;
+        float z0 = triangle.z0 * w0_inv;
+        float z1 = triangle.z1 * w1_inv;
+        float z2 = triangle.z2 * w2_inv;
+
+        int rowMask = 0;
+        for (int base = 0; base < count; base += LONGS.length()) {
+            LongVector x = LANE_INDICES.add(base);
+            LongVector v0 = x.mul(edge0.stepX).add(e0);
+            LongVector v1 = x.mul(edge1.stepX).add(e1);
+            LongVector v2 = x.mul(edge2.stepX).add(e2);
+            VectorMask<Long> covered = v0.or(v1).or(v2).compare(VectorOperators.GE, 0)
+                    .and(LONGS.indexInRange(base, count));
+            if (!covered.anyTrue()) continue;
+
+            if (depthData == null) {
+                rowMask |= (int) covered.toLong() << base;
+                continue;
+            }
+
+            FloatVector b0 = toFloat(v0.sub(edge0.bias)).mul(invArea);
+            FloatVector b1 = toFloat(v1.sub(edge1.bias)).mul(invArea);
+            FloatVector b2 = toFloat(v2.sub(edge2.bias)).mul(invArea);
+            FloatVector perspectiveCorrection = FloatVector.broadcast(FLOATS, 1.0f)
+                    .div(b0.mul(w0_inv).add(b1.mul(w1_inv)).add(b2.mul(w2_inv)));
+            FloatVector depth = b0.mul(z0).add(b1.mul(z1)).add(b2.mul(z2)).mul(perspectiveCorrection)
+                    .add(1.0f).mul(0.5f);
+
+            VectorMask<Float> active = covered.cast(FLOATS);
+            FloatVector stored = FloatVector.fromArray(FLOATS, depthData, depthOffset + base, active);
+            rowMask |= (int) depth.compare(VectorOperators.LT, stored, active).toLong() << base;
+        }
+        return rowMask;
+    }
+
+    private static FloatVector toFloat(LongVector v) {
+        return (FloatVector) v.convertShape(VectorOperators.L2F, FLOATS, 0);
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.danielreker.javarenderer.core.container;
+
+public abstract class AbstractVertexBuffer {
+
+    public abstract int getVertexCount();
+
+    public void checkRange(int firstVertex, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count cannot be negative: " + count);
+        }
+        if (firstVertex < 0 || firstVertex + count > getVertexCount()) {
+            throw new IndexOutOfBoundsException("Range [" + firstVertex + ", " + (firstVertex + count -1) +
+                    "] is out of bounds for " + getClass().getSimpleName() + " of size " + getVertexCount());
+        }
+    }
+}
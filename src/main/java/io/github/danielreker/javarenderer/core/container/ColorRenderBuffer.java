@@ -0,0 +1,101 @@
+package io.github.danielreker.javarenderer.core.container;
+
+import io.github.danielreker.javarenderer.core.enums.RenderBufferFormat;
+import org.joml.Vector4f;
+
+import java.util.Arrays;
+
+public abstract class ColorRenderBuffer extends RenderBuffer<Vector4f> {
+    private final Vector4f clearColor = new Vector4f();
+
+    protected ColorRenderBuffer(int width, int height, RenderBufferFormat format) {
+        super(width, height, Vector4f.class, format);
+    }
+
+    public static ColorRenderBuffer create(int width, int height, RenderBufferFormat format, Vector4f clearColor) {
+        ColorRenderBuffer buffer = switch (format) {
+            case RGBA8 -> new Rgba8RenderBuffer(width, height);
+            case RGBA32F -> new Rgba32fRenderBuffer(width, height);
+            default -> throw new IllegalArgumentException("Format " + format + " is not a color format.");
+        };
+        if (clearColor != null) {
+            buffer.clear(clearColor);
+        }
+        return buffer;
+    }
+
+    public Vector4f getClearColor(Vector4f dest) {
+        return dest.set(clearColor);
+    }
+
+    // Unchecked accessors: index is y * width + x and must be inside the buffer. setColor requires the
+    // pixel's clear tile to be resolved.
+    public Vector4f getColor(int index, Vector4f dest) {
+        if (isClearPending(clearTileIndexOf(index))) {
+            return dest.set(clearColor);
+        }
+        return readColor(index, dest);
+    }
+
+    public abstract void setColor(int index, float r, float g, float b, float a);
+
+    public void setColor(int index, Vector4f color) {
+        setColor(index, color.x, color.y, color.z, color.w);
+    }
+
+    public void fill(int fromIndex, int toIndex, Vector4f color) {
+        resolveRange(fromIndex, toIndex);
+        fillRange(fromIndex, toIndex, color);
+    }
+
+    // Writes row y as packed 0xAARRGGBB pixels to dest[destOffset .. destOffset + width). Tiles with a pending
+    // clear are filled with the clear color without being resolved.
+    public void packRow(int y, int[] dest, int destOffset) {
+        int rowIndex = y * width;
+        int tileRow = (y >> CLEAR_TILE_SHIFT) * getClearTilesX();
+        int packedClearColor = Rgba8RenderBuffer.pack(clearColor.x, clearColor.y, clearColor.z, clearColor.w);
+        // Runs of tiles in the same state are handled in one call, which keeps the bulk loops long.
+        int x0 = 0;
+        while (x0 < width) {
+            boolean pending = isClearPending(tileRow + (x0 >> CLEAR_TILE_SHIFT));
+            int x1 = Math.min(x0 + CLEAR_TILE_SIZE, width);
+            while (x1 < width && isClearPending(tileRow + (x1 >> CLEAR_TILE_SHIFT)) == pending) {
+                x1 = Math.min(x1 + CLEAR_TILE_SIZE, width);
+            }
+            if (pending) {
+                Arrays.fill(dest, destOffset + x0, destOffset + x1, packedClearColor);
+            } else {
+                packRange(rowIndex + x0, dest, destOffset + x0, x1 - x0);
+            }
+            x0 = x1;
+        }
+    }
+
+    protected abstract Vector4f readColor(int index, Vector4f dest);
+
+    // Packs count stored pixels starting at index, ignoring pending clears.
+    protected abstract void packRange(int index, int[] dest, int destOffset, int count);
+
+    protected abstract void fillRange(int fromIndex, int toIndex, Vector4f color);
+
+    @Override
+    protected void fillWithClearValue(int fromIndex, int toIndex) {
+        fillRange(fromIndex, toIndex, clearColor);
+    }
+
+    @Override
+    protected void setValueAt(int index, Vector4f value) {
+        setColor(index, value);
+    }
+
+    @Override
+    protected Vector4f getValueAt(int index) {
+        return getColor(index, new Vector4f());
+    }
+
+    @Override
+    public void clear(Vector4f clearColor) {
+        this.clearColor.set(clearColor);
+        markCleared();
+    }
+}
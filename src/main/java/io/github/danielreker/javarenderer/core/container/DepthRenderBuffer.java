@@ -0,0 +1,71 @@
+package io.github.danielreker.javarenderer.core.container;
+
+import io.github.danielreker.javarenderer.core.enums.RenderBufferFormat;
+
+import java.util.Arrays;
+
+public class DepthRenderBuffer extends RenderBuffer<Float> {
+    private final float[] data;
+    private final HierarchicalZBuffer hierarchicalZ;
+    private float clearDepth;
+
+    public DepthRenderBuffer(int width, int height, float clearDepth) {
+        super(width, height, Float.class, RenderBufferFormat.DEPTH32F);
+        this.data = new float[width * height];
+        this.hierarchicalZ = new HierarchicalZBuffer(this);
+        clear(clearDepth);
+    }
+
+    // Raw storage; tiles with a pending clear hold stale values until they are resolved.
+    public float[] getData() { return data; }
+    public HierarchicalZBuffer getHierarchicalZ() { return hierarchicalZ; }
+    public float getClearDepth() { return clearDepth; }
+
+    // Unchecked accessors: index is y * width + x and must be inside the buffer. setDepth requires the pixel's
+    // clear tile to be resolved. Writes through it (or through getData) must be reported to the hierarchical
+    // Z buffer with recordWrite or invalidate.
+    public float getDepth(int index) {
+        if (isClearPending(clearTileIndexOf(index))) {
+            return clearDepth;
+        }
+        return data[index];
+    }
+
+    public void setDepth(int index, float depth) {
+        data[index] = depth;
+    }
+
+    public void fill(int fromIndex, int toIndex, float depth) {
+        resolveRange(fromIndex, toIndex);
+        Arrays.fill(data, fromIndex, toIndex, depth);
+        hierarchicalZ.invalidate();
+    }
+
+    public void clear(float clearDepth) {
+        this.clearDepth = clearDepth;
+        markCleared();
+        hierarchicalZ.reset(clearDepth);
+    }
+
+    @Override
+    protected void fillWithClearValue(int fromIndex, int toIndex) {
+        Arrays.fill(data, fromIndex, toIndex, clearDepth);
+    }
+
+    @Override
+    protected void setValueAt(int index, Float value) {
+        float oldDepth = data[index];
+        data[index] = value;
+        hierarchicalZ.recordWrite(hierarchicalZ.tileIndexOf(index % width, index / width), oldDepth, value);
+    }
+
+    @Override
+    protected Float getValueAt(int index) {
+        return getDepth(index);
+    }
+
+    @Override
+    public void clear(Float clearValue) {
+        clear(clearValue.floatValue());
+    }
+}
@@ -1,25 +1,60 @@
 package io.github.danielreker.javarenderer.core.container;
 
+import io.github.danielreker.javarenderer.core.enums.RenderBufferFormat;
 import org.joml.Vector4f;
 
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
 public final class FrameBuffer {
+    // Rows per task of a parallel resolve; enough work per task to be worth forking.
+    private static final int RESOLVE_BAND_HEIGHT = 32;
+
     private final int width;
     private final int height;
 
-    private final RenderBuffer<Vector4f> colorAttachment;
-    private final RenderBuffer<Float> depthAttachment;
+    private final ColorRenderBuffer colorAttachment;
+    private final DepthRenderBuffer depthAttachment;
 
     public static FrameBuffer create(int width, int height, Vector4f clearColor, float clearDepth) {
-        RenderBuffer<Vector4f> color = new RenderBuffer<>(width, height, Vector4f.class, clearColor);
-        RenderBuffer<Float> depth = new RenderBuffer<>(width, height, Float.class, clearDepth);
+        return create(width, height, RenderBufferFormat.RGBA32F, RenderBufferFormat.DEPTH32F, clearColor, clearDepth);
+    }
+
+    public static FrameBuffer create(
+            int width,
+            int height,
+            RenderBufferFormat colorFormat,
+            RenderBufferFormat depthFormat,
+            Vector4f clearColor,
+            float clearDepth
+    ) {
+        if (colorFormat != null && !colorFormat.isColor()) {
+            throw new IllegalArgumentException("Color attachment format must be a color format, got " + colorFormat);
+        }
+        if (depthFormat != null && !depthFormat.isDepth()) {
+            throw new IllegalArgumentException("Depth attachment format must be a depth format, got " + depthFormat);
+        }
+        ColorRenderBuffer color = colorFormat != null
+                ? ColorRenderBuffer.create(width, height, colorFormat, clearColor)
+                : null;
+        DepthRenderBuffer depth = depthFormat != null
+                ? new DepthRenderBuffer(width, height, clearDepth)
+                : null;
         return new FrameBuffer(width, height, color, depth);
     }
 
     private FrameBuffer(
             int width,
             int height,
-            RenderBuffer<Vector4f> colorAttachment,
-            RenderBuffer<Float> depthAttachment
+            ColorRenderBuffer colorAttachment,
+            DepthRenderBuffer depthAttachment
     ) {
         this.width = width;
         this.height = height;
@@ -30,8 +65,65 @@ public final class FrameBuffer {
     public int getWidth() { return width; }
     public int getHeight() { return height; }
 
-    public RenderBuffer<Vector4f> getColorAttachment() { return colorAttachment; }
-    public RenderBuffer<Float> getDepthAttachment() { return depthAttachment; }
+    public ColorRenderBuffer getColorAttachment() { return colorAttachment; }
+    public DepthRenderBuffer getDepthAttachment() { return depthAttachment; }
+
+    // Writes the color attachment as packed 0xAARRGGBB pixels into dest, width pixels per row and rows
+    // scanlineStride apart starting at offset. Frame buffer rows start at the bottom, so flipVertically gives
+    // the top-down order images use. With parallel set, bands of rows are converted on the common pool.
+    public void resolveColor(int[] dest, int offset, int scanlineStride, boolean flipVertically, boolean parallel) {
+        Objects.requireNonNull(dest, "Destination array cannot be null.");
+        if (colorAttachment == null) {
+            throw new IllegalStateException("FrameBuffer has no color attachment.");
+        }
+        if (offset < 0 || scanlineStride < width
+                || (long) offset + (long) (height - 1) * scanlineStride + width > dest.length) {
+            throw new IllegalArgumentException("Destination of length " + dest.length + " cannot hold "
+                    + width + "x" + height + " pixels at offset " + offset + " with stride " + scanlineStride);
+        }
+
+        if (!parallel || height <= RESOLVE_BAND_HEIGHT) {
+            resolveColorRows(dest, offset, scanlineStride, flipVertically, 0, height);
+            return;
+        }
+        List<ForkJoinTask<?>> bandTasks = new ArrayList<>();
+        for (int bandStart = 0; bandStart < height; bandStart += RESOLVE_BAND_HEIGHT) {
+            int fromY = bandStart;
+            int toY = Math.min(bandStart + RESOLVE_BAND_HEIGHT, height);
+            bandTasks.add(ForkJoinTask.adapt(
+                    () -> resolveColorRows(dest, offset, scanlineStride, flipVertically, fromY, toY)));
+        }
+        ForkJoinPool.commonPool().submit(() -> ForkJoinTask.invokeAll(bandTasks)).join();
+    }
+
+    public void resolveColor(int[] dest, boolean flipVertically, boolean parallel) {
+        resolveColor(dest, 0, width, flipVertically, parallel);
+    }
+
+    // Writes straight into the pixel array of a TYPE_INT_ARGB image of the same size as this frame buffer.
+    public void resolveColor(BufferedImage image, boolean flipVertically, boolean parallel) {
+        Objects.requireNonNull(image, "BufferedImage cannot be null.");
+        if (image.getType() != BufferedImage.TYPE_INT_ARGB) {
+            throw new IllegalArgumentException("BufferedImage must be TYPE_INT_ARGB, got type " + image.getType());
+        }
+        if (image.getWidth() != width || image.getHeight() != height) {
+            throw new IllegalArgumentException("BufferedImage size " + image.getWidth() + "x" + image.getHeight()
+                    + " does not match FrameBuffer size " + width + "x" + height);
+        }
+        WritableRaster raster = image.getRaster();
+        DataBufferInt dataBuffer = (DataBufferInt) raster.getDataBuffer();
+        SinglePixelPackedSampleModel sampleModel = (SinglePixelPackedSampleModel) raster.getSampleModel();
+        int offset = dataBuffer.getOffset() + sampleModel.getOffset(
+                -raster.getSampleModelTranslateX(), -raster.getSampleModelTranslateY());
+        resolveColor(dataBuffer.getData(), offset, sampleModel.getScanlineStride(), flipVertically, parallel);
+    }
+
+    private void resolveColorRows(int[] dest, int offset, int scanlineStride, boolean flipVertically, int fromY, int toY) {
+        for (int y = fromY; y < toY; y++) {
+            int destRow = flipVertically ? height - 1 - y : y;
+            colorAttachment.packRow(y, dest, offset + destRow * scanlineStride);
+        }
+    }
 
     public void clear(Vector4f clearColor, float clearDepth) {
         if (colorAttachment != null && clearColor != null) {
@@ -41,4 +133,4 @@ public final class FrameBuffer {
             depthAttachment.clear(clearDepth);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,92 @@
+package io.github.danielreker.javarenderer.core.container;
+
+import java.util.Arrays;
+
+// Per-tile depth bounds of a DepthRenderBuffer. Bounds are kept exact: a write that may have removed a tile's
+// current minimum or maximum only marks the tile dirty, and dirty tiles are rescanned on the next query.
+public class HierarchicalZBuffer {
+    public static final int TILE_SHIFT = RenderBuffer.CLEAR_TILE_SHIFT;
+    public static final int TILE_SIZE = 1 << TILE_SHIFT;
+
+    private final DepthRenderBuffer depthBuffer;
+    private final int tilesX;
+    private final int tilesY;
+    private final float[] minDepth;
+    private final float[] maxDepth;
+    private final boolean[] dirty;
+
+    HierarchicalZBuffer(DepthRenderBuffer depthBuffer) {
+        this.depthBuffer = depthBuffer;
+        this.tilesX = (depthBuffer.getWidth() + TILE_SIZE - 1) >> TILE_SHIFT;
+        this.tilesY = (depthBuffer.getHeight() + TILE_SIZE - 1) >> TILE_SHIFT;
+        this.minDepth = new float[tilesX * tilesY];
+        this.maxDepth = new float[tilesX * tilesY];
+        this.dirty = new boolean[tilesX * tilesY];
+    }
+
+    public int getTilesX() { return tilesX; }
+    public int getTilesY() { return tilesY; }
+
+    public int tileIndexOf(int x, int y) {
+        return (y >> TILE_SHIFT) * tilesX + (x >> TILE_SHIFT);
+    }
+
+    public float getMinDepth(int tile) {
+        if (dirty[tile]) rebuild(tile);
+        return minDepth[tile];
+    }
+
+    public float getMaxDepth(int tile) {
+        if (dirty[tile]) rebuild(tile);
+        return maxDepth[tile];
+    }
+
+    public void recordWrite(int tile, float oldDepth, float newDepth) {
+        if (dirty[tile]) return;
+        if ((oldDepth == maxDepth[tile] && newDepth < oldDepth) || (oldDepth == minDepth[tile] && newDepth > oldDepth)) {
+            dirty[tile] = true;
+            return;
+        }
+        if (newDepth < minDepth[tile]) minDepth[tile] = newDepth;
+        if (newDepth > maxDepth[tile]) maxDepth[tile] = newDepth;
+    }
+
+    public void reset(float clearDepth) {
+        Arrays.fill(minDepth, clearDepth);
+        Arrays.fill(maxDepth, clearDepth);
+        Arrays.fill(dirty, false);
+    }
+
+    public void invalidate() {
+        Arrays.fill(dirty, true);
+    }
+
+    private void rebuild(int tile) {
+        // The grids match, so a tile with a pending clear holds only the clear depth.
+        if (depthBuffer.isClearPending(tile)) {
+            minDepth[tile] = depthBuffer.getClearDepth();
+            maxDepth[tile] = depthBuffer.getClearDepth();
+            dirty[tile] = false;
+            return;
+        }
+        int width = depthBuffer.getWidth();
+        int x0 = (tile % tilesX) << TILE_SHIFT;
+        int y0 = (tile / tilesX) << TILE_SHIFT;
+        int x1 = Math.min(x0 + TILE_SIZE, width);
+        int y1 = Math.min(y0 + TILE_SIZE, depthBuffer.getHeight());
+        float[] data = depthBuffer.getData();
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (int y = y0; y < y1; y++) {
+            int rowIndex = y * width;
+            for (int x = x0; x < x1; x++) {
+                float depth = data[rowIndex + x];
+                min = Math.min(min, depth);
+                max = Math.max(max, depth);
+            }
+        }
+        minDepth[tile] = min;
+        maxDepth[tile] = max;
+        dirty[tile] = false;
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.danielreker.javarenderer.core.container;
+
+import java.nio.IntBuffer;
+import java.util.Objects;
+
+public class IndexBuffer {
+
+    private final int[] intIndices;
+    private final short[] shortIndices;
+    private final IntBuffer bufferIndices;
+    private final int indexCount;
+
+
+    private IndexBuffer(int[] intIndices, short[] shortIndices, IntBuffer bufferIndices, int indexCount) {
+        this.intIndices = intIndices;
+        this.shortIndices = shortIndices;
+        this.bufferIndices = bufferIndices;
+        this.indexCount = indexCount;
+    }
+
+    public static IndexBuffer create(int[] indices) {
+        Objects.requireNonNull(indices, "Index array cannot be null.");
+        for (int i = 0; i < indices.length; i++) {
+            if (indices[i] < 0) {
+                throw new IllegalArgumentException("Index at position " + i + " is negative: " + indices[i]);
+            }
+        }
+        return new IndexBuffer(indices.clone(), null, null, indices.length);
+    }
+
+    // Short indices are treated as unsigned, covering vertices 0..65535.
+    public static IndexBuffer create(short[] indices) {
+        Objects.requireNonNull(indices, "Index array cannot be null.");
+        return new IndexBuffer(null, indices.clone(), null, indices.length);
+    }
+
+    // Uses the buffer as-is (e.g. a memory-mapped file) without copying or scanning it; element 0 is the
+    // first index. Negative or out-of-range indices are reported when a draw reads them.
+    public static IndexBuffer wrap(IntBuffer indices, int indexCount) {
+        Objects.requireNonNull(indices, "Index buffer cannot be null.");
+        if (indexCount < 0 || indexCount > indices.limit()) {
+            throw new IllegalArgumentException("Index count " + indexCount
+                    + " does not fit a buffer of " + indices.limit() + " indices.");
+        }
+        return new IndexBuffer(null, null, indices, indexCount);
+    }
+
+    public int getIndex(int position) {
+        if (position < 0 || position >= indexCount) {
+            throw new IndexOutOfBoundsException("Index position " + position +
+                    " is out of bounds for IndexBuffer of size " + indexCount);
+        }
+        if (intIndices != null) return intIndices[position];
+        if (shortIndices != null) return shortIndices[position] & 0xFFFF;
+        return bufferIndices.get(position);
+    }
+
+    public int getIndexCount() {
+        return indexCount;
+    }
+
+    public boolean isShort() {
+        return shortIndices != null;
+    }
+
+    public void checkRange(int firstIndex, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count cannot be negative: " + count);
+        }
+        if (firstIndex < 0 || firstIndex + count > indexCount) {
+            throw new IndexOutOfBoundsException("Range [" + firstIndex + ", " + (firstIndex + count - 1) +
+                    "] is out of bounds for IndexBuffer of size " + indexCount);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.danielreker.javarenderer.core.container;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Objects;
+
+// Structure-of-arrays vertex storage: one contiguous float column per attribute of the layout, with the
+// components of vertex i at [i * componentCount, (i + 1) * componentCount). Columns are accessed by
+// absolute index, so they may be heap (float[]) or off-heap (direct or memory-mapped) buffers.
+public class LayoutVertexBuffer extends AbstractVertexBuffer {
+
+    private final VertexLayout layout;
+    private final FloatBuffer[] columns;
+    private final int vertexCount;
+
+
+    private LayoutVertexBuffer(VertexLayout layout, int vertexCount, FloatBuffer[] columns) {
+        this.layout = layout;
+        this.vertexCount = vertexCount;
+        this.columns = columns;
+    }
+
+    public static LayoutVertexBuffer allocate(VertexLayout layout, int vertexCount) {
+        checkArguments(layout, vertexCount);
+        FloatBuffer[] columns = new FloatBuffer[layout.getAttributeCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = FloatBuffer.allocate(columnLength(layout, i, vertexCount));
+        }
+        return new LayoutVertexBuffer(layout, vertexCount, columns);
+    }
+
+    public static LayoutVertexBuffer allocateDirect(VertexLayout layout, int vertexCount) {
+        checkArguments(layout, vertexCount);
+        FloatBuffer[] columns = new FloatBuffer[layout.getAttributeCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = ByteBuffer.allocateDirect(Math.multiplyExact(columnLength(layout, i, vertexCount), Float.BYTES))
+                    .order(ByteOrder.nativeOrder())
+                    .asFloatBuffer();
+        }
+        return new LayoutVertexBuffer(layout, vertexCount, columns);
+    }
+
+    public static LayoutVertexBuffer create(VertexLayout layout, int vertexCount, float[]... columns) {
+        Objects.requireNonNull(columns, "Column array cannot be null.");
+        FloatBuffer[] buffers = new FloatBuffer[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            buffers[i] = FloatBuffer.wrap(Objects.requireNonNull(columns[i], "Column " + i + " cannot be null."));
+        }
+        return wrap(layout, vertexCount, buffers);
+    }
+
+    // The buffers are used as-is without copying; element 0 of each buffer is vertex 0.
+    public static LayoutVertexBuffer wrap(VertexLayout layout, int vertexCount, FloatBuffer... columns) {
+        checkArguments(layout, vertexCount);
+        Objects.requireNonNull(columns, "Column array cannot be null.");
+        if (columns.length != layout.getAttributeCount()) {
+            throw new IllegalArgumentException("Vertex layout has " + layout.getAttributeCount()
+                    + " attributes, but " + columns.length + " columns were given.");
+        }
+        for (int i = 0; i < columns.length; i++) {
+            Objects.requireNonNull(columns[i], "Column " + i + " cannot be null.");
+            int required = columnLength(layout, i, vertexCount);
+            if (columns[i].limit() < required) {
+                throw new IllegalArgumentException("Column '" + layout.getAttribute(i).getName() + "' holds "
+                        + columns[i].limit() + " floats, but " + required + " are required.");
+            }
+        }
+        return new LayoutVertexBuffer(layout, vertexCount, columns.clone());
+    }
+
+    private static void checkArguments(VertexLayout layout, int vertexCount) {
+        Objects.requireNonNull(layout, "Vertex layout cannot be null.");
+        if (vertexCount < 0) {
+            throw new IllegalArgumentException("Vertex count cannot be negative: " + vertexCount);
+        }
+    }
+
+    private static int columnLength(VertexLayout layout, int attributeIndex, int vertexCount) {
+        return Math.multiplyExact(vertexCount, layout.getAttribute(attributeIndex).getFormat().getComponentCount());
+    }
+
+    public VertexLayout getLayout() { return layout; }
+
+    @Override
+    public int getVertexCount() { return vertexCount; }
+
+    public FloatBuffer getColumn(int attributeIndex) {
+        return columns[attributeIndex];
+    }
+
+    public FloatBuffer getColumn(String attributeName) {
+        int attributeIndex = layout.indexOf(attributeName);
+        if (attributeIndex < 0) {
+            throw new IllegalArgumentException("Vertex layout has no attribute named '" + attributeName + "'");
+        }
+        return columns[attributeIndex];
+    }
+
+    public void set(int attributeIndex, int vertexIndex, float... components) {
+        int componentCount = layout.getAttribute(attributeIndex).getFormat().getComponentCount();
+        if (components.length != componentCount) {
+            throw new IllegalArgumentException("Attribute '" + layout.getAttribute(attributeIndex).getName()
+                    + "' has " + componentCount + " components, got " + components.length);
+        }
+        checkRange(vertexIndex, 1);
+        columns[attributeIndex].put(vertexIndex * componentCount, components);
+    }
+}
@@ -1,44 +1,131 @@
 package io.github.danielreker.javarenderer.core.container;
 
-public class RenderBuffer<T> {
-    private final int width;
-    private final int height;
-    private final T[][] data;
+import io.github.danielreker.javarenderer.core.enums.RenderBufferFormat;
+
+import java.util.Arrays;
+
+// Base class of frame buffer attachments. Clearing is lazy: clear() records the value and starts a new
+// generation, and a CLEAR_TILE_SIZE tile is written when it is resolved, which the renderer does before
+// drawing into it. Reads see the clear value of pending tiles; unchecked writes and the subclasses' raw
+// arrays need resolveTile or resolve first.
+public abstract class RenderBuffer<T> {
+    // Same grid as HierarchicalZBuffer, so the renderer's raster blocks each map to one clear tile.
+    public static final int CLEAR_TILE_SHIFT = 3;
+    public static final int CLEAR_TILE_SIZE = 1 << CLEAR_TILE_SHIFT;
+
+    protected final int width;
+    protected final int height;
     private final Class<T> dataType;
+    private final RenderBufferFormat format;
 
-    @SuppressWarnings("unchecked")
-    public RenderBuffer(int width, int height, Class<T> dataType, T initialValue) {
+    private final int clearTilesX;
+    private final int clearTilesY;
+    // A tile has a pending clear while its generation is behind the buffer's.
+    private final int[] tileGenerations;
+    private int generation = 0;
+
+    protected RenderBuffer(int width, int height, Class<T> dataType, RenderBufferFormat format) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("RenderBuffer dimensions must be positive: " + width + "x" + height);
+        }
         this.width = width;
         this.height = height;
         this.dataType = dataType;
-        this.data = (T[][]) new Object[height][width];
-        if (initialValue != null) {
-            clear(initialValue);
-        }
+        this.format = format;
+        this.clearTilesX = (width + CLEAR_TILE_SIZE - 1) >> CLEAR_TILE_SHIFT;
+        this.clearTilesY = (height + CLEAR_TILE_SIZE - 1) >> CLEAR_TILE_SHIFT;
+        this.tileGenerations = new int[clearTilesX * clearTilesY];
     }
 
     public int getWidth() { return width; }
     public int getHeight() { return height; }
+    public int getPixelCount() { return width * height; }
     public Class<T> getDataType() { return dataType; }
+    public RenderBufferFormat getFormat() { return format; }
+    public int getClearTilesX() { return clearTilesX; }
+    public int getClearTilesY() { return clearTilesY; }
+
+    public int indexOf(int x, int y) {
+        return y * width + x;
+    }
+
+    public boolean contains(int x, int y) {
+        return 0 <= x && x < width && 0 <= y && y < height;
+    }
+
+    public int clearTileIndexOf(int x, int y) {
+        return (y >> CLEAR_TILE_SHIFT) * clearTilesX + (x >> CLEAR_TILE_SHIFT);
+    }
+
+    // Unchecked: index is y * width + x and must be inside the buffer.
+    protected int clearTileIndexOf(int index) {
+        return clearTileIndexOf(index % width, index / width);
+    }
+
+    public boolean isClearPending(int tile) {
+        return tileGenerations[tile] != generation;
+    }
+
+    // Writes the pending clear value into the tile, if it has one. Tiles are independent, so different
+    // threads may resolve and draw into different tiles at the same time.
+    public void resolveTile(int tile) {
+        if (tileGenerations[tile] == generation) return;
+        int x0 = (tile % clearTilesX) << CLEAR_TILE_SHIFT;
+        int y0 = (tile / clearTilesX) << CLEAR_TILE_SHIFT;
+        int x1 = Math.min(x0 + CLEAR_TILE_SIZE, width);
+        int y1 = Math.min(y0 + CLEAR_TILE_SIZE, height);
+        for (int y = y0; y < y1; y++) {
+            fillWithClearValue(y * width + x0, y * width + x1);
+        }
+        tileGenerations[tile] = generation;
+    }
+
+    public void resolve() {
+        for (int tile = 0; tile < tileGenerations.length; tile++) {
+            resolveTile(tile);
+        }
+    }
+
+    // Resolves the tiles overlapping the rows of [fromIndex, toIndex), before a write to that range.
+    protected void resolveRange(int fromIndex, int toIndex) {
+        if (fromIndex >= toIndex) return;
+        int firstTileRow = (fromIndex / width) >> CLEAR_TILE_SHIFT;
+        int lastTileRow = ((toIndex - 1) / width) >> CLEAR_TILE_SHIFT;
+        for (int tile = firstTileRow * clearTilesX; tile < (lastTileRow + 1) * clearTilesX; tile++) {
+            resolveTile(tile);
+        }
+    }
+
+    // Called by subclasses after storing a new clear value: every tile now has a pending clear.
+    protected void markCleared() {
+        generation++;
+        if (generation == 0) {
+            // Wrapped around; make sure no tile's generation matches by accident.
+            generation = 1;
+            Arrays.fill(tileGenerations, 0);
+        }
+    }
 
     public void setValue(int x, int y, T value) {
-        if (0 <= x && x < width && 0 <= y && y < height) {
-            this.data[y][x] = value;
+        if (value != null && contains(x, y)) {
+            resolveTile(clearTileIndexOf(x, y));
+            setValueAt(indexOf(x, y), value);
         }
     }
 
     public T getValue(int x, int y) {
-        if (0 <= x && x < width && 0 <= y && y < height) {
-            return this.data[y][x];
+        if (contains(x, y)) {
+            return getValueAt(indexOf(x, y));
         }
         return null;
     }
 
-    public void clear(T clearValue) {
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                this.data[y][x] = clearValue;
-            }
-        }
-    }
-}
\ No newline at end of file
+    protected abstract void setValueAt(int index, T value);
+
+    protected abstract T getValueAt(int index);
+
+    // Writes the current clear value to the pixels in [fromIndex, toIndex).
+    protected abstract void fillWithClearValue(int fromIndex, int toIndex);
+
+    public abstract void clear(T clearValue);
+}
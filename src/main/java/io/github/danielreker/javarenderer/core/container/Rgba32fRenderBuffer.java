@@ -0,0 +1,62 @@
+package io.github.danielreker.javarenderer.core.container;
+
+import io.github.danielreker.javarenderer.core.enums.RenderBufferFormat;
+import org.joml.Vector4f;
+
+// Four interleaved floats per pixel: data[4 * index] is red, data[4 * index + 3] is alpha. The array is raw
+// storage; tiles with a pending clear hold stale values until they are resolved.
+public class Rgba32fRenderBuffer extends ColorRenderBuffer {
+    private final float[] data;
+
+    public Rgba32fRenderBuffer(int width, int height) {
+        super(width, height, RenderBufferFormat.RGBA32F);
+        this.data = new float[width * height * 4];
+    }
+
+    public float[] getData() { return data; }
+
+    @Override
+    protected Vector4f readColor(int index, Vector4f dest) {
+        int i = index << 2;
+        return dest.set(data[i], data[i + 1], data[i + 2], data[i + 3]);
+    }
+
+    // Gives the same result as Rgba8RenderBuffer.pack, NaN included, but clamps after the conversion, where
+    // it is cheaper.
+    @Override
+    protected void packRange(int index, int[] dest, int destOffset, int count) {
+        int i = index << 2;
+        for (int p = 0; p < count; p++, i += 4) {
+            int r = toClampedByte(data[i]);
+            int g = toClampedByte(data[i + 1]);
+            int b = toClampedByte(data[i + 2]);
+            int a = toClampedByte(data[i + 3]);
+            dest[destOffset + p] = (a << 24) | (r << 16) | (g << 8) | b;
+        }
+    }
+
+    private static int toClampedByte(float value) {
+        int scaled = (int) (value * 255.0f);
+        return scaled < 0 ? 0 : Math.min(scaled, 255);
+    }
+
+    @Override
+    public void setColor(int index, float r, float g, float b, float a) {
+        int i = index << 2;
+        data[i] = r;
+        data[i + 1] = g;
+        data[i + 2] = b;
+        data[i + 3] = a;
+    }
+
+    @Override
+    protected void fillRange(int fromIndex, int toIndex, Vector4f color) {
+        if (fromIndex >= toIndex) return;
+        setColor(fromIndex, color);
+        int start = fromIndex << 2;
+        int end = toIndex << 2;
+        for (int filled = 4; start + filled < end; filled <<= 1) {
+            System.arraycopy(data, start, data, start + filled, Math.min(filled, end - start - filled));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.danielreker.javarenderer.core.container;
+
+import io.github.danielreker.javarenderer.core.enums.RenderBufferFormat;
+import org.joml.Vector4f;
+
+import java.util.Arrays;
+
+// Pixels are packed as 0xAARRGGBB so rows can be copied straight into TYPE_INT_ARGB rasters. The array is raw
+// storage; tiles with a pending clear hold stale values until they are resolved.
+public class Rgba8RenderBuffer extends ColorRenderBuffer {
+    private static final float INV_255 = 1.0f / 255.0f;
+
+    private final int[] data;
+    private int packedClearColor;
+
+    public Rgba8RenderBuffer(int width, int height) {
+        super(width, height, RenderBufferFormat.RGBA8);
+        this.data = new int[width * height];
+    }
+
+    public static int pack(float r, float g, float b, float a) {
+        return (toByte(a) << 24) | (toByte(r) << 16) | (toByte(g) << 8) | toByte(b);
+    }
+
+    private static int toByte(float value) {
+        return (int) (Math.min(Math.max(value, 0.0f), 1.0f) * 255.0f);
+    }
+
+    public int[] getData() { return data; }
+
+    public int getPacked(int index) {
+        if (isClearPending(clearTileIndexOf(index))) {
+            return packedClearColor;
+        }
+        return data[index];
+    }
+
+    public void setPacked(int index, int argb) {
+        data[index] = argb;
+    }
+
+    @Override
+    protected Vector4f readColor(int index, Vector4f dest) {
+        int argb = data[index];
+        return dest.set(
+                ((argb >>> 16) & 0xFF) * INV_255,
+                ((argb >>> 8) & 0xFF) * INV_255,
+                (argb & 0xFF) * INV_255,
+                (argb >>> 24) * INV_255);
+    }
+
+    @Override
+    protected void packRange(int index, int[] dest, int destOffset, int count) {
+        System.arraycopy(data, index, dest, destOffset, count);
+    }
+
+    @Override
+    public void setColor(int index, float r, float g, float b, float a) {
+        data[index] = pack(r, g, b, a);
+    }
+
+    @Override
+    protected void fillRange(int fromIndex, int toIndex, Vector4f color) {
+        Arrays.fill(data, fromIndex, toIndex, pack(color.x, color.y, color.z, color.w));
+    }
+
+    @Override
+    public void clear(Vector4f clearColor) {
+        super.clear(clearColor);
+        this.packedClearColor = pack(clearColor.x, clearColor.y, clearColor.z, clearColor.w);
+    }
+}
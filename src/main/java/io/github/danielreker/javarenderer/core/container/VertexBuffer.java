@@ -4,7 +4,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.stream.Stream;
 
-public class VertexBuffer<V> {
+public class VertexBuffer<V> extends AbstractVertexBuffer {
 
     private final List<V> vertices;
 
@@ -26,6 +26,7 @@ public class VertexBuffer<V> {
         return vertices.get(vertexIndex);
     }
 
+    @Override
     public int getVertexCount() {
         return vertices.size();
     }
@@ -35,13 +36,7 @@ public class VertexBuffer<V> {
     }
 
     public Stream<V> streamRange(int firstVertex, int count) {
-        if (count < 0) {
-            throw new IllegalArgumentException("Count cannot be negative: " + count);
-        }
-        if (firstVertex < 0 || firstVertex + count > vertices.size()) {
-            throw new IndexOutOfBoundsException("Range [" + firstVertex + ", " + (firstVertex + count -1) +
-                    "] is out of bounds for VertexBuffer of size " + vertices.size());
-        }
+        checkRange(firstVertex, count);
         if (count == 0) {
             return Stream.empty();
         }
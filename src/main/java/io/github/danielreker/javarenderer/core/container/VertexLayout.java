@@ -0,0 +1,110 @@
+package io.github.danielreker.javarenderer.core.container;
+
+import io.github.danielreker.javarenderer.core.enums.AttributeFormat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Describes the attribute columns of a LayoutVertexBuffer, e.g. "position: float3, texCoord: float2".
+// Layouts are compared by value, so equal layouts share the attribute bindings linked by a ShaderProgram.
+public final class VertexLayout {
+
+    public static final class Attribute {
+        private final String name;
+        private final AttributeFormat format;
+
+        public Attribute(String name, AttributeFormat format) {
+            this.name = Objects.requireNonNull(name, "Attribute name cannot be null.");
+            this.format = Objects.requireNonNull(format, "Attribute format cannot be null.");
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Attribute name cannot be empty.");
+            }
+        }
+
+        public String getName() { return name; }
+        public AttributeFormat getFormat() { return format; }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Attribute other && name.equals(other.name) && format == other.format;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + format.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + format.getTypeName();
+        }
+    }
+
+    private final List<Attribute> attributes;
+    private final Map<String, Integer> attributeIndices = new HashMap<>();
+    private final int hashCode;
+
+
+    private VertexLayout(List<Attribute> attributes) {
+        this.attributes = List.copyOf(attributes);
+        for (int i = 0; i < this.attributes.size(); i++) {
+            String name = this.attributes.get(i).getName();
+            if (attributeIndices.putIfAbsent(name, i) != null) {
+                throw new IllegalArgumentException("Duplicate attribute name in vertex layout: " + name);
+            }
+        }
+        this.hashCode = this.attributes.hashCode();
+    }
+
+    public static VertexLayout of(List<Attribute> attributes) {
+        Objects.requireNonNull(attributes, "Attribute list cannot be null.");
+        return new VertexLayout(attributes);
+    }
+
+    public static VertexLayout parse(String description) {
+        Objects.requireNonNull(description, "Vertex layout description cannot be null.");
+        List<Attribute> attributes = new ArrayList<>();
+        for (String entry : description.split(",")) {
+            int separator = entry.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected 'name: type' in vertex layout, got '" + entry.trim() + "'");
+            }
+            String name = entry.substring(0, separator).trim();
+            String typeName = entry.substring(separator + 1).trim();
+            attributes.add(new Attribute(name, AttributeFormat.fromTypeName(typeName)));
+        }
+        return new VertexLayout(attributes);
+    }
+
+    public List<Attribute> getAttributes() { return attributes; }
+    public int getAttributeCount() { return attributes.size(); }
+    public Attribute getAttribute(int attributeIndex) { return attributes.get(attributeIndex); }
+
+    // Returns -1 when the layout has no attribute with this name.
+    public int indexOf(String name) {
+        return attributeIndices.getOrDefault(name, -1);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof VertexLayout other && hashCode == other.hashCode && attributes.equals(other.attributes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Attribute attribute : attributes) {
+            if (!builder.isEmpty()) builder.append(", ");
+            builder.append(attribute);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.danielreker.javarenderer.core.enums;
+
+public enum AttributeFormat {
+    FLOAT("float", 1),
+    FLOAT2("float2", 2),
+    FLOAT3("float3", 3),
+    FLOAT4("float4", 4),
+    MAT4("mat4", 16);
+
+    private final String typeName;
+    private final int componentCount;
+
+    AttributeFormat(String typeName, int componentCount) {
+        this.typeName = typeName;
+        this.componentCount = componentCount;
+    }
+
+    public String getTypeName() { return typeName; }
+    public int getComponentCount() { return componentCount; }
+
+    public static AttributeFormat fromTypeName(String typeName) {
+        for (AttributeFormat format : values()) {
+            if (format.typeName.equals(typeName)) return format;
+        }
+        throw new IllegalArgumentException("Unknown attribute type: " + typeName);
+    }
+}
@@ -0,0 +1,4 @@
+package io.github.danielreker.javarenderer.core.enums;
+
+// RAW_RGBA is four bytes per pixel in R, G, B, A order, rows top to bottom, without a header.
+public enum ImageFormat { PNG, RAW_RGBA }
@@ -0,0 +1,3 @@
+package io.github.danielreker.javarenderer.core.enums;
+
+public enum RasterBackend { SCALAR, VECTOR }
@@ -0,0 +1,16 @@
+package io.github.danielreker.javarenderer.core.enums;
+
+public enum RenderBufferFormat {
+    RGBA8(true),
+    RGBA32F(true),
+    DEPTH32F(false);
+
+    private final boolean color;
+
+    RenderBufferFormat(boolean color) {
+        this.color = color;
+    }
+
+    public boolean isColor() { return color; }
+    public boolean isDepth() { return !color; }
+}
@@ -0,0 +1,6 @@
+package io.github.danielreker.javarenderer.core.enums;
+
+// Filtering of a Sampler. NEAREST and BILINEAR read the mip level closest to the computed level of detail
+// (GL's NEAREST_MIPMAP_NEAREST and LINEAR_MIPMAP_NEAREST); TRILINEAR blends bilinear samples of the two
+// nearest levels. Textures without mipmaps are always read at their base level.
+public enum TextureFilter { NEAREST, BILINEAR, TRILINEAR }
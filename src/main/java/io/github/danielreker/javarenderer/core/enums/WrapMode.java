@@ -0,0 +1,3 @@
+package io.github.danielreker.javarenderer.core.enums;
+
+public enum WrapMode { REPEAT, MIRRORED_REPEAT, CLAMP_TO_EDGE }
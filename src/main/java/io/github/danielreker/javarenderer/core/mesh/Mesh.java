@@ -0,0 +1,21 @@
+package io.github.danielreker.javarenderer.core.mesh;
+
+import io.github.danielreker.javarenderer.core.container.IndexBuffer;
+import io.github.danielreker.javarenderer.core.container.LayoutVertexBuffer;
+
+import java.util.Objects;
+
+public class Mesh {
+
+    private final LayoutVertexBuffer vertexBuffer;
+    private final IndexBuffer indexBuffer;
+
+
+    public Mesh(LayoutVertexBuffer vertexBuffer, IndexBuffer indexBuffer) {
+        this.vertexBuffer = Objects.requireNonNull(vertexBuffer, "VertexBuffer cannot be null.");
+        this.indexBuffer = Objects.requireNonNull(indexBuffer, "IndexBuffer cannot be null.");
+    }
+
+    public LayoutVertexBuffer getVertexBuffer() { return vertexBuffer; }
+    public IndexBuffer getIndexBuffer() { return indexBuffer; }
+}
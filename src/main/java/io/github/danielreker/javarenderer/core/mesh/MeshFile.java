@@ -0,0 +1,159 @@
+package io.github.danielreker.javarenderer.core.mesh;
+
+import io.github.danielreker.javarenderer.core.container.IndexBuffer;
+import io.github.danielreker.javarenderer.core.container.LayoutVertexBuffer;
+import io.github.danielreker.javarenderer.core.container.VertexLayout;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+// Binary mesh format, little-endian:
+//   int magic, int version, int vertexCount, int indexCount, int layoutLength, byte[layoutLength] layout (UTF-8)
+// followed by one float column per layout attribute and then the int32 indices. Every section starts at a
+// multiple of ALIGNMENT bytes, so each column can be mapped on its own and used without copying.
+public final class MeshFile {
+
+    private static final int MAGIC = 0x484D524A; // "JRMH"
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 5;
+    private static final int ALIGNMENT = 16;
+    private static final int MAX_LAYOUT_LENGTH = 1 << 16;
+    private static final int WRITE_CHUNK_BYTES = 1 << 16;
+
+    private MeshFile() {}
+
+    // The returned buffers are read-only views of the file. The mappings stay valid after this method
+    // returns and are released when the buffers are garbage collected.
+    public static Mesh map(Path path) throws IOException {
+        Objects.requireNonNull(path, "Path cannot be null.");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = readFully(channel, 0, HEADER_INTS * Integer.BYTES, path);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a mesh file: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported mesh file version " + version + ": " + path);
+            }
+            int vertexCount = header.getInt();
+            int indexCount = header.getInt();
+            int layoutLength = header.getInt();
+            if (vertexCount < 0 || indexCount < 0 || layoutLength <= 0 || layoutLength > MAX_LAYOUT_LENGTH) {
+                throw new IOException("Corrupt mesh file header: " + path);
+            }
+
+            ByteBuffer layoutBytes = readFully(channel, HEADER_INTS * Integer.BYTES, layoutLength, path);
+            VertexLayout layout;
+            try {
+                layout = VertexLayout.parse(StandardCharsets.UTF_8.decode(layoutBytes).toString());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt vertex layout in mesh file: " + path, e);
+            }
+
+            long offset = align(HEADER_INTS * Integer.BYTES + layoutLength);
+            FloatBuffer[] columns = new FloatBuffer[layout.getAttributeCount()];
+            for (int i = 0; i < columns.length; i++) {
+                long byteLength = (long) vertexCount * layout.getAttribute(i).getFormat().getComponentCount() * Float.BYTES;
+                columns[i] = map(channel, offset, byteLength, path).asFloatBuffer();
+                offset = align(offset + byteLength);
+            }
+            IntBuffer indices = map(channel, offset, (long) indexCount * Integer.BYTES, path).asIntBuffer();
+
+            return new Mesh(LayoutVertexBuffer.wrap(layout, vertexCount, columns), IndexBuffer.wrap(indices, indexCount));
+        }
+    }
+
+    public static void write(Path path, LayoutVertexBuffer vertices, IndexBuffer indices) throws IOException {
+        Objects.requireNonNull(path, "Path cannot be null.");
+        Objects.requireNonNull(vertices, "VertexBuffer cannot be null.");
+        Objects.requireNonNull(indices, "IndexBuffer cannot be null.");
+        VertexLayout layout = vertices.getLayout();
+        byte[] layoutBytes = layout.toString().getBytes(StandardCharsets.UTF_8);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer chunk = ByteBuffer.allocate(WRITE_CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            chunk.putInt(MAGIC).putInt(VERSION)
+                    .putInt(vertices.getVertexCount()).putInt(indices.getIndexCount()).putInt(layoutBytes.length);
+            chunk.flip();
+            writeFully(channel, chunk);
+            writeFully(channel, ByteBuffer.wrap(layoutBytes));
+            pad(channel);
+
+            for (int i = 0; i < layout.getAttributeCount(); i++) {
+                FloatBuffer column = vertices.getColumn(i);
+                int floatCount = vertices.getVertexCount() * layout.getAttribute(i).getFormat().getComponentCount();
+                chunk.clear();
+                for (int f = 0; f < floatCount; f++) {
+                    if (!chunk.hasRemaining()) {
+                        chunk.flip();
+                        writeFully(channel, chunk);
+                        chunk.clear();
+                    }
+                    chunk.putFloat(column.get(f));
+                }
+                chunk.flip();
+                writeFully(channel, chunk);
+                pad(channel);
+            }
+
+            chunk.clear();
+            for (int i = 0; i < indices.getIndexCount(); i++) {
+                if (!chunk.hasRemaining()) {
+                    chunk.flip();
+                    writeFully(channel, chunk);
+                    chunk.clear();
+                }
+                chunk.putInt(indices.getIndex(i));
+            }
+            chunk.flip();
+            writeFully(channel, chunk);
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, long offset, long byteLength, Path path) throws IOException {
+        if (byteLength > Integer.MAX_VALUE) {
+            throw new IOException("Mesh section of " + byteLength + " bytes is too large to map: " + path);
+        }
+        if (offset + byteLength > channel.size()) {
+            throw new IOException("Truncated mesh file: " + path);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, byteLength).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length, Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated mesh file: " + path);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void pad(FileChannel channel) throws IOException {
+        long position = channel.position();
+        int padding = (int) (align(position) - position);
+        if (padding > 0) {
+            writeFully(channel, ByteBuffer.allocate(padding));
+        }
+    }
+
+    private static long align(long offset) {
+        return (offset + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+}
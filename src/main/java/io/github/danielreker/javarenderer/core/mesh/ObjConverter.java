@@ -0,0 +1,300 @@
+package io.github.danielreker.javarenderer.core.mesh;
+
+import io.github.danielreker.javarenderer.core.container.IndexBuffer;
+import io.github.danielreker.javarenderer.core.container.LayoutVertexBuffer;
+import io.github.danielreker.javarenderer.core.container.VertexLayout;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+
+// Streaming Wavefront OBJ reader. Lines are parsed one at a time into primitive arrays; every distinct
+// position/texCoord/normal triple of a face becomes one output vertex, and polygons are fanned into
+// triangle indices. The layout is "position: float3", plus "texCoord: float2" and "normal: float3" when
+// any face references them. Elements other than v, vt, vn and f are ignored.
+public final class ObjConverter {
+
+    private ObjConverter() {}
+
+    public static void convert(Path objFile, Path meshFile) throws IOException {
+        Objects.requireNonNull(objFile, "OBJ path cannot be null.");
+        Objects.requireNonNull(meshFile, "Mesh path cannot be null.");
+        Mesh mesh;
+        try (BufferedReader reader = Files.newBufferedReader(objFile, StandardCharsets.UTF_8)) {
+            mesh = read(reader);
+        }
+        MeshFile.write(meshFile, mesh.getVertexBuffer(), mesh.getIndexBuffer());
+    }
+
+    public static Mesh read(Reader source) throws IOException {
+        Objects.requireNonNull(source, "Reader cannot be null.");
+        BufferedReader reader = source instanceof BufferedReader buffered ? buffered : new BufferedReader(source);
+        ObjState state = new ObjState();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            try {
+                state.parseLine(line);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Malformed OBJ at line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return state.toMesh();
+    }
+
+    private static final class ObjState {
+        private final FloatList positions = new FloatList();
+        private final FloatList texCoords = new FloatList();
+        private final FloatList normals = new FloatList();
+
+        private final FloatList outPositions = new FloatList();
+        // Null until a face references a texture coordinate or normal; earlier vertices then get zeros.
+        private FloatList outTexCoords;
+        private FloatList outNormals;
+        private final IntList indices = new IntList();
+        private final VertexDeduplicator deduplicator = new VertexDeduplicator();
+
+        private final String[] tokens = new String[64];
+        private int[] faceVertices = new int[16];
+
+        void parseLine(String line) {
+            int tokenCount = tokenize(line);
+            if (tokenCount == 0) return;
+            switch (tokens[0]) {
+                case "v" -> parseFloats(positions, tokenCount, 3);
+                case "vt" -> parseFloats(texCoords, tokenCount, 2);
+                case "vn" -> parseFloats(normals, tokenCount, 3);
+                case "f" -> parseFace(tokenCount);
+                default -> { }
+            }
+        }
+
+        private void parseFloats(FloatList target, int tokenCount, int componentCount) {
+            if (tokenCount - 1 < componentCount) {
+                throw new IllegalArgumentException("expected " + componentCount + " components after '" + tokens[0] + "'");
+            }
+            for (int i = 1; i <= componentCount; i++) {
+                target.add(Float.parseFloat(tokens[i]));
+            }
+        }
+
+        private void parseFace(int tokenCount) {
+            int vertexCount = tokenCount - 1;
+            if (vertexCount < 3) {
+                throw new IllegalArgumentException("face needs at least 3 vertices, got " + vertexCount);
+            }
+            if (faceVertices.length < vertexCount) {
+                faceVertices = new int[Math.max(vertexCount, faceVertices.length * 2)];
+            }
+            for (int i = 0; i < vertexCount; i++) {
+                faceVertices[i] = resolveVertex(tokens[i + 1]);
+            }
+            for (int i = 1; i + 1 < vertexCount; i++) {
+                indices.add(faceVertices[0]);
+                indices.add(faceVertices[i]);
+                indices.add(faceVertices[i + 1]);
+            }
+        }
+
+        // "v", "v/vt", "v//vn" or "v/vt/vn"; indices are 1-based, negative ones count back from the end.
+        private int resolveVertex(String token) {
+            int firstSlash = token.indexOf('/');
+            int secondSlash = firstSlash < 0 ? -1 : token.indexOf('/', firstSlash + 1);
+            int position = resolveIndex(firstSlash < 0 ? token : token.substring(0, firstSlash), positions.size() / 3);
+            int texCoord = -1;
+            int normal = -1;
+            if (firstSlash >= 0) {
+                int texEnd = secondSlash < 0 ? token.length() : secondSlash;
+                if (texEnd > firstSlash + 1) {
+                    texCoord = resolveIndex(token.substring(firstSlash + 1, texEnd), texCoords.size() / 2);
+                }
+                if (secondSlash >= 0) {
+                    normal = resolveIndex(token.substring(secondSlash + 1), normals.size() / 3);
+                }
+            }
+
+            int vertex = deduplicator.find(position, texCoord, normal);
+            if (vertex >= 0) return vertex;
+
+            vertex = outPositions.size() / 3;
+            deduplicator.add(position, texCoord, normal, vertex);
+            outPositions.add(positions.get(3 * position), positions.get(3 * position + 1), positions.get(3 * position + 2));
+            if (texCoord >= 0 && outTexCoords == null) {
+                outTexCoords = FloatList.zeros(2 * vertex);
+            }
+            if (outTexCoords != null) {
+                if (texCoord >= 0) {
+                    outTexCoords.add(texCoords.get(2 * texCoord), texCoords.get(2 * texCoord + 1));
+                } else {
+                    outTexCoords.add(0.0f, 0.0f);
+                }
+            }
+            if (normal >= 0 && outNormals == null) {
+                outNormals = FloatList.zeros(3 * vertex);
+            }
+            if (outNormals != null) {
+                if (normal >= 0) {
+                    outNormals.add(normals.get(3 * normal), normals.get(3 * normal + 1), normals.get(3 * normal + 2));
+                } else {
+                    outNormals.add(0.0f, 0.0f, 0.0f);
+                }
+            }
+            return vertex;
+        }
+
+        private static int resolveIndex(String token, int count) {
+            int index = Integer.parseInt(token);
+            int resolved = index < 0 ? count + index : index - 1;
+            if (index == 0 || resolved < 0 || resolved >= count) {
+                throw new IllegalArgumentException("index " + index + " is out of range for " + count + " elements");
+            }
+            return resolved;
+        }
+
+        private int tokenize(String line) {
+            int count = 0;
+            int length = line.length();
+            int i = 0;
+            while (i < length) {
+                while (i < length && Character.isWhitespace(line.charAt(i))) i++;
+                if (i >= length || line.charAt(i) == '#') break;
+                int start = i;
+                while (i < length && !Character.isWhitespace(line.charAt(i))) i++;
+                if (count == tokens.length) {
+                    throw new IllegalArgumentException("more than " + (tokens.length - 1) + " elements on one line");
+                }
+                tokens[count++] = line.substring(start, i);
+            }
+            return count;
+        }
+
+        // The mesh wraps the lists' backing arrays rather than copying them, so peak heap stays at one copy.
+        Mesh toMesh() {
+            int vertexCount = outPositions.size() / 3;
+            StringBuilder layout = new StringBuilder("position: float3");
+            if (outTexCoords != null) layout.append(", texCoord: float2");
+            if (outNormals != null) layout.append(", normal: float3");
+
+            FloatBuffer[] columns = new FloatBuffer[1 + (outTexCoords != null ? 1 : 0) + (outNormals != null ? 1 : 0)];
+            int column = 0;
+            columns[column++] = outPositions.asBuffer();
+            if (outTexCoords != null) columns[column++] = outTexCoords.asBuffer();
+            if (outNormals != null) columns[column] = outNormals.asBuffer();
+
+            return new Mesh(LayoutVertexBuffer.wrap(VertexLayout.parse(layout.toString()), vertexCount, columns),
+                    IndexBuffer.wrap(indices.asBuffer(), indices.size()));
+        }
+    }
+
+    // Open-addressing map from (position, texCoord, normal) to output vertex, kept in flat int arrays.
+    private static final class VertexDeduplicator {
+        private int[] keys = new int[3 * 1024];
+        private int[] values = new int[1024];
+        private int size;
+
+        VertexDeduplicator() {
+            Arrays.fill(values, -1);
+        }
+
+        int find(int position, int texCoord, int normal) {
+            int mask = values.length - 1;
+            for (int slot = hash(position, texCoord, normal) & mask; ; slot = (slot + 1) & mask) {
+                if (values[slot] < 0) return -1;
+                if (keys[3 * slot] == position && keys[3 * slot + 1] == texCoord && keys[3 * slot + 2] == normal) {
+                    return values[slot];
+                }
+            }
+        }
+
+        void add(int position, int texCoord, int normal, int vertex) {
+            if (2 * (size + 1) > values.length) {
+                grow();
+            }
+            insert(position, texCoord, normal, vertex);
+            size++;
+        }
+
+        private void insert(int position, int texCoord, int normal, int vertex) {
+            int mask = values.length - 1;
+            int slot = hash(position, texCoord, normal) & mask;
+            while (values[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[3 * slot] = position;
+            keys[3 * slot + 1] = texCoord;
+            keys[3 * slot + 2] = normal;
+            values[slot] = vertex;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            Arrays.fill(values, -1);
+            for (int slot = 0; slot < oldValues.length; slot++) {
+                if (oldValues[slot] >= 0) {
+                    insert(oldKeys[3 * slot], oldKeys[3 * slot + 1], oldKeys[3 * slot + 2], oldValues[slot]);
+                }
+            }
+        }
+
+        private static int hash(int position, int texCoord, int normal) {
+            int h = position * 0x9E3779B1 + texCoord * 0x85EBCA77 + normal * 0xC2B2AE3D;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    private static final class FloatList {
+        private float[] data = new float[1024];
+        private int size;
+
+        static FloatList zeros(int size) {
+            FloatList list = new FloatList();
+            if (size > list.data.length) list.data = new float[size];
+            list.size = size;
+            return list;
+        }
+
+        void add(float value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        void add(float a, float b) {
+            add(a);
+            add(b);
+        }
+
+        void add(float a, float b, float c) {
+            add(a);
+            add(b);
+            add(c);
+        }
+
+        float get(int index) { return data[index]; }
+        int size() { return size; }
+        FloatBuffer asBuffer() { return FloatBuffer.wrap(data, 0, size); }
+    }
+
+    private static final class IntList {
+        private int[] data = new int[1024];
+        private int size;
+
+        void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        int size() { return size; }
+        IntBuffer asBuffer() { return IntBuffer.wrap(data, 0, size); }
+    }
+}
@@ -0,0 +1,240 @@
+package io.github.danielreker.javarenderer.core.present;
+
+import io.github.danielreker.javarenderer.core.container.FrameBuffer;
+import io.github.danielreker.javarenderer.core.enums.ImageFormat;
+import org.joml.Vector4f;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+// Offscreen rendering to image files. Frames are rendered into reusable frame buffers and passed to a pool of
+// encoder threads with encode(); each thread resolves the frame into its own image, returns the buffer and
+// then writes the file. acquire() blocks while every buffer awaits resolving, which bounds memory use. The
+// first encoder failure is rethrown by acquire(), encode() and awaitCompletion(); later frames are dropped.
+public final class FrameEncoder implements AutoCloseable {
+    private final FrameBuffer[] buffers;
+    private final BlockingQueue<FrameBuffer> freeBuffers;
+    private final ExecutorService encoderPool;
+    private final ThreadLocal<EncoderScratch> scratch;
+    private final Vector4f clearColor;
+    private final float clearDepth;
+
+    private final Object completionLock = new Object();
+    private int pendingFrameCount = 0;
+    private volatile Throwable encodeFailure;
+    private volatile boolean closed = false;
+    private volatile long encodedFrameCount;
+
+    private FrameEncoder(FrameBuffer[] buffers, int encoderThreadCount, Vector4f clearColor, float clearDepth) {
+        this.buffers = buffers;
+        this.freeBuffers = new ArrayBlockingQueue<>(buffers.length);
+        for (FrameBuffer buffer : buffers) {
+            freeBuffers.add(buffer);
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.encoderPool = Executors.newFixedThreadPool(encoderThreadCount, task -> {
+            Thread thread = new Thread(task, "EncoderThread-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        int width = buffers[0].getWidth();
+        int height = buffers[0].getHeight();
+        this.scratch = ThreadLocal.withInitial(() -> new EncoderScratch(width, height));
+        this.clearColor = clearColor != null ? new Vector4f(clearColor) : null;
+        this.clearDepth = clearDepth;
+    }
+
+    public static FrameEncoder create(
+            int width,
+            int height,
+            int bufferCount,
+            int encoderThreadCount,
+            Vector4f clearColor,
+            float clearDepth
+    ) {
+        if (bufferCount <= 0) {
+            throw new IllegalArgumentException("Buffer count must be positive: " + bufferCount);
+        }
+        if (encoderThreadCount <= 0) {
+            throw new IllegalArgumentException("Encoder thread count must be positive: " + encoderThreadCount);
+        }
+        FrameBuffer[] buffers = new FrameBuffer[bufferCount];
+        for (int i = 0; i < bufferCount; i++) {
+            buffers[i] = FrameBuffer.create(width, height, clearColor, clearDepth);
+        }
+        return new FrameEncoder(buffers, encoderThreadCount, clearColor, clearDepth);
+    }
+
+    public int getBufferCount() { return buffers.length; }
+    public int getWidth() { return buffers[0].getWidth(); }
+    public int getHeight() { return buffers[0].getHeight(); }
+    public long getEncodedFrameCount() { return encodedFrameCount; }
+
+    // Blocks until a buffer is free and returns it cleared.
+    public FrameBuffer acquire() throws InterruptedException {
+        checkState();
+        FrameBuffer buffer = freeBuffers.take();
+        checkState();
+        buffer.clear(clearColor, clearDepth);
+        return buffer;
+    }
+
+    // Queues the frame for writing to file; the frame buffer must not be used again until acquired.
+    public void encode(FrameBuffer frame, Path file, ImageFormat format) {
+        Objects.requireNonNull(frame, "FrameBuffer cannot be null.");
+        Objects.requireNonNull(file, "Output file cannot be null.");
+        Objects.requireNonNull(format, "ImageFormat cannot be null.");
+        if (!owns(frame)) {
+            throw new IllegalArgumentException("FrameBuffer does not belong to this FrameEncoder.");
+        }
+        checkState();
+        synchronized (completionLock) {
+            pendingFrameCount++;
+        }
+        encoderPool.execute(() -> encodeFrame(frame, file, format));
+    }
+
+    // Renders frameCount frames and queues frame i for writing to files.apply(i). Rendering runs on the
+    // calling thread; this returns once the last frame is queued, see awaitCompletion.
+    public void encodeSequence(int frameCount, FrameSource source, IntFunction<Path> files, ImageFormat format)
+            throws Exception {
+        Objects.requireNonNull(source, "FrameSource cannot be null.");
+        Objects.requireNonNull(files, "Output file function cannot be null.");
+        for (int frameIndex = 0; frameIndex < frameCount; frameIndex++) {
+            FrameBuffer frame = acquire();
+            try {
+                source.render(frameIndex, frame);
+            } catch (Exception e) {
+                freeBuffers.add(frame);
+                throw e;
+            }
+            encode(frame, files.apply(frameIndex), format);
+        }
+    }
+
+    // Waits until every queued frame is written, then rethrows the first failure, if any.
+    public void awaitCompletion() throws IOException, InterruptedException {
+        synchronized (completionLock) {
+            while (pendingFrameCount > 0) {
+                completionLock.wait();
+            }
+        }
+        Throwable failure = encodeFailure;
+        if (failure instanceof IOException e) throw e;
+        if (failure != null) throw new IllegalStateException("Encoding a frame failed.", failure);
+    }
+
+    // Stops accepting frames and waits for the queued ones to be written.
+    @Override
+    public void close() {
+        closed = true;
+        encoderPool.shutdown();
+        try {
+            while (!encoderPool.awaitTermination(1, TimeUnit.SECONDS)) {
+                // Keep waiting; the encoder threads finish the queued frames.
+            }
+        } catch (InterruptedException e) {
+            encoderPool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean owns(FrameBuffer frame) {
+        for (FrameBuffer buffer : buffers) {
+            if (buffer == frame) return true;
+        }
+        return false;
+    }
+
+    private void checkState() {
+        if (closed) {
+            throw new IllegalStateException("FrameEncoder is closed.");
+        }
+        if (encodeFailure != null) {
+            throw new IllegalStateException("Encoding a frame failed.", encodeFailure);
+        }
+    }
+
+    private void encodeFrame(FrameBuffer frame, Path file, ImageFormat format) {
+        try {
+            EncoderScratch encoderScratch = scratch.get();
+            try {
+                frame.resolveColor(encoderScratch.image, true, false);
+            } finally {
+                freeBuffers.add(frame);
+            }
+            if (encodeFailure == null) {
+                encoderScratch.write(file, format);
+                synchronized (completionLock) {
+                    encodedFrameCount++;
+                }
+            }
+        } catch (Throwable e) {
+            synchronized (completionLock) {
+                if (encodeFailure == null) encodeFailure = e;
+            }
+        } finally {
+            synchronized (completionLock) {
+                pendingFrameCount--;
+                completionLock.notifyAll();
+            }
+        }
+    }
+
+    // Per encoder thread, so a frame can be written while other threads resolve the next ones.
+    private static final class EncoderScratch {
+        final BufferedImage image;
+        final int[] pixels;
+        byte[] rgbaBytes;
+
+        EncoderScratch(int width, int height) {
+            this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        }
+
+        void write(Path file, ImageFormat format) throws IOException {
+            switch (format) {
+                case PNG -> {
+                    // A memory-cached stream keeps ImageIO from creating a temporary cache file per image.
+                    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file));
+                         ImageOutputStream imageOut = new MemoryCacheImageOutputStream(out)) {
+                        if (!ImageIO.write(image, "png", imageOut)) {
+                            throw new IOException("No PNG writer available.");
+                        }
+                    }
+                }
+                case RAW_RGBA -> {
+                    if (rgbaBytes == null) {
+                        rgbaBytes = new byte[pixels.length * 4];
+                    }
+                    for (int i = 0, b = 0; i < pixels.length; i++, b += 4) {
+                        int argb = pixels[i];
+                        rgbaBytes[b] = (byte) (argb >>> 16);
+                        rgbaBytes[b + 1] = (byte) (argb >>> 8);
+                        rgbaBytes[b + 2] = (byte) argb;
+                        rgbaBytes[b + 3] = (byte) (argb >>> 24);
+                    }
+                    try (OutputStream out = Files.newOutputStream(file)) {
+                        out.write(rgbaBytes);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.danielreker.javarenderer.core.present;
+
+import io.github.danielreker.javarenderer.core.container.FrameBuffer;
+
+// Displays or otherwise consumes a finished frame. Called on the swap chain's present thread; the frame
+// buffer is handed back for rendering as soon as this returns, so it must not be kept.
+@FunctionalInterface
+public interface FramePresenter {
+    void present(FrameBuffer frame) throws Exception;
+}
@@ -0,0 +1,9 @@
+package io.github.danielreker.javarenderer.core.present;
+
+import io.github.danielreker.javarenderer.core.container.FrameBuffer;
+
+// Draws frame number frameIndex of a sequence into a cleared frame buffer.
+@FunctionalInterface
+public interface FrameSource {
+    void render(int frameIndex, FrameBuffer target) throws Exception;
+}
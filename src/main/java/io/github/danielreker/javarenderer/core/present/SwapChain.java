@@ -0,0 +1,160 @@
+package io.github.danielreker.javarenderer.core.present;
+
+import io.github.danielreker.javarenderer.core.container.FrameBuffer;
+import org.joml.Vector4f;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.LockSupport;
+
+// A fixed set of reusable frame buffers cycled between the rendering thread and a present thread. acquire()
+// hands out a cleared buffer and blocks while all of them are queued or being presented, which bounds
+// latency to the buffer count; present() queues a drawn one for the FramePresenter. With a target frame
+// rate, presents are spaced evenly and the renderer is throttled through acquire().
+public final class SwapChain implements AutoCloseable {
+    public static final int MIN_BUFFER_COUNT = 2;
+    public static final int MAX_BUFFER_COUNT = 3;
+
+    private final FrameBuffer[] buffers;
+    private final BlockingQueue<FrameBuffer> freeBuffers;
+    private final BlockingQueue<FrameBuffer> presentQueue;
+    private final FramePresenter presenter;
+    private final Vector4f clearColor;
+    private final float clearDepth;
+    private final Thread presentThread;
+
+    private volatile long frameIntervalNanos = 0;
+    private volatile boolean closed = false;
+    private volatile Throwable presentFailure;
+    private volatile long presentedFrameCount;
+
+    private SwapChain(FrameBuffer[] buffers, FramePresenter presenter, Vector4f clearColor, float clearDepth) {
+        this.buffers = buffers;
+        this.freeBuffers = new ArrayBlockingQueue<>(buffers.length);
+        this.presentQueue = new ArrayBlockingQueue<>(buffers.length);
+        this.presenter = presenter;
+        this.clearColor = clearColor != null ? new Vector4f(clearColor) : null;
+        this.clearDepth = clearDepth;
+        for (FrameBuffer buffer : buffers) {
+            freeBuffers.add(buffer);
+        }
+        this.presentThread = new Thread(this::runPresentLoop, "PresentThread");
+        this.presentThread.setDaemon(true);
+        this.presentThread.start();
+    }
+
+    public static SwapChain create(
+            int width,
+            int height,
+            int bufferCount,
+            Vector4f clearColor,
+            float clearDepth,
+            FramePresenter presenter
+    ) {
+        Objects.requireNonNull(presenter, "FramePresenter cannot be null.");
+        if (bufferCount < MIN_BUFFER_COUNT || bufferCount > MAX_BUFFER_COUNT) {
+            throw new IllegalArgumentException("Buffer count must be between " + MIN_BUFFER_COUNT
+                    + " and " + MAX_BUFFER_COUNT + ": " + bufferCount);
+        }
+        FrameBuffer[] buffers = new FrameBuffer[bufferCount];
+        for (int i = 0; i < bufferCount; i++) {
+            buffers[i] = FrameBuffer.create(width, height, clearColor, clearDepth);
+        }
+        return new SwapChain(buffers, presenter, clearColor, clearDepth);
+    }
+
+    public int getBufferCount() { return buffers.length; }
+    public int getWidth() { return buffers[0].getWidth(); }
+    public int getHeight() { return buffers[0].getHeight(); }
+    public long getPresentedFrameCount() { return presentedFrameCount; }
+
+    // 0 (the default) presents frames as soon as they are queued.
+    public void setTargetFrameRate(int framesPerSecond) {
+        if (framesPerSecond < 0) {
+            throw new IllegalArgumentException("Target frame rate cannot be negative: " + framesPerSecond);
+        }
+        this.frameIntervalNanos = framesPerSecond == 0 ? 0 : 1_000_000_000L / framesPerSecond;
+    }
+
+    // Blocks until a buffer is free and returns it cleared. Rethrows a failure of the presenter.
+    public FrameBuffer acquire() throws InterruptedException {
+        checkState();
+        FrameBuffer buffer = freeBuffers.take();
+        checkState();
+        buffer.clear(clearColor, clearDepth);
+        return buffer;
+    }
+
+    public void present(FrameBuffer frame) {
+        Objects.requireNonNull(frame, "FrameBuffer cannot be null.");
+        if (!owns(frame)) {
+            throw new IllegalArgumentException("FrameBuffer does not belong to this SwapChain.");
+        }
+        checkState();
+        // Cannot block: at most every buffer is queued at once.
+        presentQueue.add(frame);
+    }
+
+    // Stops the present thread; frames still queued are not presented.
+    @Override
+    public void close() {
+        closed = true;
+        presentThread.interrupt();
+        try {
+            presentThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean owns(FrameBuffer frame) {
+        for (FrameBuffer buffer : buffers) {
+            if (buffer == frame) return true;
+        }
+        return false;
+    }
+
+    private void checkState() {
+        if (closed) {
+            throw new IllegalStateException("SwapChain is closed.");
+        }
+        if (presentFailure != null) {
+            throw new IllegalStateException("Presenting a frame failed.", presentFailure);
+        }
+    }
+
+    private void runPresentLoop() {
+        long nextPresentTime = System.nanoTime();
+        try {
+            while (!closed) {
+                FrameBuffer frame = presentQueue.take();
+
+                long interval = frameIntervalNanos;
+                if (interval > 0) {
+                    long now = System.nanoTime();
+                    // Do not try to catch up after a stall; that would present a burst of frames.
+                    if (nextPresentTime < now - interval) nextPresentTime = now;
+                    while ((now = System.nanoTime()) < nextPresentTime) {
+                        LockSupport.parkNanos(nextPresentTime - now);
+                        if (closed) return;
+                    }
+                    nextPresentTime += interval;
+                }
+
+                presenter.present(frame);
+                presentedFrameCount++;
+                freeBuffers.add(frame);
+            }
+        } catch (InterruptedException e) {
+            // close() was called.
+        } catch (Throwable e) {
+            presentFailure = e;
+        } finally {
+            // Unblock a renderer waiting in acquire() so that it sees the failure or the closed state.
+            for (FrameBuffer buffer : buffers) {
+                if (!freeBuffers.contains(buffer)) freeBuffers.offer(buffer);
+            }
+        }
+    }
+}
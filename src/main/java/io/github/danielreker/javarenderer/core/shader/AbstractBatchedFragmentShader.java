@@ -0,0 +1,9 @@
+package io.github.danielreker.javarenderer.core.shader;
+
+import io.github.danielreker.javarenderer.core.shader.io.FragmentShaderIoBase;
+
+// Fragment shader invoked once per block of fragments instead of once per fragment. IO declares the
+// varyings and uniforms exactly as for AbstractFragmentShader; see FragmentBatch for how they are accessed.
+public abstract class AbstractBatchedFragmentShader<IO extends FragmentShaderIoBase> {
+    public abstract void main(FragmentBatch<IO> batch);
+}
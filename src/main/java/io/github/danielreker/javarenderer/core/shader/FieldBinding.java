@@ -0,0 +1,125 @@
+package io.github.danielreker.javarenderer.core.shader;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+final class FieldBinding {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType FLOAT_GETTER_TYPE = MethodType.methodType(float.class, Object.class);
+    private static final MethodType FLOAT_SETTER_TYPE = MethodType.methodType(void.class, Object.class, float.class);
+
+    private final String name;
+    private final Class<?> type;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    private final MethodHandle floatGetter;
+    private final MethodHandle floatSetter;
+
+    private FieldBinding(
+            String name, Class<?> type,
+            MethodHandle getter, MethodHandle setter,
+            MethodHandle floatGetter, MethodHandle floatSetter
+    ) {
+        this.name = name;
+        this.type = type;
+        this.getter = getter;
+        this.setter = setter;
+        this.floatGetter = floatGetter;
+        this.floatSetter = floatSetter;
+    }
+
+    static FieldBinding of(Field field) {
+        try {
+            field.setAccessible(true);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle rawGetter = lookup.unreflectGetter(field);
+            MethodHandle rawSetter = lookup.unreflectSetter(field);
+            MethodHandle floatGetter = null;
+            MethodHandle floatSetter = null;
+            if (isFloatType(field.getType())) {
+                floatGetter = rawGetter.asType(FLOAT_GETTER_TYPE);
+                floatSetter = rawSetter.asType(FLOAT_SETTER_TYPE);
+            }
+            return new FieldBinding(field.getName(), field.getType(),
+                    rawGetter.asType(GETTER_TYPE), rawSetter.asType(SETTER_TYPE), floatGetter, floatSetter);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot bind field '" + field.getName() + "' of "
+                    + field.getDeclaringClass().getSimpleName(), e);
+        }
+    }
+
+    String getName() { return name; }
+    Class<?> getType() { return type; }
+
+    Object get(Object instance) {
+        try {
+            return (Object) getter.invokeExact(instance);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    void set(Object instance, Object value) {
+        try {
+            setter.invokeExact(instance, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    float getFloat(Object instance) {
+        try {
+            return (float) floatGetter.invokeExact(instance);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    void setFloat(Object instance, float value) {
+        try {
+            floatSetter.invokeExact(instance, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    boolean accepts(Class<?> valueType) {
+        return isCompatibleType(type, valueType);
+    }
+
+    static boolean isFloatType(Class<?> type) {
+        return type == float.class || type == Float.class;
+    }
+
+    static boolean isCompatibleType(Class<?> fieldType, Class<?> valueType) {
+        if (fieldType.isAssignableFrom(valueType)) return true;
+        if (fieldType.isPrimitive()) {
+            return getWrapperClass(fieldType).isAssignableFrom(valueType);
+        }
+        if (valueType.isPrimitive()) {
+            return fieldType.isAssignableFrom(getWrapperClass(valueType));
+        }
+        return false;
+    }
+
+    private static Class<?> getWrapperClass(Class<?> primitiveClass) {
+        if (primitiveClass == int.class) return Integer.class;
+        if (primitiveClass == float.class) return Float.class;
+        if (primitiveClass == boolean.class) return Boolean.class;
+        if (primitiveClass == double.class) return Double.class;
+        if (primitiveClass == char.class) return Character.class;
+        if (primitiveClass == byte.class) return Byte.class;
+        if (primitiveClass == short.class) return Short.class;
+        if (primitiveClass == long.class) return Long.class;
+        return primitiveClass;
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException runtimeException) return runtimeException;
+        if (e instanceof Error error) throw error;
+        return new IllegalStateException("Field binding invocation failed", e);
+    }
+}
@@ -0,0 +1,184 @@
+package io.github.danielreker.javarenderer.core.shader;
+
+import io.github.danielreker.javarenderer.core.shader.io.FragmentShaderIoBase;
+import io.github.danielreker.javarenderer.core.shader.io.VertexShaderIoBase;
+
+import java.util.Arrays;
+
+// The fragments of one triangle in an aligned 8x8 block, as structure-of-arrays lanes; lane i is pixel
+// (originX + i % WIDTH, originY + i / WIDTH). Lanes outside the coverage mask hold values extrapolated from
+// the triangle's plane, so dFdx and dFdy work on 2x2 quads at its edges. Unwritten lanes keep the color
+// (0, 0, 0, 1). A batch is reused for every block of its thread; shaders must not keep references to it.
+public final class FragmentBatch<IO extends FragmentShaderIoBase> {
+    public static final int WIDTH = 8;
+    public static final int HEIGHT = 8;
+    public static final int SIZE = WIDTH * HEIGHT;
+
+    private final ShaderProgram<?, IO> program;
+    private final VaryingInterpolator varyingInterpolator;
+    private final IO io;
+
+    private final float[] b0 = new float[SIZE];
+    private final float[] b1 = new float[SIZE];
+    private final float[] b2 = new float[SIZE];
+    private final float[] perspectiveCorrection = new float[SIZE];
+    private final float[] fragCoordZ = new float[SIZE];
+    private final float[][] varyings;
+    private boolean varyingsInterpolated;
+
+    private final float[] red = new float[SIZE];
+    private final float[] green = new float[SIZE];
+    private final float[] blue = new float[SIZE];
+    private final float[] alpha = new float[SIZE];
+    private final float[] fragDepth = new float[SIZE];
+
+    private int originX, originY;
+    private long coverageMask;
+    private long discardMask;
+    private long fragDepthMask;
+    private float[] triangleVaryings;
+    private VertexShaderIoBase provokingVertex;
+    private UniformSnapshot uniforms;
+
+    FragmentBatch(ShaderProgram<?, IO> program, IO io) {
+        this.program = program;
+        this.varyingInterpolator = program.getVaryingInterpolator();
+        this.io = io;
+        this.varyings = new float[varyingInterpolator.getComponentCount()][SIZE];
+    }
+
+    // Called by the rasterizer: begin once per block, then setFragment for every lane. A null snapshot
+    // stands for the program's current uniform values.
+    public void begin(
+            int originX, int originY,
+            float[] triangleVaryings, VertexShaderIoBase provokingVertex,
+            UniformSnapshot uniforms
+    ) {
+        this.originX = originX;
+        this.originY = originY;
+        this.triangleVaryings = triangleVaryings;
+        this.provokingVertex = provokingVertex;
+        this.uniforms = uniforms;
+        this.coverageMask = 0;
+        this.discardMask = 0;
+        this.fragDepthMask = 0;
+        this.varyingsInterpolated = false;
+        Arrays.fill(red, 0.0f);
+        Arrays.fill(green, 0.0f);
+        Arrays.fill(blue, 0.0f);
+        Arrays.fill(alpha, 1.0f);
+    }
+
+    public void setFragment(
+            int lane,
+            float b0, float b1, float b2,
+            float perspectiveCorrection,
+            float depth,
+            boolean covered
+    ) {
+        this.b0[lane] = b0;
+        this.b1[lane] = b1;
+        this.b2[lane] = b2;
+        this.perspectiveCorrection[lane] = perspectiveCorrection;
+        this.fragCoordZ[lane] = depth;
+        if (covered) {
+            coverageMask |= 1L << lane;
+        }
+    }
+
+    // Refreshes uniforms and flat varyings of the shared IO; called by the program before the shader runs.
+    void prepare() {
+        program.populateFragmentUniforms(io, uniforms);
+        varyingInterpolator.interpolateFlat(provokingVertex, io);
+    }
+
+    public int getOriginX() { return originX; }
+    public int getOriginY() { return originY; }
+    public long getCoverageMask() { return coverageMask; }
+    public long getDiscardMask() { return discardMask; }
+    public long getFragDepthMask() { return fragDepthMask; }
+
+    public boolean isCovered(int lane) {
+        return (coverageMask & (1L << lane)) != 0;
+    }
+
+    public IO getIo() { return io; }
+
+    public float getFragCoordX(int lane) { return originX + (lane % WIDTH) + 0.5f; }
+    public float getFragCoordY(int lane) { return originY + (lane / WIDTH) + 0.5f; }
+    public float getFragCoordZ(int lane) { return fragCoordZ[lane]; }
+
+    public float getFragCoordW(int lane) {
+        return perspectiveCorrection[lane] * perspectiveCorrection[lane];
+    }
+
+    // Component c of a vector varying is read from getVaryingLanes(offset + c).
+    public int getVaryingOffset(String name) {
+        return varyingInterpolator.getComponentOffset(name);
+    }
+
+    // Varyings are interpolated for the whole batch on first access, so shaders that never read them
+    // (e.g. through PerFragmentShaderAdapter) do not pay for it.
+    public float[] getVaryingLanes(int component) {
+        if (!varyingsInterpolated) {
+            varyingInterpolator.interpolateLanes(triangleVaryings, b0, b1, b2, perspectiveCorrection, SIZE, varyings);
+            varyingsInterpolated = true;
+        }
+        return varyings[component];
+    }
+
+    // Differences within the 2x2 quad that contains the lane, as a GPU computes them.
+    public static float dFdx(float[] lanes, int lane) {
+        return lanes[lane | 1] - lanes[lane & ~1];
+    }
+
+    public static float dFdy(float[] lanes, int lane) {
+        return lanes[lane | WIDTH] - lanes[lane & ~WIDTH];
+    }
+
+    public void setColor(int lane, float r, float g, float b, float a) {
+        red[lane] = r;
+        green[lane] = g;
+        blue[lane] = b;
+        alpha[lane] = a;
+    }
+
+    public void discard(int lane) {
+        discardMask |= 1L << lane;
+    }
+
+    public void setFragDepth(int lane, float depth) {
+        fragDepth[lane] = depth;
+        fragDepthMask |= 1L << lane;
+    }
+
+    public float getRed(int lane) { return red[lane]; }
+    public float getGreen(int lane) { return green[lane]; }
+    public float getBlue(int lane) { return blue[lane]; }
+    public float getAlpha(int lane) { return alpha[lane]; }
+
+    // The depth to store for a lane: gl_FragDepth if the shader wrote it, the interpolated depth otherwise.
+    public float getOutputDepth(int lane) {
+        return (fragDepthMask & (1L << lane)) != 0 ? fragDepth[lane] : fragCoordZ[lane];
+    }
+
+    // Per-fragment access, used by PerFragmentShaderAdapter.
+    public IO prepareFragmentIo(int lane) {
+        IO fsIo = program.createAndPrepareFragmentIO(uniforms,
+                getFragCoordX(lane), getFragCoordY(lane), getFragCoordZ(lane), getFragCoordW(lane));
+        varyingInterpolator.interpolate(triangleVaryings, provokingVertex,
+                b0[lane], b1[lane], b2[lane], perspectiveCorrection[lane], fsIo);
+        return fsIo;
+    }
+
+    public void storeFragmentIo(int lane, IO fsIo) {
+        if (fsIo.discarded) {
+            discard(lane);
+            return;
+        }
+        setColor(lane, fsIo.gl_FragColor.x, fsIo.gl_FragColor.y, fsIo.gl_FragColor.z, fsIo.gl_FragColor.w);
+        if (fsIo.gl_FragDepth != null) {
+            setFragDepth(lane, fsIo.gl_FragDepth);
+        }
+    }
+}
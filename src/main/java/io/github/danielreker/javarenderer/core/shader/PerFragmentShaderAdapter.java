@@ -0,0 +1,27 @@
+package io.github.danielreker.javarenderer.core.shader;
+
+import io.github.danielreker.javarenderer.core.shader.io.FragmentShaderIoBase;
+
+import java.util.Objects;
+
+// Runs a per-fragment shader over a batch, one prepared IO per covered fragment. A program created with an
+// adapter takes the batched raster path; one created with the shader itself is shaded pixel by pixel.
+public final class PerFragmentShaderAdapter<IO extends FragmentShaderIoBase> extends AbstractBatchedFragmentShader<IO> {
+    private final AbstractFragmentShader<IO> shader;
+
+    public PerFragmentShaderAdapter(AbstractFragmentShader<IO> shader) {
+        this.shader = Objects.requireNonNull(shader, "Fragment shader cannot be null.");
+    }
+
+    public AbstractFragmentShader<IO> getShader() { return shader; }
+
+    @Override
+    public void main(FragmentBatch<IO> batch) {
+        for (long mask = batch.getCoverageMask(); mask != 0; mask &= mask - 1) {
+            int lane = Long.numberOfTrailingZeros(mask);
+            IO io = batch.prepareFragmentIo(lane);
+            shader.main(io);
+            batch.storeFragmentIo(lane, io);
+        }
+    }
+}
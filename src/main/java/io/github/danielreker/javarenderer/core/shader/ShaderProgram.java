@@ -1,29 +1,53 @@
 package io.github.danielreker.javarenderer.core.shader;
 
+import io.github.danielreker.javarenderer.core.container.AbstractVertexBuffer;
+import io.github.danielreker.javarenderer.core.container.LayoutVertexBuffer;
+import io.github.danielreker.javarenderer.core.container.VertexBuffer;
 import io.github.danielreker.javarenderer.core.shader.annotations.Attribute;
+import io.github.danielreker.javarenderer.core.shader.annotations.MayDiscard;
 import io.github.danielreker.javarenderer.core.shader.annotations.Uniform;
 import io.github.danielreker.javarenderer.core.shader.annotations.Varying;
+import io.github.danielreker.javarenderer.core.shader.annotations.WritesFragDepth;
 import io.github.danielreker.javarenderer.core.shader.io.FragmentShaderIoBase;
 import io.github.danielreker.javarenderer.core.shader.io.VertexShaderIoBase;
+import io.github.danielreker.javarenderer.core.texture.Sampler;
+import io.github.danielreker.javarenderer.core.texture.Texture2D;
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
 import org.joml.Vector4f;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.util.*;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class ShaderProgram<V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase> {
 
+    private static final MethodType IO_CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
     private final AbstractVertexShader<V_IO> vertexShader;
     private final Class<V_IO> vertexIoClass;
-    private final Constructor<V_IO> vertexIoConstructor;
+    private final MethodHandle vertexIoConstructor;
 
     private final AbstractFragmentShader<F_IO> fragmentShader;
+    private final AbstractBatchedFragmentShader<F_IO> batchedFragmentShader;
     private final Class<F_IO> fragmentIoClass;
-    private final Constructor<F_IO> fragmentIoConstructor;
+    private final MethodHandle fragmentIoConstructor;
 
-    private final Map<String, Object> uniformValues = new HashMap<>();
+    // Uniform locations index these arrays; a name declared by both shaders shares one location.
+    private final Map<String, Integer> uniformLocations = new HashMap<>();
+    private final Field[] vertexUniformFields;
+    private final Field[] fragmentUniformFields;
+    private final Object[] uniformValues;
+    private final int[] vertexUniformBindingLocations;
+    private final int[] fragmentUniformBindingLocations;
 
     private final Map<String, Field> vertexShaderAttributeInputFields = new HashMap<>();
     private final Map<String, Field> vertexShaderUniformInputFields = new HashMap<>();
@@ -31,27 +55,114 @@ public class ShaderProgram<V_IO extends VertexShaderIoBase, F_IO extends Fragmen
     private final Map<String, Field> fragmentShaderVaryingInputFields = new HashMap<>();
     private final Map<String, Field> fragmentShaderUniformInputFields = new HashMap<>();
 
+    private final List<FieldBinding> vertexAttributeBindings = new ArrayList<>();
+    private final FieldBinding[] vertexUniformBindings;
+    private final FieldBinding[] fragmentUniformBindings;
+    private final VaryingInterpolator varyingInterpolator;
+
+    private volatile boolean earlyDepthRejectionAllowed;
+    private volatile boolean ioReuse = false;
+    private final ThreadLocal<F_IO> fragmentIoScratch = new ThreadLocal<>();
+    private final ThreadLocal<FragmentBatch<F_IO>> fragmentBatches = new ThreadLocal<>();
+    private final ThreadLocal<VertexIoPool<V_IO>> vertexIoPools = ThreadLocal.withInitial(VertexIoPool::new);
+    private final LongAdder vertexIoAllocations = new LongAdder();
+    private final LongAdder fragmentIoAllocations = new LongAdder();
+
+    private final ClassValue<VertexAttributeBinding> linkedVertexClasses = new ClassValue<>() {
+        @Override
+        protected VertexAttributeBinding computeValue(Class<?> vertexClass) {
+            return VertexAttributeBinding.link(vertexClass, null, vertexAttributeBindings, vertexIoClass);
+        }
+    };
+
+    private final ClassValue<ClassValue<VertexAttributeBinding>> linkedInstancedClasses = new ClassValue<>() {
+        @Override
+        protected ClassValue<VertexAttributeBinding> computeValue(Class<?> vertexClass) {
+            return new ClassValue<>() {
+                @Override
+                protected VertexAttributeBinding computeValue(Class<?> instanceClass) {
+                    return VertexAttributeBinding.link(vertexClass, instanceClass, vertexAttributeBindings, vertexIoClass);
+                }
+            };
+        }
+    };
+
 
+    // Bindings for draws that involve a LayoutVertexBuffer, keyed by vertex source and then instance source
+    // (a Class or a VertexLayout, NO_INSTANCE_SOURCE when not instanced).
+    private static final Object NO_INSTANCE_SOURCE = new Object();
+    private final ConcurrentMap<Object, ConcurrentMap<Object, VertexAttributeBinding>> linkedLayouts =
+            new ConcurrentHashMap<>();
+
+
+    // Exactly one of fs and batchedFs is not null.
     @SuppressWarnings("unchecked")
-    private ShaderProgram(AbstractVertexShader<V_IO> vs, AbstractFragmentShader<F_IO> fs) {
+    private ShaderProgram(
+            AbstractVertexShader<V_IO> vs,
+            AbstractFragmentShader<F_IO> fs,
+            AbstractBatchedFragmentShader<F_IO> batchedFs
+    ) {
         this.vertexShader = Objects.requireNonNull(vs, "Vertex shader cannot be null");
-        this.fragmentShader = Objects.requireNonNull(fs, "Fragment shader cannot be null");
+        this.fragmentShader = fs;
+        this.batchedFragmentShader = batchedFs;
+
+        // An adapted per-fragment shader declares its IO type and annotations on the wrapped shader.
+        Class<?> fragmentShaderClass = fs != null ? fs.getClass()
+                : batchedFs instanceof PerFragmentShaderAdapter<?> adapter ? adapter.getShader().getClass()
+                : batchedFs.getClass();
 
         this.vertexIoClass = (Class<V_IO>)
                 ((ParameterizedType) vs.getClass().getGenericSuperclass()).getActualTypeArguments()[0];
         this.fragmentIoClass = (Class<F_IO>)
-                ((ParameterizedType) fs.getClass().getGenericSuperclass()).getActualTypeArguments()[0];
+                ((ParameterizedType) fragmentShaderClass.getGenericSuperclass()).getActualTypeArguments()[0];
+
+        this.earlyDepthRejectionAllowed = !fragmentShaderClass.isAnnotationPresent(WritesFragDepth.class)
+                && !fragmentShaderClass.isAnnotationPresent(MayDiscard.class);
+
+        this.vertexIoConstructor = findConstructor(vertexIoClass);
+        this.fragmentIoConstructor = findConstructor(fragmentIoClass);
 
+        cacheFields();
+
+        vertexShaderAttributeInputFields.values().forEach(field -> vertexAttributeBindings.add(FieldBinding.of(field)));
+        this.vertexUniformBindings = vertexShaderUniformInputFields.values().stream()
+                .map(FieldBinding::of)
+                .toArray(FieldBinding[]::new);
+        this.fragmentUniformBindings = fragmentShaderUniformInputFields.values().stream()
+                .map(FieldBinding::of)
+                .toArray(FieldBinding[]::new);
+
+        SortedSet<String> uniformNames = new TreeSet<>(vertexShaderUniformInputFields.keySet());
+        uniformNames.addAll(fragmentShaderUniformInputFields.keySet());
+        this.vertexUniformFields = new Field[uniformNames.size()];
+        this.fragmentUniformFields = new Field[uniformNames.size()];
+        this.uniformValues = new Object[uniformNames.size()];
+        for (String name : uniformNames) {
+            int location = uniformLocations.size();
+            uniformLocations.put(name, location);
+            vertexUniformFields[location] = vertexShaderUniformInputFields.get(name);
+            fragmentUniformFields[location] = fragmentShaderUniformInputFields.get(name);
+        }
+        this.vertexUniformBindingLocations = Arrays.stream(vertexUniformBindings)
+                .mapToInt(binding -> uniformLocations.get(binding.getName()))
+                .toArray();
+        this.fragmentUniformBindingLocations = Arrays.stream(fragmentUniformBindings)
+                .mapToInt(binding -> uniformLocations.get(binding.getName()))
+                .toArray();
+        this.varyingInterpolator = VaryingInterpolator.link(vertexShaderVaryingOutputFields,
+                fragmentShaderVaryingInputFields.values().stream().filter(this::isLinkableVarying).toList());
+    }
+
+    private static MethodHandle findConstructor(Class<?> ioClass) {
         try {
-            this.vertexIoConstructor = this.vertexIoClass.getDeclaredConstructor();
-            this.vertexIoConstructor.setAccessible(true);
-            this.fragmentIoConstructor = this.fragmentIoClass.getDeclaredConstructor();
-            this.fragmentIoConstructor.setAccessible(true);
+            Constructor<?> constructor = ioClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(constructor).asType(IO_CONSTRUCTOR_TYPE);
         } catch (NoSuchMethodException e) {
             throw new IllegalArgumentException("Shader I/O classes must have a no-arg constructor.", e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access no-arg constructor of " + ioClass.getSimpleName(), e);
         }
-
-        cacheFields();
     }
 
     private void cacheFields() {
@@ -97,114 +208,287 @@ public class ShaderProgram<V_IO extends VertexShaderIoBase, F_IO extends Fragmen
                 });
     }
 
+    private boolean isLinkableVarying(Field fragmentField) {
+        Field vertexField = vertexShaderVaryingOutputFields.get(fragmentField.getName());
+        if (vertexField == null) return false;
+        if (!FieldBinding.isCompatibleType(fragmentField.getType(), vertexField.getType())) {
+            System.err.println("Warning: Type mismatch for varying '" + fragmentField.getName() +
+                    "'. Fragment shader expects " + fragmentField.getType().getSimpleName() +
+                    ", vertex shader outputs " + vertexField.getType().getSimpleName() + ". Skipping.");
+            return false;
+        }
+        return true;
+    }
+
 
     public static <V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase>
     ShaderProgram<V_IO, F_IO> create(AbstractVertexShader<V_IO> vs, AbstractFragmentShader<F_IO> fs) {
-        return new ShaderProgram<>(vs, fs);
+        return new ShaderProgram<>(vs, Objects.requireNonNull(fs, "Fragment shader cannot be null"), null);
+    }
+
+    public static <V_IO extends VertexShaderIoBase, F_IO extends FragmentShaderIoBase>
+    ShaderProgram<V_IO, F_IO> create(AbstractVertexShader<V_IO> vs, AbstractBatchedFragmentShader<F_IO> fs) {
+        return new ShaderProgram<>(vs, null, Objects.requireNonNull(fs, "Fragment shader cannot be null"));
+    }
+
+    // Location of a @Uniform declared by either shader, or -1 if there is none; setting location -1 is a no-op.
+    // Locations stay valid for the lifetime of the program.
+    public int getUniformLocation(String name) {
+        Integer location = uniformLocations.get(name);
+        return location != null ? location : -1;
     }
 
     public <T> void setUniform(String name, T value) {
-        uniformValues.put(name, value);
+        setUniformValue(getUniformLocation(name), value);
     }
 
+    public void setUniform(int location, Matrix4f value) { setUniformValue(location, value); }
+    public void setUniform(int location, Vector4f value) { setUniformValue(location, value); }
+    public void setUniform(int location, Vector3f value) { setUniformValue(location, value); }
+    public void setUniform(int location, Vector2f value) { setUniformValue(location, value); }
+    public void setUniform(int location, float value) { setUniformValue(location, value); }
+    public void setUniform(int location, int value) { setUniformValue(location, value); }
+    public void setUniform(int location, boolean value) { setUniformValue(location, value); }
+    // Textures and samplers are immutable, so draws keep a reference instead of a copy.
+    public void setUniform(int location, Texture2D value) { setUniformValue(location, value); }
+    public void setUniform(int location, Sampler value) { setUniformValue(location, value); }
+
+    private void setUniformValue(int location, Object value) {
+        if (location == -1) return;
+        Objects.checkIndex(location, uniformValues.length);
+        if (value != null) {
+            boolean vertexCompatible = isUniformValueCompatible(vertexUniformFields[location], value);
+            boolean fragmentCompatible = isUniformValueCompatible(fragmentUniformFields[location], value);
+            if (!vertexCompatible || !fragmentCompatible) return;
+        }
+        synchronized (uniformValues) {
+            uniformValues[location] = value;
+        }
+    }
+
+    // Captures the current uniform values. Every draw takes one when it starts, so uniforms set while a draw
+    // is running, or after it was recorded into a CommandBuffer, do not affect it.
+    public UniformSnapshot snapshotUniforms() {
+        synchronized (uniformValues) {
+            return new UniformSnapshot(this, uniformValues);
+        }
+    }
+
+    private boolean isUniformValueCompatible(Field field, Object value) {
+        if (field == null || FieldBinding.isCompatibleType(field.getType(), value.getClass())) return true;
+        System.err.println("Warning: Type mismatch for uniform '" + field.getName() +
+                "'. Expected " + field.getType().getSimpleName() +
+                ", got " + value.getClass().getSimpleName() + ". Skipping.");
+        return false;
+    }
+
+    // Reuses one fragment IO per rendering thread and a per-thread pool of vertex IOs, one per vertex of the
+    // draw. Shaders must then not keep the IO or anything reachable from it after main returns, must write
+    // outputs into the vectors the IO already holds, and must write every varying on every invocation. Vertex
+    // IOs of a draw stay valid until the same thread starts its next draw with this program.
+    public void setIoReuse(boolean ioReuse) {
+        this.ioReuse = ioReuse;
+    }
+
+    public boolean isIoReuse() { return ioReuse; }
+
+    public long getVertexIoAllocationCount() { return vertexIoAllocations.sum(); }
+    public long getFragmentIoAllocationCount() { return fragmentIoAllocations.sum(); }
+
+    public void resetIoAllocationCounts() {
+        vertexIoAllocations.reset();
+        fragmentIoAllocations.reset();
+    }
+
+    // False when the fragment shader is annotated with @WritesFragDepth or @MayDiscard, or has been seen
+    // writing gl_FragDepth or discarding; hierarchical Z rejection is then skipped for this program.
+    public boolean isEarlyDepthRejectionAllowed() { return earlyDepthRejectionAllowed; }
+
+    public void disableEarlyDepthRejection() {
+        earlyDepthRejectionAllowed = false;
+    }
+
+    public void linkVertexClass(Class<?> vertexClass) {
+        linkedVertexClasses.get(vertexClass);
+    }
+
+
+    public VertexIoPool<V_IO> acquireVertexIoPool(int vertexCount) {
+        if (!ioReuse) return null;
+        VertexIoPool<V_IO> pool = vertexIoPools.get();
+        pool.ensureCapacity(vertexCount);
+        return pool;
+    }
 
     public V_IO createAndPrepareVertexIO(Object vertexObject) {
-        try {
-            V_IO vsIo = vertexIoConstructor.newInstance();
-
-            populateFields(vsIo, vertexShaderAttributeInputFields.values(),
-                    field -> {
-                        try {
-                            Field sourceField = vertexObject.getClass().getDeclaredField(field.getName());
-                            sourceField.setAccessible(true);
-                            return sourceField.get(vertexObject);
-                        } catch (NoSuchFieldException e) {
-                            System.err.println("Warning: Attribute '" + field.getName()
-                                    + "' not found in vertex object " + vertexObject.getClass().getSimpleName());
-                            return null;
-                        } catch (IllegalAccessException e) {
-                            System.err.println("Warning: Failed to get '" + field.getName()
-                                    + "' value via reflection from vertex object"
-                                    + vertexObject.getClass().getSimpleName());
-                            return null;
-                        }
-                    });
-
-            populateFields(vsIo, vertexShaderUniformInputFields.values(),
-                    field -> uniformValues.get(field.getName()));
-
-            return vsIo;
-        } catch (ReflectiveOperationException e) {
-            System.err.println("Warning: Reflective operation failed: " + e.getMessage());
-            return null;
-        }
-    }
-
-    public F_IO createAndPrepareFragmentIO(Map<String, Object> interpolatedVaryings, Vector4f fragmentCoordinates) {
-        try {
-            F_IO fsIo = fragmentIoConstructor.newInstance();
+        return createAndPrepareVertexIO(vertexObject, null, 0, null, 0);
+    }
 
-            populateFields(fsIo, fragmentShaderVaryingInputFields.values(),
-                    field -> interpolatedVaryings.get(field.getName()));
+    public V_IO createAndPrepareVertexIO(
+            Object vertexObject,
+            Object instanceObject,
+            int instanceId,
+            VertexIoPool<V_IO> ioPool,
+            int slot
+    ) {
+        return createAndPrepareVertexIO(vertexObject, instanceObject, instanceId, ioPool, slot, null);
+    }
 
-            populateFields(fsIo, fragmentShaderUniformInputFields.values(),
-                    field -> uniformValues.get(field.getName()));
+    private V_IO createAndPrepareVertexIO(
+            Object vertexObject,
+            Object instanceObject,
+            int instanceId,
+            VertexIoPool<V_IO> ioPool,
+            int slot,
+            UniformSnapshot uniforms
+    ) {
+        V_IO vsIo = obtainVertexIo(ioPool, slot);
+        VertexAttributeBinding attributeBinding = instanceObject == null
+                ? linkedVertexClasses.get(vertexObject.getClass())
+                : linkedInstancedClasses.get(vertexObject.getClass()).get(instanceObject.getClass());
+        attributeBinding.apply(vertexObject, 0, instanceObject, 0, vsIo, ioPool != null);
+        vsIo.gl_InstanceID = instanceId;
+        populateUniforms(vsIo, vertexUniformBindings, vertexUniformBindingLocations, uniforms);
+
+        return vsIo;
+    }
 
+    // Reads vertex vertexIndex of vertexBuffer and, when instanceBuffer is not null, element instanceId of
+    // instanceBuffer. Either buffer may be object-based (VertexBuffer) or column-based (LayoutVertexBuffer).
+    public V_IO createAndPrepareVertexIO(
+            AbstractVertexBuffer vertexBuffer,
+            int vertexIndex,
+            AbstractVertexBuffer instanceBuffer,
+            int instanceId,
+            VertexIoPool<V_IO> ioPool,
+            int slot
+    ) {
+        return createAndPrepareVertexIO(vertexBuffer, vertexIndex, instanceBuffer, instanceId, ioPool, slot, null);
+    }
+
+    // As above, with uniforms taken from a snapshot of this program instead of the current values.
+    public V_IO createAndPrepareVertexIO(
+            AbstractVertexBuffer vertexBuffer,
+            int vertexIndex,
+            AbstractVertexBuffer instanceBuffer,
+            int instanceId,
+            VertexIoPool<V_IO> ioPool,
+            int slot,
+            UniformSnapshot uniforms
+    ) {
+        checkSnapshot(uniforms);
+        Object vertexData = vertexBuffer instanceof VertexBuffer<?> objects ? objects.getVertex(vertexIndex) : vertexBuffer;
+        Object instanceData = instanceBuffer instanceof VertexBuffer<?> objects ? objects.getVertex(instanceId) : instanceBuffer;
+        if (!(vertexData instanceof LayoutVertexBuffer) && !(instanceData instanceof LayoutVertexBuffer)) {
+            return createAndPrepareVertexIO(vertexData, instanceData, instanceId, ioPool, slot, uniforms);
+        }
 
-            fsIo.gl_FragCoord = fragmentCoordinates;
+        V_IO vsIo = obtainVertexIo(ioPool, slot);
+        VertexAttributeBinding attributeBinding = linkedLayouts
+                .computeIfAbsent(sourceOf(vertexData), key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(instanceData != null ? sourceOf(instanceData) : NO_INSTANCE_SOURCE,
+                        key -> VertexAttributeBinding.link(sourceOf(vertexData),
+                                key == NO_INSTANCE_SOURCE ? null : key, vertexAttributeBindings, vertexIoClass));
+        attributeBinding.apply(vertexData, vertexIndex, instanceData, instanceId, vsIo, ioPool != null);
+        vsIo.gl_InstanceID = instanceId;
+        populateUniforms(vsIo, vertexUniformBindings, vertexUniformBindingLocations, uniforms);
+
+        return vsIo;
+    }
 
-            return fsIo;
-        } catch (ReflectiveOperationException e) {
-            System.err.println("Warning: Reflective operation failed: " + e.getMessage());
-            return null;
+    private static Object sourceOf(Object data) {
+        return data instanceof LayoutVertexBuffer layoutBuffer ? layoutBuffer.getLayout() : data.getClass();
+    }
+
+    private V_IO obtainVertexIo(VertexIoPool<V_IO> ioPool, int slot) {
+        if (ioPool == null) {
+            return newVertexIo();
+        }
+        V_IO vsIo = ioPool.get(slot);
+        if (vsIo == null) {
+            vsIo = newVertexIo();
+            ioPool.set(slot, vsIo);
+        } else {
+            vsIo.resetBuiltIns();
         }
+        return vsIo;
     }
 
-    private void populateFields(
-            Object ioInstance,
-            Collection<Field> fields,
-            Function<Field, Object> getFieldValue
+    public F_IO createAndPrepareFragmentIO(float fragCoordX, float fragCoordY, float fragCoordZ, float fragCoordW) {
+        return createAndPrepareFragmentIO(null, fragCoordX, fragCoordY, fragCoordZ, fragCoordW);
+    }
+
+    public F_IO createAndPrepareFragmentIO(
+            UniformSnapshot uniforms,
+            float fragCoordX, float fragCoordY, float fragCoordZ, float fragCoordW
     ) {
-                fields.forEach(field -> {
-                    field.setAccessible(true);
-                    Object value = getFieldValue.apply(field);
-                    if (value != null) {
-                        if (isCompatibleType(field.getType(), value.getClass())) {
-                            try {
-                                field.set(ioInstance, value);
-                            } catch (IllegalAccessException e) {
-                                System.err.println("Warning: Reflective operation failed: " + e.getMessage());
-                            }
-                        } else {
-                            System.err.println("Warning: Type mismatch for field '" + field.getName() +
-                                    "'. Expected " + field.getType().getSimpleName() +
-                                    ", got " + value.getClass().getSimpleName() + ". Skipping.");
-                        }
-                    }
-                });
+        checkSnapshot(uniforms);
+        F_IO fsIo;
+        if (ioReuse) {
+            fsIo = fragmentIoScratch.get();
+            if (fsIo == null) {
+                fsIo = newFragmentIo();
+                fragmentIoScratch.set(fsIo);
+            } else {
+                fsIo.resetBuiltIns();
+            }
+        } else {
+            fsIo = newFragmentIo();
+        }
+
+        populateFragmentUniforms(fsIo, uniforms);
+
+        fsIo.gl_FragCoord.set(fragCoordX, fragCoordY, fragCoordZ, fragCoordW);
+
+        return fsIo;
     }
 
-    private boolean isCompatibleType(Class<?> fieldType, Class<?> valueType) {
-        if (fieldType.isAssignableFrom(valueType)) return true;
-        if (fieldType.isPrimitive()) {
-            return getWrapperClass(fieldType).isAssignableFrom(valueType);
+    // A null snapshot stands for the current uniform values.
+    void populateFragmentUniforms(F_IO fsIo, UniformSnapshot uniforms) {
+        populateUniforms(fsIo, fragmentUniformBindings, fragmentUniformBindingLocations, uniforms);
+    }
+
+    private void checkSnapshot(UniformSnapshot uniforms) {
+        if (uniforms != null && uniforms.getProgram() != this) {
+            throw new IllegalArgumentException("Uniform snapshot was taken from a different ShaderProgram.");
         }
-        if (valueType.isPrimitive()) {
-            return fieldType.isAssignableFrom(getWrapperClass(valueType));
+    }
+
+    private void populateUniforms(
+            Object ioInstance,
+            FieldBinding[] uniformBindings,
+            int[] locations,
+            UniformSnapshot uniforms
+    ) {
+        Object[] values = uniforms != null ? uniforms.getValues() : uniformValues;
+        for (int i = 0; i < uniformBindings.length; i++) {
+            Object value = values[locations[i]];
+            if (value != null) {
+                uniformBindings[i].set(ioInstance, value);
+            }
         }
-        return false;
     }
 
-    private Class<?> getWrapperClass(Class<?> primitiveClass) {
-        if (primitiveClass == int.class) return Integer.class;
-        if (primitiveClass == float.class) return Float.class;
-        if (primitiveClass == boolean.class) return Boolean.class;
-        if (primitiveClass == double.class) return Double.class;
-        if (primitiveClass == char.class) return Character.class;
-        if (primitiveClass == byte.class) return Byte.class;
-        if (primitiveClass == short.class) return Short.class;
-        if (primitiveClass == long.class) return Long.class;
-        return primitiveClass;
+    @SuppressWarnings("unchecked")
+    private V_IO newVertexIo() {
+        vertexIoAllocations.increment();
+        return (V_IO) newInstance(vertexIoConstructor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private F_IO newFragmentIo() {
+        fragmentIoAllocations.increment();
+        return (F_IO) newInstance(fragmentIoConstructor);
+    }
+
+    private static Object newInstance(MethodHandle constructor) {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Shader I/O constructor failed", e);
+        }
     }
 
 
@@ -213,12 +497,37 @@ public class ShaderProgram<V_IO extends VertexShaderIoBase, F_IO extends Fragmen
     }
 
     public void executeFragmentShader(F_IO fsIo) {
+        if (fragmentShader == null) {
+            throw new IllegalStateException("The fragment shader of this program is batched; use executeFragmentBatch.");
+        }
         fragmentShader.main(fsIo);
     }
 
+    public boolean isFragmentShaderBatched() { return batchedFragmentShader != null; }
+
+    // The calling thread's batch; it is reused for every block the thread rasterizes with this program.
+    public FragmentBatch<F_IO> acquireFragmentBatch() {
+        FragmentBatch<F_IO> batch = fragmentBatches.get();
+        if (batch == null) {
+            batch = new FragmentBatch<>(this, newFragmentIo());
+            fragmentBatches.set(batch);
+        }
+        return batch;
+    }
+
+    public void executeFragmentBatch(FragmentBatch<F_IO> batch) {
+        if (batchedFragmentShader == null) {
+            throw new IllegalStateException("The fragment shader of this program is per-fragment; use executeFragmentShader.");
+        }
+        batch.prepare();
+        batchedFragmentShader.main(batch);
+    }
+
+    public VaryingInterpolator getVaryingInterpolator() { return varyingInterpolator; }
+
     public Map<String, Field> getVertexShaderVaryingOutputFields() { return Collections.unmodifiableMap(vertexShaderVaryingOutputFields); }
     public Map<String, Field> getFragmentShaderVaryingInputFields() { return Collections.unmodifiableMap(fragmentShaderVaryingInputFields); }
 
     public Class<V_IO> getVertexIoClass() { return vertexIoClass; }
     public Class<F_IO> getFragmentIoClass() { return fragmentIoClass; }
-}
\ No newline at end of file
+}
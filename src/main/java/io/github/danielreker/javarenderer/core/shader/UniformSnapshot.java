@@ -0,0 +1,38 @@
+package io.github.danielreker.javarenderer.core.shader;
+
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+// Uniform values of a program as they were when the snapshot was taken, indexed by uniform location.
+// Vectors and matrices are copied, so later setUniform calls, or changes to the objects that were passed
+// to them, do not affect it.
+public final class UniformSnapshot {
+    private final ShaderProgram<?, ?> program;
+    private final Object[] values;
+
+    UniformSnapshot(ShaderProgram<?, ?> program, Object[] liveValues) {
+        this.program = program;
+        this.values = new Object[liveValues.length];
+        for (int location = 0; location < liveValues.length; location++) {
+            values[location] = copyOf(liveValues[location]);
+        }
+    }
+
+    public ShaderProgram<?, ?> getProgram() { return program; }
+
+    public Object get(int location) {
+        return values[location];
+    }
+
+    Object[] getValues() { return values; }
+
+    private static Object copyOf(Object value) {
+        if (value instanceof Matrix4f m) return new Matrix4f(m);
+        if (value instanceof Vector4f v) return new Vector4f(v);
+        if (value instanceof Vector3f v) return new Vector3f(v);
+        if (value instanceof Vector2f v) return new Vector2f(v);
+        return value;
+    }
+}
@@ -0,0 +1,195 @@
+package io.github.danielreker.javarenderer.core.shader;
+
+import io.github.danielreker.javarenderer.core.shader.io.FragmentShaderIoBase;
+import io.github.danielreker.javarenderer.core.shader.io.VertexShaderIoBase;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Varyings are grouped by type when the program is linked, so interpolation is a fixed sequence of
+// monomorphic loops. Triangle data is component-major: data[3 * c + k] is component c of vertex k,
+// already divided by that vertex's clip w.
+public final class VaryingInterpolator {
+    private final FieldBinding[] vec4Sources, vec4Targets;
+    private final FieldBinding[] vec3Sources, vec3Targets;
+    private final FieldBinding[] vec2Sources, vec2Targets;
+    private final FieldBinding[] floatSources, floatTargets;
+    private final FieldBinding[] flatSources, flatTargets;
+    private final int componentCount;
+    private final Map<String, Integer> componentOffsets = new HashMap<>();
+
+    private VaryingInterpolator(List<FieldBinding[]> groups) {
+        this.vec4Sources = groups.get(0);
+        this.vec4Targets = groups.get(1);
+        this.vec3Sources = groups.get(2);
+        this.vec3Targets = groups.get(3);
+        this.vec2Sources = groups.get(4);
+        this.vec2Targets = groups.get(5);
+        this.floatSources = groups.get(6);
+        this.floatTargets = groups.get(7);
+        this.flatSources = groups.get(8);
+        this.flatTargets = groups.get(9);
+        this.componentCount = 4 * vec4Sources.length + 3 * vec3Sources.length
+                + 2 * vec2Sources.length + floatSources.length;
+
+        int offset = 0;
+        for (FieldBinding target : vec4Targets) { componentOffsets.put(target.getName(), offset); offset += 4; }
+        for (FieldBinding target : vec3Targets) { componentOffsets.put(target.getName(), offset); offset += 3; }
+        for (FieldBinding target : vec2Targets) { componentOffsets.put(target.getName(), offset); offset += 2; }
+        for (FieldBinding target : floatTargets) { componentOffsets.put(target.getName(), offset++); }
+    }
+
+    static VaryingInterpolator link(Map<String, Field> vertexOutputs, Collection<Field> fragmentInputs) {
+        List<List<FieldBinding>> groups = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (Field fragmentField : fragmentInputs) {
+            Field vertexField = vertexOutputs.get(fragmentField.getName());
+            Class<?> type = vertexField.getType();
+            int group;
+            if (type == Vector4f.class) group = 0;
+            else if (type == Vector3f.class) group = 2;
+            else if (type == Vector2f.class) group = 4;
+            else if (FieldBinding.isFloatType(type) && FieldBinding.isFloatType(fragmentField.getType())) group = 6;
+            else {
+                System.err.println("Warning: Varying '" + vertexField.getName() + "' of type " + type.getSimpleName()
+                        + " cannot be interpolated. Using value from first vertex.");
+                group = 8;
+            }
+            groups.get(group).add(FieldBinding.of(vertexField));
+            groups.get(group + 1).add(FieldBinding.of(fragmentField));
+        }
+        return new VaryingInterpolator(groups.stream().map(g -> g.toArray(new FieldBinding[0])).toList());
+    }
+
+    public int getComponentCount() { return componentCount; }
+
+    // Index of the first component of an interpolated varying, or -1 if the varying is flat or not linked.
+    public int getComponentOffset(String name) {
+        Integer offset = componentOffsets.get(name);
+        return offset != null ? offset : -1;
+    }
+
+    public void gather(VertexShaderIoBase vsIo, float wInv, float[] triangleData, int vertexSlot) {
+        int i = vertexSlot;
+        for (FieldBinding source : vec4Sources) {
+            Vector4f v = (Vector4f) source.get(vsIo);
+            triangleData[i] = v.x * wInv;
+            triangleData[i + 3] = v.y * wInv;
+            triangleData[i + 6] = v.z * wInv;
+            triangleData[i + 9] = v.w * wInv;
+            i += 12;
+        }
+        for (FieldBinding source : vec3Sources) {
+            Vector3f v = (Vector3f) source.get(vsIo);
+            triangleData[i] = v.x * wInv;
+            triangleData[i + 3] = v.y * wInv;
+            triangleData[i + 6] = v.z * wInv;
+            i += 9;
+        }
+        for (FieldBinding source : vec2Sources) {
+            Vector2f v = (Vector2f) source.get(vsIo);
+            triangleData[i] = v.x * wInv;
+            triangleData[i + 3] = v.y * wInv;
+            i += 6;
+        }
+        for (FieldBinding source : floatSources) {
+            triangleData[i] = source.getFloat(vsIo) * wInv;
+            i += 3;
+        }
+    }
+
+    // Writes a vertex that lies between the three vertices of sourceData (gathered with wInv = 1)
+    // with weights l0, l1, l2, e.g. a vertex produced by clipping.
+    public void blend(
+            float[] sourceData, float l0, float l1, float l2,
+            float wInv, float[] triangleData, int vertexSlot
+    ) {
+        for (int c = 0; c < componentCount; c++) {
+            int i = 3 * c;
+            triangleData[i + vertexSlot] = (l0 * sourceData[i] + l1 * sourceData[i + 1] + l2 * sourceData[i + 2]) * wInv;
+        }
+    }
+
+    public void interpolate(
+            float[] triangleData, VertexShaderIoBase provokingVsIo,
+            float b0, float b1, float b2, float perspectiveCorrection,
+            FragmentShaderIoBase fsIo
+    ) {
+        float s0 = b0 * perspectiveCorrection;
+        float s1 = b1 * perspectiveCorrection;
+        float s2 = b2 * perspectiveCorrection;
+        int i = 0;
+        for (FieldBinding target : vec4Targets) {
+            Vector4f v = (Vector4f) target.get(fsIo);
+            if (v == null) {
+                v = new Vector4f();
+                target.set(fsIo, v);
+            }
+            v.x = s0 * triangleData[i] + s1 * triangleData[i + 1] + s2 * triangleData[i + 2];
+            v.y = s0 * triangleData[i + 3] + s1 * triangleData[i + 4] + s2 * triangleData[i + 5];
+            v.z = s0 * triangleData[i + 6] + s1 * triangleData[i + 7] + s2 * triangleData[i + 8];
+            v.w = s0 * triangleData[i + 9] + s1 * triangleData[i + 10] + s2 * triangleData[i + 11];
+            i += 12;
+        }
+        for (FieldBinding target : vec3Targets) {
+            Vector3f v = (Vector3f) target.get(fsIo);
+            if (v == null) {
+                v = new Vector3f();
+                target.set(fsIo, v);
+            }
+            v.x = s0 * triangleData[i] + s1 * triangleData[i + 1] + s2 * triangleData[i + 2];
+            v.y = s0 * triangleData[i + 3] + s1 * triangleData[i + 4] + s2 * triangleData[i + 5];
+            v.z = s0 * triangleData[i + 6] + s1 * triangleData[i + 7] + s2 * triangleData[i + 8];
+            i += 9;
+        }
+        for (FieldBinding target : vec2Targets) {
+            Vector2f v = (Vector2f) target.get(fsIo);
+            if (v == null) {
+                v = new Vector2f();
+                target.set(fsIo, v);
+            }
+            v.x = s0 * triangleData[i] + s1 * triangleData[i + 1] + s2 * triangleData[i + 2];
+            v.y = s0 * triangleData[i + 3] + s1 * triangleData[i + 4] + s2 * triangleData[i + 5];
+            i += 6;
+        }
+        for (FieldBinding target : floatTargets) {
+            target.setFloat(fsIo, s0 * triangleData[i] + s1 * triangleData[i + 1] + s2 * triangleData[i + 2]);
+            i += 3;
+        }
+        interpolateFlat(provokingVsIo, fsIo);
+    }
+
+    // Structure-of-arrays variant of interpolate for a batch of fragments: lanes[c][i] receives component c
+    // at fragment i, computed with the same arithmetic as the per-fragment path.
+    public void interpolateLanes(
+            float[] triangleData,
+            float[] b0, float[] b1, float[] b2, float[] perspectiveCorrection,
+            int laneCount, float[][] lanes
+    ) {
+        for (int c = 0; c < componentCount; c++) {
+            float d0 = triangleData[3 * c];
+            float d1 = triangleData[3 * c + 1];
+            float d2 = triangleData[3 * c + 2];
+            float[] out = lanes[c];
+            for (int i = 0; i < laneCount; i++) {
+                float pc = perspectiveCorrection[i];
+                out[i] = b0[i] * pc * d0 + b1[i] * pc * d1 + b2[i] * pc * d2;
+            }
+        }
+    }
+
+    public void interpolateFlat(VertexShaderIoBase provokingVsIo, FragmentShaderIoBase fsIo) {
+        for (int f = 0; f < flatTargets.length; f++) {
+            flatTargets[f].set(fsIo, flatSources[f].get(provokingVsIo));
+        }
+    }
+}
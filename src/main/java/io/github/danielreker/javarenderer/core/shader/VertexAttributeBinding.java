@@ -0,0 +1,236 @@
+package io.github.danielreker.javarenderer.core.shader;
+
+import io.github.danielreker.javarenderer.core.container.LayoutVertexBuffer;
+import io.github.danielreker.javarenderer.core.container.VertexLayout;
+import io.github.danielreker.javarenderer.core.enums.AttributeFormat;
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+import java.lang.reflect.Field;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Links the @Attribute fields of a vertex IO to their sources. A source is either a vertex class, whose
+// fields are read from each vertex object, or a VertexLayout, whose columns are read from a LayoutVertexBuffer.
+final class VertexAttributeBinding {
+    private final Source vertexSource;
+    private final Source instanceSource;
+
+    private VertexAttributeBinding(Source vertexSource, Source instanceSource) {
+        this.vertexSource = vertexSource;
+        this.instanceSource = instanceSource;
+    }
+
+    // Attributes declared by the instance source (if any) are sourced per instance, the rest per vertex.
+    // Each source is a Class<?> or a VertexLayout.
+    static VertexAttributeBinding link(
+            Object vertexSource,
+            Object instanceSource,
+            Collection<FieldBinding> attributeInputs,
+            Class<?> vertexIoClass
+    ) {
+        SourceBuilder vertexBuilder = new SourceBuilder(vertexSource);
+        SourceBuilder instanceBuilder = instanceSource != null ? new SourceBuilder(instanceSource) : null;
+        for (FieldBinding target : attributeInputs) {
+            SourceBuilder builder = instanceBuilder != null && instanceBuilder.provides(target.getName())
+                    ? instanceBuilder : vertexBuilder;
+            if (!builder.provides(target.getName())) {
+                System.err.println("Warning: Attribute '" + target.getName()
+                        + "' not found in vertex " + describe(vertexSource)
+                        + (instanceSource != null ? " or instance " + describe(instanceSource) : ""));
+                continue;
+            }
+            builder.add(target, vertexIoClass);
+        }
+        return new VertexAttributeBinding(vertexBuilder.build(), instanceBuilder != null ? instanceBuilder.build() : null);
+    }
+
+    private static String describe(Object source) {
+        if (source instanceof VertexLayout layout) return "layout '" + layout + "'";
+        return "object " + ((Class<?>) source).getSimpleName();
+    }
+
+    // vertexData and instanceData are the vertex/instance objects for class sources, and the
+    // LayoutVertexBuffer for layout sources. With copyValues, vector and matrix attributes are copied into
+    // the objects already held by the IO instead of sharing the source's objects.
+    void apply(
+            Object vertexData, int vertexIndex,
+            Object instanceData, int instanceIndex,
+            Object vertexIo, boolean copyValues
+    ) {
+        vertexSource.copy(vertexData, vertexIndex, vertexIo, copyValues);
+        if (instanceSource != null && instanceData != null) {
+            instanceSource.copy(instanceData, instanceIndex, vertexIo, copyValues);
+        }
+    }
+
+    private abstract static class Source {
+        abstract void copy(Object data, int index, Object vertexIo, boolean copyValues);
+    }
+
+    private static final class FieldSource extends Source {
+        private final FieldBinding[] sources;
+        private final FieldBinding[] targets;
+
+        FieldSource(FieldBinding[] sources, FieldBinding[] targets) {
+            this.sources = sources;
+            this.targets = targets;
+        }
+
+        @Override
+        void copy(Object data, int index, Object vertexIo, boolean copyValues) {
+            for (int i = 0; i < sources.length; i++) {
+                Object value = sources[i].get(data);
+                if (value != null) {
+                    if (copyValues) {
+                        assignCopy(targets[i], vertexIo, value);
+                    } else {
+                        targets[i].set(vertexIo, value);
+                    }
+                }
+            }
+        }
+
+        private static void assignCopy(FieldBinding target, Object vertexIo, Object value) {
+            Object current = target.get(vertexIo);
+            if (current == value) {
+                current = null;
+            }
+            if (value instanceof Vector4f v) {
+                if (current instanceof Vector4f c) c.set(v); else target.set(vertexIo, new Vector4f(v));
+            } else if (value instanceof Vector3f v) {
+                if (current instanceof Vector3f c) c.set(v); else target.set(vertexIo, new Vector3f(v));
+            } else if (value instanceof Vector2f v) {
+                if (current instanceof Vector2f c) c.set(v); else target.set(vertexIo, new Vector2f(v));
+            } else if (value instanceof Matrix4f m) {
+                if (current instanceof Matrix4f c) c.set(m); else target.set(vertexIo, new Matrix4f(m));
+            } else {
+                target.set(vertexIo, value);
+            }
+        }
+    }
+
+    // Columns are written into the vectors already held by the IO; a vector is allocated only when the
+    // field is still null.
+    private static final class ColumnSource extends Source {
+        private final int[] attributeIndices;
+        private final AttributeFormat[] formats;
+        private final FieldBinding[] targets;
+
+        ColumnSource(int[] attributeIndices, AttributeFormat[] formats, FieldBinding[] targets) {
+            this.attributeIndices = attributeIndices;
+            this.formats = formats;
+            this.targets = targets;
+        }
+
+        @Override
+        void copy(Object data, int index, Object vertexIo, boolean copyValues) {
+            LayoutVertexBuffer buffer = (LayoutVertexBuffer) data;
+            for (int i = 0; i < targets.length; i++) {
+                FieldBinding target = targets[i];
+                FloatBuffer column = buffer.getColumn(attributeIndices[i]);
+                AttributeFormat format = formats[i];
+                int base = index * format.getComponentCount();
+                switch (format) {
+                    case FLOAT -> target.setFloat(vertexIo, column.get(base));
+                    case FLOAT2 -> {
+                        Vector2f v = (Vector2f) target.get(vertexIo);
+                        if (v == null) target.set(vertexIo, v = new Vector2f());
+                        v.set(base, column);
+                    }
+                    case FLOAT3 -> {
+                        Vector3f v = (Vector3f) target.get(vertexIo);
+                        if (v == null) target.set(vertexIo, v = new Vector3f());
+                        v.set(base, column);
+                    }
+                    case FLOAT4 -> {
+                        Vector4f v = (Vector4f) target.get(vertexIo);
+                        if (v == null) target.set(vertexIo, v = new Vector4f());
+                        v.set(base, column);
+                    }
+                    case MAT4 -> {
+                        Matrix4f m = (Matrix4f) target.get(vertexIo);
+                        if (m == null) target.set(vertexIo, m = new Matrix4f());
+                        m.set(base, column);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class SourceBuilder {
+        private final Class<?> sourceClass;
+        private final VertexLayout layout;
+        private final List<FieldBinding> sources = new ArrayList<>();
+        private final List<Integer> attributeIndices = new ArrayList<>();
+        private final List<AttributeFormat> formats = new ArrayList<>();
+        private final List<FieldBinding> targets = new ArrayList<>();
+
+        SourceBuilder(Object source) {
+            this.layout = source instanceof VertexLayout vertexLayout ? vertexLayout : null;
+            this.sourceClass = layout == null ? (Class<?>) source : null;
+        }
+
+        boolean provides(String name) {
+            return layout != null ? layout.indexOf(name) >= 0 : findField(sourceClass, name) != null;
+        }
+
+        void add(FieldBinding target, Class<?> vertexIoClass) {
+            if (layout != null) {
+                int attributeIndex = layout.indexOf(target.getName());
+                AttributeFormat format = layout.getAttribute(attributeIndex).getFormat();
+                if (!isFormatCompatible(target.getType(), format)) {
+                    warnTypeMismatch(target, vertexIoClass, format.getTypeName());
+                    return;
+                }
+                attributeIndices.add(attributeIndex);
+                formats.add(format);
+            } else {
+                Field sourceField = findField(sourceClass, target.getName());
+                if (!target.accepts(sourceField.getType())) {
+                    warnTypeMismatch(target, vertexIoClass, sourceField.getType().getSimpleName());
+                    return;
+                }
+                sources.add(FieldBinding.of(sourceField));
+            }
+            targets.add(target);
+        }
+
+        Source build() {
+            FieldBinding[] targetArray = targets.toArray(new FieldBinding[0]);
+            if (layout == null) {
+                return new FieldSource(sources.toArray(new FieldBinding[0]), targetArray);
+            }
+            return new ColumnSource(attributeIndices.stream().mapToInt(Integer::intValue).toArray(),
+                    formats.toArray(new AttributeFormat[0]), targetArray);
+        }
+
+        private static void warnTypeMismatch(FieldBinding target, Class<?> vertexIoClass, String actualType) {
+            System.err.println("Warning: Type mismatch for attribute '" + target.getName() +
+                    "' in " + vertexIoClass.getSimpleName() + ". Expected " + target.getType().getSimpleName() +
+                    ", got " + actualType + ". Skipping.");
+        }
+
+        private static boolean isFormatCompatible(Class<?> targetType, AttributeFormat format) {
+            return switch (format) {
+                case FLOAT -> FieldBinding.isFloatType(targetType);
+                case FLOAT2 -> targetType == Vector2f.class;
+                case FLOAT3 -> targetType == Vector3f.class;
+                case FLOAT4 -> targetType == Vector4f.class;
+                case MAT4 -> targetType == Matrix4f.class;
+            };
+        }
+
+        private static Field findField(Class<?> sourceClass, String name) {
+            try {
+                return sourceClass.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                return null;
+            }
+        }
+    }
+}
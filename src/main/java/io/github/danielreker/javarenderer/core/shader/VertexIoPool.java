@@ -0,0 +1,27 @@
+package io.github.danielreker.javarenderer.core.shader;
+
+import io.github.danielreker.javarenderer.core.shader.io.VertexShaderIoBase;
+
+import java.util.Arrays;
+
+// Per-thread scratch storage for one draw's vertex IOs. Slots are filled lazily and reused by later draws.
+public final class VertexIoPool<V_IO extends VertexShaderIoBase> {
+    private Object[] slots = new Object[0];
+
+    void ensureCapacity(int vertexCount) {
+        if (slots.length < vertexCount) {
+            slots = Arrays.copyOf(slots, Math.max(vertexCount, slots.length * 2));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    V_IO get(int slot) {
+        return (V_IO) slots[slot];
+    }
+
+    void set(int slot, V_IO vsIo) {
+        slots[slot] = vsIo;
+    }
+
+    public int getCapacity() { return slots.length; }
+}
@@ -0,0 +1,9 @@
+package io.github.danielreker.javarenderer.core.shader.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME) @Target(ElementType.TYPE)
+public @interface WritesFragDepth {}
@@ -14,4 +14,10 @@ public abstract class FragmentShaderIoBase {
     public void discardFragment() {
         this.discarded = true;
     }
+
+    public void resetBuiltIns() {
+        gl_FragColor.set(0.0f, 0.0f, 0.0f, 1.0f);
+        gl_FragDepth = null;
+        discarded = false;
+    }
 }
\ No newline at end of file
@@ -1,7 +1,14 @@
 package io.github.danielreker.javarenderer.core.shader.io;
 
+import io.github.danielreker.javarenderer.core.shader.annotations.BuiltIn;
 import org.joml.Vector4f;
 
 public abstract class VertexShaderIoBase {
+    @BuiltIn public int gl_InstanceID = 0;
+
     public Vector4f gl_Position = new Vector4f();
+
+    public void resetBuiltIns() {
+        gl_Position.set(0.0f, 0.0f, 0.0f, 1.0f);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,190 @@
+package io.github.danielreker.javarenderer.core.texture;
+
+import io.github.danielreker.javarenderer.core.enums.TextureFilter;
+import io.github.danielreker.javarenderer.core.enums.WrapMode;
+import io.github.danielreker.javarenderer.core.shader.FragmentBatch;
+import org.joml.Vector4f;
+
+import java.util.Objects;
+
+// Immutable filtering and wrapping state, like a GL sampler object. Coordinates are normalized, and the level
+// of detail is log2 of a pixel's larger texel footprint along screen x or y. Batched shaders get derivatives
+// from the lane's 2x2 quad; per-fragment shaders pass derivatives or a level, or read the base level.
+public final class Sampler {
+    private static final float INV_255 = 1.0f / 255.0f;
+    private static final float TWO_OVER_LN_2 = (float) (2.0 / Math.log(2.0));
+
+    private final TextureFilter filter;
+    private final WrapMode wrapU;
+    private final WrapMode wrapV;
+    private final float lodBias;
+
+    private Sampler(TextureFilter filter, WrapMode wrapU, WrapMode wrapV, float lodBias) {
+        this.filter = filter;
+        this.wrapU = wrapU;
+        this.wrapV = wrapV;
+        this.lodBias = lodBias;
+    }
+
+    public static Sampler create(TextureFilter filter, WrapMode wrap) {
+        return create(filter, wrap, wrap, 0.0f);
+    }
+
+    // The bias is added to every computed or explicit level of detail; negative values sharpen.
+    public static Sampler create(TextureFilter filter, WrapMode wrapU, WrapMode wrapV, float lodBias) {
+        Objects.requireNonNull(filter, "TextureFilter cannot be null.");
+        Objects.requireNonNull(wrapU, "WrapMode cannot be null.");
+        Objects.requireNonNull(wrapV, "WrapMode cannot be null.");
+        if (!Float.isFinite(lodBias)) {
+            throw new IllegalArgumentException("LOD bias must be finite: " + lodBias);
+        }
+        return new Sampler(filter, wrapU, wrapV, lodBias);
+    }
+
+    public TextureFilter getFilter() { return filter; }
+    public WrapMode getWrapU() { return wrapU; }
+    public WrapMode getWrapV() { return wrapV; }
+    public float getLodBias() { return lodBias; }
+
+    // Reads the base level, biased.
+    public Vector4f sample(Texture2D texture, float u, float v, Vector4f dest) {
+        return sampleLod(texture, u, v, 0.0f, dest);
+    }
+
+    // Derivatives of u and v along screen x and y, as dFdx and dFdy return them.
+    public Vector4f sampleGrad(
+            Texture2D texture,
+            float u, float v,
+            float dudx, float dvdx,
+            float dudy, float dvdy,
+            Vector4f dest
+    ) {
+        return sampleLod(texture, u, v, computeLod(texture, dudx, dvdx, dudy, dvdy), dest);
+    }
+
+    // u and v are varying lanes of a FragmentBatch; all lanes of a 2x2 quad get the same level of detail.
+    public Vector4f sample(Texture2D texture, float[] uLanes, float[] vLanes, int lane, Vector4f dest) {
+        return sampleGrad(texture, uLanes[lane], vLanes[lane],
+                FragmentBatch.dFdx(uLanes, lane), FragmentBatch.dFdx(vLanes, lane),
+                FragmentBatch.dFdy(uLanes, lane), FragmentBatch.dFdy(vLanes, lane),
+                dest);
+    }
+
+    public Vector4f sampleLod(Texture2D texture, float u, float v, float lod, Vector4f dest) {
+        Objects.requireNonNull(texture, "Texture2D cannot be null.");
+        lod += lodBias;
+        int maxLevel = texture.getLevelCount() - 1;
+
+        // Also taken for a NaN level, e.g. from derivatives of a degenerate quad.
+        if (!(lod > 0.0f) || maxLevel == 0) {
+            return filter == TextureFilter.NEAREST
+                    ? sampleNearest(texture, 0, u, v, dest)
+                    : addBilinear(texture, 0, u, v, 1.0f, dest.zero());
+        }
+
+        if (filter == TextureFilter.TRILINEAR) {
+            if (lod >= maxLevel) return addBilinear(texture, maxLevel, u, v, 1.0f, dest.zero());
+            int level = (int) lod;
+            float blend = lod - level;
+            addBilinear(texture, level, u, v, 1.0f - blend, dest.zero());
+            return blend > 0.0f ? addBilinear(texture, level + 1, u, v, blend, dest) : dest;
+        }
+
+        int level = Math.min((int) (lod + 0.5f), maxLevel);
+        return filter == TextureFilter.NEAREST
+                ? sampleNearest(texture, level, u, v, dest)
+                : addBilinear(texture, level, u, v, 1.0f, dest.zero());
+    }
+
+    // Unbiased and accurate to about 1e-4; negative infinity for a zero footprint, NaN for NaN derivatives.
+    public static float computeLod(Texture2D texture, float dudx, float dvdx, float dudy, float dvdy) {
+        float width = texture.getWidth();
+        float height = texture.getHeight();
+        float xu = dudx * width, xv = dvdx * height;
+        float yu = dudy * width, yv = dvdy * height;
+        float footprintSquared = Math.max(xu * xu + xv * xv, yu * yu + yv * yv);
+        if (Float.isNaN(footprintSquared)) return Float.NaN;
+        // Zero or subnormal: magnified far beyond anything a level of detail distinguishes.
+        if (footprintSquared < Float.MIN_NORMAL) return Float.NEGATIVE_INFINITY;
+        // log2(sqrt(f)) without the square root.
+        return 0.5f * log2(footprintSquared);
+    }
+
+    // For positive normal values. Math.log costs about as much as a bilinear fetch; this takes the exponent
+    // from the bits and the mantissa's logarithm from three terms of the atanh series, within 2.2e-4.
+    private static float log2(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        int exponent = ((bits >>> 23) & 0xFF) - 127;
+        float mantissa = Float.intBitsToFloat((bits & 0x007FFFFF) | 0x3F800000);
+        float t = (mantissa - 1.0f) / (mantissa + 1.0f);
+        float t2 = t * t;
+        return exponent + TWO_OVER_LN_2 * t * (1.0f + t2 * (1.0f / 3.0f + t2 * (1.0f / 5.0f)));
+    }
+
+    private Vector4f sampleNearest(Texture2D texture, int level, float u, float v, Vector4f dest) {
+        int width = texture.getLevelWidth(level);
+        int height = texture.getLevelHeight(level);
+        int x = wrap(floor(u * width), width, wrapU);
+        int y = wrap(floor(v * height), height, wrapV);
+        int argb = texture.getLevelData(level)[texture.texelIndex(level, x, y)];
+        return dest.set(
+                ((argb >>> 16) & 0xFF) * INV_255,
+                ((argb >>> 8) & 0xFF) * INV_255,
+                (argb & 0xFF) * INV_255,
+                (argb >>> 24) * INV_255);
+    }
+
+    // Adds the bilinear sample of a level, scaled by weight, so that trilinear filtering can blend two levels
+    // without a temporary.
+    private Vector4f addBilinear(Texture2D texture, int level, float u, float v, float weight, Vector4f dest) {
+        int width = texture.getLevelWidth(level);
+        int height = texture.getLevelHeight(level);
+        float x = u * width - 0.5f;
+        float y = v * height - 0.5f;
+        int x0 = floor(x);
+        int y0 = floor(y);
+        float fx = x - x0;
+        float fy = y - y0;
+        int xa = wrap(x0, width, wrapU);
+        int xb = wrap(x0 + 1, width, wrapU);
+        int ya = wrap(y0, height, wrapV);
+        int yb = wrap(y0 + 1, height, wrapV);
+
+        int[] data = texture.getLevelData(level);
+        int t00 = data[texture.texelIndex(level, xa, ya)];
+        int t10 = data[texture.texelIndex(level, xb, ya)];
+        int t01 = data[texture.texelIndex(level, xa, yb)];
+        int t11 = data[texture.texelIndex(level, xb, yb)];
+
+        float scale = weight * INV_255;
+        float w00 = (1.0f - fx) * (1.0f - fy) * scale;
+        float w10 = fx * (1.0f - fy) * scale;
+        float w01 = (1.0f - fx) * fy * scale;
+        float w11 = fx * fy * scale;
+        dest.x += ((t00 >>> 16) & 0xFF) * w00 + ((t10 >>> 16) & 0xFF) * w10
+                + ((t01 >>> 16) & 0xFF) * w01 + ((t11 >>> 16) & 0xFF) * w11;
+        dest.y += ((t00 >>> 8) & 0xFF) * w00 + ((t10 >>> 8) & 0xFF) * w10
+                + ((t01 >>> 8) & 0xFF) * w01 + ((t11 >>> 8) & 0xFF) * w11;
+        dest.z += (t00 & 0xFF) * w00 + (t10 & 0xFF) * w10 + (t01 & 0xFF) * w01 + (t11 & 0xFF) * w11;
+        dest.w += (t00 >>> 24) * w00 + (t10 >>> 24) * w10 + (t01 >>> 24) * w01 + (t11 >>> 24) * w11;
+        return dest;
+    }
+
+    // Math.floor goes through double; coordinates beyond the int range saturate, which any wrap mode accepts.
+    private static int floor(float value) {
+        int truncated = (int) value;
+        return value < truncated ? truncated - 1 : truncated;
+    }
+
+    private static int wrap(int coordinate, int size, WrapMode mode) {
+        return switch (mode) {
+            // Power-of-two sizes, the common case, wrap with a mask instead of a division.
+            case REPEAT -> (size & (size - 1)) == 0 ? coordinate & (size - 1) : Math.floorMod(coordinate, size);
+            case MIRRORED_REPEAT -> {
+                int period = Math.floorMod(coordinate, 2 * size);
+                yield period < size ? period : 2 * size - 1 - period;
+            }
+            case CLAMP_TO_EDGE -> Math.min(Math.max(coordinate, 0), size - 1);
+        };
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.danielreker.javarenderer.core.texture;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+// Immutable RGBA8 texture with an optional mip chain, read through a Sampler. Texels are 0xAARRGGBB; each
+// level is stored in 8x8 tiles in row-major order with Morton-ordered texels, so an aligned 4x4 square is
+// one 64-byte cache line and a bilinear footprint rarely spans two. Texel (0, 0) is at (u, v) = (0, 0).
+public final class Texture2D {
+    public static final int TILE_SHIFT = 3;
+    public static final int TILE_SIZE = 1 << TILE_SHIFT;
+    private static final int TILE_MASK = TILE_SIZE - 1;
+
+    // Coordinate bits within a tile, spread to the even bit positions; y goes to the odd ones.
+    private static final int[] MORTON_SPREAD = {
+            0b000000, 0b000001, 0b000100, 0b000101, 0b010000, 0b010001, 0b010100, 0b010101
+    };
+
+    private final int[] levelWidths;
+    private final int[] levelHeights;
+    private final int[] levelTilesX;
+    private final int[][] levels;
+
+    private Texture2D(int[][] rowMajorLevels, int[] levelWidths, int[] levelHeights) {
+        this.levelWidths = levelWidths;
+        this.levelHeights = levelHeights;
+        this.levelTilesX = new int[rowMajorLevels.length];
+        this.levels = new int[rowMajorLevels.length][];
+        for (int level = 0; level < rowMajorLevels.length; level++) {
+            int width = levelWidths[level];
+            int height = levelHeights[level];
+            int tilesX = (width + TILE_MASK) >> TILE_SHIFT;
+            int tilesY = (height + TILE_MASK) >> TILE_SHIFT;
+            levelTilesX[level] = tilesX;
+            int[] tiled = new int[tilesX * tilesY * TILE_SIZE * TILE_SIZE];
+            int[] source = rowMajorLevels[level];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    tiled[tiledIndex(tilesX, x, y)] = source[y * width + x];
+                }
+            }
+            levels[level] = tiled;
+        }
+    }
+
+    // Texels are 0xAARRGGBB in row-major order, starting with the row at v = 0. With generateMipmaps the
+    // chain down to 1x1 is built with a 2x2 box filter.
+    public static Texture2D create(int width, int height, int[] argb, boolean generateMipmaps) {
+        Objects.requireNonNull(argb, "Texel data cannot be null.");
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Texture size must be positive: " + width + "x" + height);
+        }
+        if (argb.length != width * height) {
+            throw new IllegalArgumentException("Expected " + width * height + " texels for a " + width + "x"
+                    + height + " texture, got " + argb.length);
+        }
+
+        int levelCount = generateMipmaps ? 32 - Integer.numberOfLeadingZeros(Math.max(width, height)) : 1;
+        int[][] rowMajorLevels = new int[levelCount][];
+        int[] levelWidths = new int[levelCount];
+        int[] levelHeights = new int[levelCount];
+        rowMajorLevels[0] = argb;
+        levelWidths[0] = width;
+        levelHeights[0] = height;
+        for (int level = 1; level < levelCount; level++) {
+            levelWidths[level] = Math.max(1, levelWidths[level - 1] >> 1);
+            levelHeights[level] = Math.max(1, levelHeights[level - 1] >> 1);
+            rowMajorLevels[level] = downsample(rowMajorLevels[level - 1], levelWidths[level - 1],
+                    levelHeights[level - 1], levelWidths[level], levelHeights[level]);
+        }
+        return new Texture2D(rowMajorLevels, levelWidths, levelHeights);
+    }
+
+    // The top row of the image ends up at v = 1, so the image appears upright on a quad with texture
+    // coordinates (0, 0) at its bottom left corner.
+    public static Texture2D fromImage(BufferedImage image, boolean generateMipmaps) {
+        Objects.requireNonNull(image, "Image cannot be null.");
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] argb = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, height - 1 - y, width, 1, argb, y * width, width);
+        }
+        return create(width, height, argb, generateMipmaps);
+    }
+
+    public static Texture2D read(Path path, boolean generateMipmaps) throws IOException {
+        BufferedImage image;
+        try (InputStream in = Files.newInputStream(path)) {
+            image = ImageIO.read(in);
+        }
+        if (image == null) {
+            throw new IOException("Unsupported image format: " + path);
+        }
+        return fromImage(image, generateMipmaps);
+    }
+
+    public int getWidth() { return levelWidths[0]; }
+    public int getHeight() { return levelHeights[0]; }
+    public int getLevelCount() { return levels.length; }
+    public int getLevelWidth(int level) { return levelWidths[level]; }
+    public int getLevelHeight(int level) { return levelHeights[level]; }
+
+    public int getTexel(int level, int x, int y) {
+        Objects.checkIndex(x, levelWidths[level]);
+        Objects.checkIndex(y, levelHeights[level]);
+        return levels[level][texelIndex(level, x, y)];
+    }
+
+    // Raw tiled storage of a level, indexed by texelIndex.
+    int[] getLevelData(int level) { return levels[level]; }
+
+    int texelIndex(int level, int x, int y) {
+        return tiledIndex(levelTilesX[level], x, y);
+    }
+
+    private static int tiledIndex(int tilesX, int x, int y) {
+        int tile = (y >> TILE_SHIFT) * tilesX + (x >> TILE_SHIFT);
+        return (tile << (2 * TILE_SHIFT)) | MORTON_SPREAD[x & TILE_MASK] | (MORTON_SPREAD[y & TILE_MASK] << 1);
+    }
+
+    // Each texel averages the 2x2 source texels it covers. An odd size drops the last source row or column;
+    // a size of 1 is repeated rather than halved.
+    private static int[] downsample(int[] source, int sourceWidth, int sourceHeight, int width, int height) {
+        int[] result = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            int row0 = Math.min(2 * y, sourceHeight - 1) * sourceWidth;
+            int row1 = Math.min(2 * y + 1, sourceHeight - 1) * sourceWidth;
+            for (int x = 0; x < width; x++) {
+                int x0 = Math.min(2 * x, sourceWidth - 1);
+                int x1 = Math.min(2 * x + 1, sourceWidth - 1);
+                int t00 = source[row0 + x0];
+                int t01 = source[row0 + x1];
+                int t10 = source[row1 + x0];
+                int t11 = source[row1 + x1];
+                int argb = 0;
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int sum = ((t00 >>> shift) & 0xFF) + ((t01 >>> shift) & 0xFF)
+                            + ((t10 >>> shift) & 0xFF) + ((t11 >>> shift) & 0xFF);
+                    argb |= ((sum + 2) >> 2) << shift;
+                }
+                result[y * width + x] = argb;
+            }
+        }
+        return result;
+    }
+}
@@ -2,10 +2,18 @@ package io.github.danielreker.javarenderer.example;
 
 import io.github.danielreker.javarenderer.core.Renderer;
 import io.github.danielreker.javarenderer.core.container.FrameBuffer;
-import io.github.danielreker.javarenderer.core.container.RenderBuffer;
+import io.github.danielreker.javarenderer.core.container.IndexBuffer;
 import io.github.danielreker.javarenderer.core.container.VertexBuffer;
+import io.github.danielreker.javarenderer.core.enums.CullMode;
+import io.github.danielreker.javarenderer.core.enums.FrontFace;
 import io.github.danielreker.javarenderer.core.enums.PrimitiveType;
+import io.github.danielreker.javarenderer.core.enums.RasterMode;
+import io.github.danielreker.javarenderer.core.enums.TextureFilter;
+import io.github.danielreker.javarenderer.core.enums.WrapMode;
+import io.github.danielreker.javarenderer.core.present.SwapChain;
 import io.github.danielreker.javarenderer.core.shader.ShaderProgram;
+import io.github.danielreker.javarenderer.core.texture.Sampler;
+import io.github.danielreker.javarenderer.core.texture.Texture2D;
 
 import org.joml.Matrix4f;
 import org.joml.Vector2f;
@@ -17,6 +25,7 @@ import java.awt.*;
 import java.awt.event.*;
 import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -33,51 +42,39 @@ public class CubeDemo {
     private static float deltaTime = 0.0f;
     private static long lastFrameTime = System.nanoTime();
 
-    private static final List<CubeVertex> cubeVertexData = Arrays.asList(
+    // Only touched by the present thread.
+    private static long frameCounter = 0;
+    private static long fpsTimer = System.nanoTime();
+
+    static final List<CubeVertex> cubeVertexData = Arrays.asList(
             new CubeVertex(new Vector3f(-0.5f, -0.5f, -0.5f), new Vector2f(0.0f, 0.0f)),
             new CubeVertex(new Vector3f( 0.5f, -0.5f, -0.5f), new Vector2f(1.0f, 0.0f)),
             new CubeVertex(new Vector3f( 0.5f,  0.5f, -0.5f), new Vector2f(1.0f, 1.0f)),
-            new CubeVertex(new Vector3f( 0.5f,  0.5f, -0.5f), new Vector2f(1.0f, 1.0f)),
             new CubeVertex(new Vector3f(-0.5f,  0.5f, -0.5f), new Vector2f(0.0f, 1.0f)),
-            new CubeVertex(new Vector3f(-0.5f, -0.5f, -0.5f), new Vector2f(0.0f, 0.0f)),
-
             new CubeVertex(new Vector3f(-0.5f, -0.5f,  0.5f), new Vector2f(0.0f, 0.0f)),
             new CubeVertex(new Vector3f( 0.5f,  0.5f,  0.5f), new Vector2f(1.0f, 1.0f)),
             new CubeVertex(new Vector3f( 0.5f, -0.5f,  0.5f), new Vector2f(1.0f, 0.0f)),
-            new CubeVertex(new Vector3f( 0.5f,  0.5f,  0.5f), new Vector2f(1.0f, 1.0f)),
-            new CubeVertex(new Vector3f(-0.5f, -0.5f,  0.5f), new Vector2f(0.0f, 0.0f)),
             new CubeVertex(new Vector3f(-0.5f,  0.5f,  0.5f), new Vector2f(0.0f, 1.0f)),
-
             new CubeVertex(new Vector3f(-0.5f,  0.5f,  0.5f), new Vector2f(1.0f, 0.0f)),
             new CubeVertex(new Vector3f(-0.5f, -0.5f, -0.5f), new Vector2f(0.0f, 1.0f)),
             new CubeVertex(new Vector3f(-0.5f,  0.5f, -0.5f), new Vector2f(1.0f, 1.0f)),
-            new CubeVertex(new Vector3f(-0.5f, -0.5f, -0.5f), new Vector2f(0.0f, 1.0f)),
-            new CubeVertex(new Vector3f(-0.5f,  0.5f,  0.5f), new Vector2f(1.0f, 0.0f)),
-            new CubeVertex(new Vector3f(-0.5f, -0.5f,  0.5f), new Vector2f(0.0f, 0.0f)),
-
             new CubeVertex(new Vector3f( 0.5f,  0.5f,  0.5f), new Vector2f(1.0f, 0.0f)),
-            new CubeVertex(new Vector3f( 0.5f,  0.5f, -0.5f), new Vector2f(1.0f, 1.0f)),
-            new CubeVertex(new Vector3f( 0.5f, -0.5f, -0.5f), new Vector2f(0.0f, 1.0f)),
             new CubeVertex(new Vector3f( 0.5f, -0.5f, -0.5f), new Vector2f(0.0f, 1.0f)),
             new CubeVertex(new Vector3f( 0.5f, -0.5f,  0.5f), new Vector2f(0.0f, 0.0f)),
-            new CubeVertex(new Vector3f( 0.5f,  0.5f,  0.5f), new Vector2f(1.0f, 0.0f)),
-
-            new CubeVertex(new Vector3f(-0.5f, -0.5f, -0.5f), new Vector2f(0.0f, 1.0f)),
-            new CubeVertex(new Vector3f( 0.5f, -0.5f,  0.5f), new Vector2f(1.0f, 0.0f)),
             new CubeVertex(new Vector3f( 0.5f, -0.5f, -0.5f), new Vector2f(1.0f, 1.0f)),
-            new CubeVertex(new Vector3f( 0.5f, -0.5f,  0.5f), new Vector2f(1.0f, 0.0f)),
-            new CubeVertex(new Vector3f(-0.5f, -0.5f, -0.5f), new Vector2f(0.0f, 1.0f)),
-            new CubeVertex(new Vector3f(-0.5f, -0.5f,  0.5f), new Vector2f(0.0f, 0.0f)),
-
-            new CubeVertex(new Vector3f(-0.5f,  0.5f, -0.5f), new Vector2f(0.0f, 1.0f)),
-            new CubeVertex(new Vector3f( 0.5f,  0.5f, -0.5f), new Vector2f(1.0f, 1.0f)),
-            new CubeVertex(new Vector3f( 0.5f,  0.5f,  0.5f), new Vector2f(1.0f, 0.0f)),
-            new CubeVertex(new Vector3f( 0.5f,  0.5f,  0.5f), new Vector2f(1.0f, 0.0f)),
-            new CubeVertex(new Vector3f(-0.5f,  0.5f,  0.5f), new Vector2f(0.0f, 0.0f)),
-            new CubeVertex(new Vector3f(-0.5f,  0.5f, -0.5f), new Vector2f(0.0f, 1.0f))
+            new CubeVertex(new Vector3f(-0.5f,  0.5f,  0.5f), new Vector2f(0.0f, 0.0f))
     );
 
-    private static final Vector3f[] cubePositions = {
+    static final int[] cubeIndices = {
+             0,  1,  2,  2,  3,  0,
+             4,  5,  6,  5,  4,  7,
+             8,  9, 10,  9,  8,  4,
+            11,  2, 12, 12, 13, 11,
+             9,  6, 14,  6,  9,  4,
+             3,  2, 11, 11, 15,  3
+    };
+
+    static final Vector3f[] cubePositions = {
             new Vector3f( 0.0f,  0.0f,  0.0f),
             new Vector3f( 2.0f,  5.0f, -15.0f),
             new Vector3f(-1.5f, -2.2f, -2.5f),
@@ -166,14 +163,32 @@ public class CubeDemo {
 
 
         Renderer renderer = new Renderer();
+        renderer.setRasterMode(RasterMode.TILED_PARALLEL);
+        renderer.setFrontFace(FrontFace.CLOCKWISE);
+        renderer.setCullMode(CullMode.BACK);
         BufferedImage displayImage = new BufferedImage(FRAME_WIDTH, FRAME_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        SwapChain swapChain = SwapChain.create(FRAME_WIDTH, FRAME_HEIGHT, 3,
+                new Vector4f(0.1f, 0.1f, 0.1f, 1.0f), 1.0f,
+                frameBuffer -> {
+                    presentFrame(frameBuffer, displayImage, bufferStrategy, canvas);
+                    frameCounter++;
+                    if (System.nanoTime() - fpsTimer >= 1_000_000_000) {
+                        frame.setTitle(String.format("Java Renderer - Cube Demo | FPS: %d", frameCounter));
+                        frameCounter = 0;
+                        fpsTimer = System.nanoTime();
+                    }
+                });
         VertexBuffer<CubeVertex> cubeVbo = VertexBuffer.create(cubeVertexData);
-        ShaderProgram<CubeVertexShaderIo, CubeFragmentShaderIo> cubeProgram =
-                ShaderProgram.create(new CubeVertexShader(), new CubeFragmentShader());
+        IndexBuffer cubeIbo = IndexBuffer.create(cubeIndices);
+        ShaderProgram<CubeVertexShaderIo, TexturedCubeFragmentShaderIo> cubeProgram =
+                ShaderProgram.create(new CubeVertexShader(), new TexturedCubeFragmentShader());
+        cubeProgram.setIoReuse(true);
+        cubeProgram.setUniform("cubeTexture", createCheckerTexture(320, 10));
+        cubeProgram.setUniform("cubeSampler", Sampler.create(TextureFilter.TRILINEAR, WrapMode.REPEAT));
+        int projectionLocation = cubeProgram.getUniformLocation("projection");
+        int viewLocation = cubeProgram.getUniformLocation("view");
 
         Thread renderThread = new Thread(() -> {
-            long frameCounter = 0;
-            long fpsTimer = System.nanoTime();
             lastFrameTime = System.nanoTime();
 
             while (running) {
@@ -183,8 +198,13 @@ public class CubeDemo {
 
                 processInput();
 
-                FrameBuffer frameBuffer = FrameBuffer.create(FRAME_WIDTH, FRAME_HEIGHT,
-                        new Vector4f(0.1f, 0.1f, 0.1f, 1.0f), 1.0f);
+                FrameBuffer frameBuffer;
+                try {
+                    frameBuffer = swapChain.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
 
                 Matrix4f projection = new Matrix4f().perspective(
                         (float) Math.toRadians(camera.zoom),
@@ -193,9 +213,10 @@ public class CubeDemo {
                         100.0f);
                 Matrix4f view = camera.getViewMatrix();
 
-                cubeProgram.setUniform("projection", projection);
-                cubeProgram.setUniform("view", view);
+                cubeProgram.setUniform(projectionLocation, projection);
+                cubeProgram.setUniform(viewLocation, view);
 
+                List<CubeInstance> instances = new ArrayList<>(cubePositions.length);
                 for (Vector3f position : cubePositions) {
                     Matrix4f model = new Matrix4f().translate(position);
                     float angle = (System.nanoTime() / 1_000_000_000.0f) * 0.5f;
@@ -203,47 +224,15 @@ public class CubeDemo {
                         angle += position.x + position.y;
                     }
                     model.rotate(angle, 0.5f, 1.0f, 0.0f);
-                    cubeProgram.setUniform("model", model);
-
-                    renderer.render(frameBuffer, cubeProgram, cubeVbo, PrimitiveType.TRIANGLES, 0, cubeVbo.getVertexCount());
+                    instances.add(new CubeInstance(model));
                 }
 
+                renderer.renderIndexedInstanced(frameBuffer, cubeProgram, cubeVbo, cubeIbo,
+                        PrimitiveType.TRIANGLES, 0, cubeIbo.getIndexCount(),
+                        instances.size(), VertexBuffer.create(instances));
 
-                RenderBuffer<Vector4f> colorBuffer = frameBuffer.getColorAttachment();
-                for (int y = 0; y < FRAME_HEIGHT; y++) {
-                    for (int x = 0; x < FRAME_WIDTH; x++) {
-                        Vector4f pixelColorVec = colorBuffer.getValue(x, FRAME_HEIGHT - 1 - y);
-                        if (pixelColorVec != null) {
-                            int r = (int) (Math.min(Math.max(pixelColorVec.x, 0.0f), 1.0f) * 255);
-                            int g = (int) (Math.min(Math.max(pixelColorVec.y, 0.0f), 1.0f) * 255);
-                            int b = (int) (Math.min(Math.max(pixelColorVec.z, 0.0f), 1.0f) * 255);
-                            int a = (int) (Math.min(Math.max(pixelColorVec.w, 0.0f), 1.0f) * 255);
-                            displayImage.setRGB(x, y, (a << 24) | (r << 16) | (g << 8) | b);
-                        } else {
-                            displayImage.setRGB(x, y, 0xFF000000);
-                        }
-                    }
-                }
 
-                Graphics2D g2d = null;
-                try {
-                    g2d = (Graphics2D) bufferStrategy.getDrawGraphics();
-                    g2d.drawImage(displayImage, 0, 0, canvas.getWidth(), canvas.getHeight(), null);
-                } finally {
-                    if (g2d != null) {
-                        g2d.dispose();
-                    }
-                }
-                if (!bufferStrategy.contentsLost()) {
-                    bufferStrategy.show();
-                }
-
-                frameCounter++;
-                if (System.nanoTime() - fpsTimer >= 1_000_000_000) {
-                    frame.setTitle(String.format("Java Renderer - Cube Demo | FPS: %d", frameCounter));
-                    frameCounter = 0;
-                    fpsTimer = System.nanoTime();
-                }
+                swapChain.present(frameBuffer);
             }
         });
         renderThread.setName("RenderThread");
@@ -258,10 +247,47 @@ public class CubeDemo {
                 } catch (InterruptedException ex) {
                     Thread.currentThread().interrupt();
                 }
+                swapChain.close();
             }
         });
     }
 
+    // The checkerboard CubeFragmentShader computes, as a mipmapped texture, so that distant cubes fade to gray
+    // instead of aliasing.
+    private static Texture2D createCheckerTexture(int size, int checks) {
+        int[] argb = new int[size * size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                boolean light = (x * checks / size + y * checks / size) % 2 == 0;
+                argb[y * size + x] = light ? 0xFFFFFFFF : 0xFF333333;
+            }
+        }
+        return Texture2D.create(size, size, argb, true);
+    }
+
+    // Runs on the swap chain's present thread, while the next frame is being rendered.
+    private static void presentFrame(
+            FrameBuffer frameBuffer,
+            BufferedImage displayImage,
+            BufferStrategy bufferStrategy,
+            Canvas canvas
+    ) {
+        frameBuffer.resolveColor(displayImage, true, true);
+
+        Graphics2D g2d = null;
+        try {
+            g2d = (Graphics2D) bufferStrategy.getDrawGraphics();
+            g2d.drawImage(displayImage, 0, 0, canvas.getWidth(), canvas.getHeight(), null);
+        } finally {
+            if (g2d != null) {
+                g2d.dispose();
+            }
+        }
+        if (!bufferStrategy.contentsLost()) {
+            bufferStrategy.show();
+        }
+    }
+
     private static void processInput() {
         if (keyStates[KeyEvent.VK_W]) camera.processKeyboard(Camera.CameraMovement.FORWARD, deltaTime);
         if (keyStates[KeyEvent.VK_S]) camera.processKeyboard(Camera.CameraMovement.BACKWARD, deltaTime);
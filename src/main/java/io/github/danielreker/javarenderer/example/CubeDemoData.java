@@ -1,12 +1,16 @@
 package io.github.danielreker.javarenderer.example;
 
+import io.github.danielreker.javarenderer.core.shader.AbstractBatchedFragmentShader;
 import io.github.danielreker.javarenderer.core.shader.AbstractFragmentShader;
 import io.github.danielreker.javarenderer.core.shader.AbstractVertexShader;
+import io.github.danielreker.javarenderer.core.shader.FragmentBatch;
 import io.github.danielreker.javarenderer.core.shader.annotations.Attribute;
 import io.github.danielreker.javarenderer.core.shader.annotations.Uniform;
 import io.github.danielreker.javarenderer.core.shader.annotations.Varying;
 import io.github.danielreker.javarenderer.core.shader.io.FragmentShaderIoBase;
 import io.github.danielreker.javarenderer.core.shader.io.VertexShaderIoBase;
+import io.github.danielreker.javarenderer.core.texture.Sampler;
+import io.github.danielreker.javarenderer.core.texture.Texture2D;
 import org.joml.Matrix4f;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
@@ -23,11 +27,20 @@ class CubeVertex {
     }
 }
 
+class CubeInstance {
+    @Attribute public Matrix4f model;
+
+    public CubeInstance(Matrix4f model) {
+        this.model = model;
+    }
+}
+
 class CubeVertexShaderIo extends VertexShaderIoBase {
-    @Uniform public Matrix4f model;
     @Uniform public Matrix4f view;
     @Uniform public Matrix4f projection;
 
+    @Attribute public Matrix4f model;
+
     @Attribute public Vector3f position;
     @Attribute public Vector2f texCoord;
 
@@ -64,4 +77,28 @@ class CubeFragmentShader extends AbstractFragmentShader<CubeFragmentShaderIo> {
             io.gl_FragColor.set(0.2f, 0.2f, 0.2f, 1.0f);
         }
     }
-}
\ No newline at end of file
+}
+class TexturedCubeFragmentShaderIo extends FragmentShaderIoBase {
+    @Uniform public Texture2D cubeTexture;
+    @Uniform public Sampler cubeSampler;
+
+    @Varying public Vector2f varyingTexCoord;
+}
+
+// Batched, so that the sampler picks mip levels from the texture coordinate derivatives of each 2x2 quad.
+class TexturedCubeFragmentShader extends AbstractBatchedFragmentShader<TexturedCubeFragmentShaderIo> {
+    @Override
+    public void main(FragmentBatch<TexturedCubeFragmentShaderIo> batch) {
+        TexturedCubeFragmentShaderIo io = batch.getIo();
+        int texCoordOffset = batch.getVaryingOffset("varyingTexCoord");
+        float[] u = batch.getVaryingLanes(texCoordOffset);
+        float[] v = batch.getVaryingLanes(texCoordOffset + 1);
+
+        Vector4f color = new Vector4f();
+        for (long mask = batch.getCoverageMask(); mask != 0; mask &= mask - 1) {
+            int lane = Long.numberOfTrailingZeros(mask);
+            io.cubeSampler.sample(io.cubeTexture, u, v, lane, color);
+            batch.setColor(lane, color.x, color.y, color.z, color.w);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.danielreker.javarenderer.example;
+
+import io.github.danielreker.javarenderer.core.Renderer;
+import io.github.danielreker.javarenderer.core.container.IndexBuffer;
+import io.github.danielreker.javarenderer.core.container.VertexBuffer;
+import io.github.danielreker.javarenderer.core.enums.CullMode;
+import io.github.danielreker.javarenderer.core.enums.FrontFace;
+import io.github.danielreker.javarenderer.core.enums.ImageFormat;
+import io.github.danielreker.javarenderer.core.enums.PrimitiveType;
+import io.github.danielreker.javarenderer.core.enums.RasterMode;
+import io.github.danielreker.javarenderer.core.present.FrameEncoder;
+import io.github.danielreker.javarenderer.core.shader.ShaderProgram;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Renders a turntable of the cube scene to PNG files without opening a window.
+// Usage: HeadlessDemo [output directory] [frame count]
+public class HeadlessDemo {
+    private static final int FRAME_WIDTH = 320;
+    private static final int FRAME_HEIGHT = 240;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        Path outputDirectory = Path.of(args.length > 0 ? args[0] : "frames");
+        int frameCount = args.length > 1 ? Integer.parseInt(args[1]) : 36;
+        Files.createDirectories(outputDirectory);
+
+        Renderer renderer = new Renderer();
+        renderer.setRasterMode(RasterMode.TILED_PARALLEL);
+        renderer.setFrontFace(FrontFace.CLOCKWISE);
+        renderer.setCullMode(CullMode.BACK);
+
+        VertexBuffer<CubeVertex> cubeVbo = VertexBuffer.create(CubeDemo.cubeVertexData);
+        IndexBuffer cubeIbo = IndexBuffer.create(CubeDemo.cubeIndices);
+        ShaderProgram<CubeVertexShaderIo, CubeFragmentShaderIo> cubeProgram =
+                ShaderProgram.create(new CubeVertexShader(), new CubeFragmentShader());
+        cubeProgram.setIoReuse(true);
+        cubeProgram.setUniform(cubeProgram.getUniformLocation("projection"), new Matrix4f().perspective(
+                (float) Math.toRadians(45.0f), (float) FRAME_WIDTH / FRAME_HEIGHT, 0.1f, 100.0f));
+        int viewLocation = cubeProgram.getUniformLocation("view");
+
+        List<CubeInstance> instances = new ArrayList<>();
+        for (Vector3f position : CubeDemo.cubePositions) {
+            Matrix4f model = new Matrix4f().translate(position).rotate(position.x + position.y, 0.5f, 1.0f, 0.0f);
+            instances.add(new CubeInstance(model));
+        }
+        VertexBuffer<CubeInstance> instanceVbo = VertexBuffer.create(instances);
+
+        long startTime = System.nanoTime();
+        int encoderThreadCount = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        try (FrameEncoder encoder = FrameEncoder.create(FRAME_WIDTH, FRAME_HEIGHT, 3, encoderThreadCount,
+                new Vector4f(0.1f, 0.1f, 0.1f, 1.0f), 1.0f)) {
+            encoder.encodeSequence(frameCount, (frameIndex, frameBuffer) -> {
+                float angle = (float) (2.0 * Math.PI * frameIndex / frameCount);
+                Vector3f eye = new Vector3f((float) Math.sin(angle) * 8.0f, 2.0f, (float) Math.cos(angle) * 8.0f);
+                cubeProgram.setUniform(viewLocation, new Matrix4f().lookAt(eye, new Vector3f(0.0f, 0.0f, -4.0f),
+                        new Vector3f(0.0f, 1.0f, 0.0f)));
+                renderer.renderIndexedInstanced(frameBuffer, cubeProgram, cubeVbo, cubeIbo,
+                        PrimitiveType.TRIANGLES, 0, cubeIbo.getIndexCount(), instances.size(), instanceVbo);
+            }, frameIndex -> outputDirectory.resolve(String.format("frame_%04d.png", frameIndex)), ImageFormat.PNG);
+            encoder.awaitCompletion();
+        }
+        System.out.printf("Wrote %d frames to %s in %.1f ms%n",
+                frameCount, outputDirectory, (System.nanoTime() - startTime) / 1_000_000.0);
+    }
+}
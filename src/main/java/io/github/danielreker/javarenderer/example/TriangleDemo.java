@@ -3,8 +3,8 @@ package io.github.danielreker.javarenderer.example;
 import io.github.danielreker.javarenderer.core.enums.PrimitiveType;
 import io.github.danielreker.javarenderer.core.Renderer;
 import io.github.danielreker.javarenderer.core.container.FrameBuffer;
-import io.github.danielreker.javarenderer.core.container.RenderBuffer;
 import io.github.danielreker.javarenderer.core.container.VertexBuffer;
+import io.github.danielreker.javarenderer.core.present.SwapChain;
 import io.github.danielreker.javarenderer.core.shader.*;
 import io.github.danielreker.javarenderer.core.shader.annotations.Attribute;
 import io.github.danielreker.javarenderer.core.shader.annotations.Uniform;
@@ -68,8 +68,13 @@ class DemoFragmentShader extends AbstractFragmentShader<DemoFragmentShaderIo> {
 public class TriangleDemo {
     private static final int FRAME_WIDTH = 512;
     private static final int FRAME_HEIGHT = 512;
+    private static final int TARGET_FRAME_RATE = 60;
     private static volatile boolean running = true;
 
+    // Only touched by the present thread.
+    private static long frameCount = 0;
+    private static long lastFpsTime = System.nanoTime();
+
     public static void main(String[] args) {
         JFrame frame = new JFrame("Java Renderer Demo");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -89,11 +94,12 @@ public class TriangleDemo {
 
         Renderer renderer = new Renderer();
         BufferedImage displayImage = new BufferedImage(FRAME_WIDTH, FRAME_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        SwapChain swapChain = SwapChain.create(FRAME_WIDTH, FRAME_HEIGHT, 2, new Vector4f(0.1f, 0.1f, 0.1f, 1f), 1.0f,
+                frameBuffer -> presentFrame(frameBuffer, displayImage, bufferStrategy, canvas));
+        swapChain.setTargetFrameRate(TARGET_FRAME_RATE);
 
         Thread renderThread = new Thread(() -> {
             long startTimeSec = System.nanoTime();
-            long frameCount = 0;
-            long lastFpsTime = System.nanoTime();
 
             while (running) {
                 long nowSec = System.nanoTime();
@@ -114,45 +120,15 @@ public class TriangleDemo {
                 prog.setUniform("intensityUniform", (float)(Math.sin(timeElapsed * 1e-9f) + 1.0f) / 2.0f);
 
 
-                FrameBuffer myCanvasFrameBuffer = FrameBuffer.create(FRAME_WIDTH, FRAME_HEIGHT, new Vector4f(0.1f, 0.1f, 0.1f, 1f), 1.0f);
-                renderer.render(myCanvasFrameBuffer, prog, vbo, PrimitiveType.TRIANGLES, 0, 3);
-
-                RenderBuffer<Vector4f> colorBuffer = myCanvasFrameBuffer.getColorAttachment();
-                for (int y = 0; y < FRAME_HEIGHT; y++) {
-                    for (int x = 0; x < FRAME_WIDTH; x++) {
-                        Vector4f pixelColorVec = colorBuffer.getValue(x, FRAME_HEIGHT - 1 - y);
-
-                        if (pixelColorVec != null) {
-                            int red = (int) (Math.min(Math.max(pixelColorVec.x, 0.0f), 1.0f) * 255.0f);
-                            int green = (int) (Math.min(Math.max(pixelColorVec.y, 0.0f), 1.0f) * 255.0f);
-                            int blue = (int) (Math.min(Math.max(pixelColorVec.z, 0.0f), 1.0f) * 255.0f);
-                            int alpha = (int) (Math.min(Math.max(pixelColorVec.w, 0.0f), 1.0f) * 255.0f);
-                            displayImage.setRGB(x, y, (alpha << 24) | (red << 16) | (green << 8) | blue);
-                        } else {
-                            displayImage.setRGB(x, y, 0xFF000000);
-                        }
-                    }
-                }
-
-                Graphics2D g = null;
+                FrameBuffer myCanvasFrameBuffer;
                 try {
-                    g = (Graphics2D) bufferStrategy.getDrawGraphics();
-                    g.drawImage(displayImage, 0, 0, canvas.getWidth(), canvas.getHeight(), null);
-                } finally {
-                    if (g != null) {
-                        g.dispose();
-                    }
-                }
-                if (!bufferStrategy.contentsLost()) {
-                    bufferStrategy.show();
-                }
-
-                frameCount++;
-                if (System.nanoTime() - lastFpsTime >= 1_000_000_000) {
-                    System.out.printf("FPS: %d\n", frameCount);
-                    frameCount = 0;
-                    lastFpsTime = System.nanoTime();
+                    myCanvasFrameBuffer = swapChain.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
                 }
+                renderer.render(myCanvasFrameBuffer, prog, vbo, PrimitiveType.TRIANGLES, 0, 3);
+                swapChain.present(myCanvasFrameBuffer);
             }
         });
         renderThread.setName("RenderThread");
@@ -167,7 +143,38 @@ public class TriangleDemo {
                 } catch (InterruptedException e) {
                     throw new RuntimeException(e);
                 }
+                swapChain.close();
             }
         });
     }
+
+    // Runs on the swap chain's present thread, while the next frame is being rendered.
+    private static void presentFrame(
+            FrameBuffer frameBuffer,
+            BufferedImage displayImage,
+            BufferStrategy bufferStrategy,
+            Canvas canvas
+    ) {
+        frameBuffer.resolveColor(displayImage, true, true);
+
+        Graphics2D g = null;
+        try {
+            g = (Graphics2D) bufferStrategy.getDrawGraphics();
+            g.drawImage(displayImage, 0, 0, canvas.getWidth(), canvas.getHeight(), null);
+        } finally {
+            if (g != null) {
+                g.dispose();
+            }
+        }
+        if (!bufferStrategy.contentsLost()) {
+            bufferStrategy.show();
+        }
+
+        frameCount++;
+        if (System.nanoTime() - lastFpsTime >= 1_000_000_000) {
+            System.out.printf("FPS: %d\n", frameCount);
+            frameCount = 0;
+            lastFpsTime = System.nanoTime();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+package io.github.danielreker.javarenderer.core;
+
+import io.github.danielreker.javarenderer.core.RenderTestSupport.ColorFragmentShaderIo;
+import io.github.danielreker.javarenderer.core.RenderTestSupport.ColorVertexShaderIo;
+import io.github.danielreker.javarenderer.core.RenderTestSupport.ColoredVertex;
+import io.github.danielreker.javarenderer.core.container.FrameBuffer;
+import io.github.danielreker.javarenderer.core.container.IndexBuffer;
+import io.github.danielreker.javarenderer.core.container.VertexBuffer;
+import io.github.danielreker.javarenderer.core.enums.CullMode;
+import io.github.danielreker.javarenderer.core.enums.PrimitiveType;
+import io.github.danielreker.javarenderer.core.shader.ShaderProgram;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.danielreker.javarenderer.core.RenderTestSupport.colorProgram;
+import static io.github.danielreker.javarenderer.core.RenderTestSupport.frameBuffer;
+import static io.github.danielreker.javarenderer.core.RenderTestSupport.pixels;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CommandBufferTest {
+    private static final int RED_ARGB = 0xFFFF0000;
+    private static final int GREEN_ARGB = 0xFF00FF00;
+    private static final int BLUE_ARGB = 0xFF0000FF;
+    private static final int CENTER = 16 * 32 + 16;
+
+    // A counter-clockwise triangle covering the center of the target, in one color at one depth.
+    private static VertexBuffer<ColoredVertex> triangle(float offsetX, float z, int argb) {
+        Vector4f color = new Vector4f(((argb >> 16) & 0xFF) / 255.0f, ((argb >> 8) & 0xFF) / 255.0f,
+                (argb & 0xFF) / 255.0f, 1.0f);
+        return VertexBuffer.create(List.of(
+                new ColoredVertex(offsetX - 0.7f, -0.6f, z, color),
+                new ColoredVertex(offsetX + 0.7f, -0.6f, z, color),
+                new ColoredVertex(offsetX, 0.8f, z, color)
+        ));
+    }
+
+    @Test
+    void submitMatchesImmediateDraws() {
+        ShaderProgram<ColorVertexShaderIo, ColorFragmentShaderIo> first = colorProgram();
+        ShaderProgram<ColorVertexShaderIo, ColorFragmentShaderIo> second = colorProgram();
+        VertexBuffer<ColoredVertex> near = triangle(-0.2f, -0.5f, RED_ARGB);
+        VertexBuffer<ColoredVertex> middle = triangle(0.3f, 0.0f, GREEN_ARGB);
+        VertexBuffer<ColoredVertex> far = triangle(0.0f, 0.5f, BLUE_ARGB);
+        IndexBuffer indices = IndexBuffer.create(new int[]{0, 1, 2});
+
+        Renderer immediate = new Renderer();
+        FrameBuffer expected = frameBuffer(32, 32);
+        immediate.render(expected, first, far, PrimitiveType.TRIANGLES, 0, 3);
+        immediate.renderIndexed(expected, second, near, indices, PrimitiveType.TRIANGLES, 0, 3);
+        immediate.render(expected, first, middle, PrimitiveType.TRIANGLES, 0, 3);
+
+        Renderer deferred = new Renderer();
+        FrameBuffer actual = frameBuffer(32, 32);
+        CommandBuffer commands = deferred.newCommandBuffer();
+        commands.draw(actual, first, far, PrimitiveType.TRIANGLES, 0, 3);
+        commands.drawIndexed(actual, second, near, indices, PrimitiveType.TRIANGLES, 0, 3);
+        commands.draw(actual, first, middle, PrimitiveType.TRIANGLES, 0, 3);
+        deferred.submit(commands);
+
+        assertEquals(RED_ARGB, pixels(expected)[CENTER]);
+        assertArrayEquals(pixels(expected), pixels(actual));
+    }
+
+    @Test
+    void recordsCullModeOfEachDraw() {
+        Renderer renderer = new Renderer();
+        FrameBuffer frameBuffer = frameBuffer(32, 32);
+        CommandBuffer commands = renderer.newCommandBuffer();
+        renderer.setCullMode(CullMode.FRONT);
+        commands.draw(frameBuffer, colorProgram(), triangle(0.0f, 0.0f, RED_ARGB), PrimitiveType.TRIANGLES, 0, 3);
+        renderer.setCullMode(CullMode.NONE);
+        renderer.submit(commands);
+
+        assertEquals(RenderTestSupport.CLEAR_ARGB, pixels(frameBuffer)[CENTER]);
+    }
+
+    // Equal depths fail the depth test, so the first draw rasterized keeps the pixel.
+    private static int firstRasterized(CommandBuffer commands, FrameBuffer frameBuffer) {
+        commands.getRenderer().submit(commands);
+        return pixels(frameBuffer)[CENTER];
+    }
+
+    @Test
+    void setsUpOpaqueDrawsFrontToBack() {
+        Renderer renderer = new Renderer();
+        FrameBuffer frameBuffer = frameBuffer(32, 32);
+        ShaderProgram<ColorVertexShaderIo, ColorFragmentShaderIo> program = colorProgram();
+        CommandBuffer commands = renderer.newCommandBuffer();
+        commands.setSortDepth(5.0f);
+        commands.draw(frameBuffer, program, triangle(0.0f, 0.0f, RED_ARGB), PrimitiveType.TRIANGLES, 0, 3);
+        commands.setSortDepth(1.0f);
+        commands.draw(frameBuffer, program, triangle(0.0f, 0.0f, GREEN_ARGB), PrimitiveType.TRIANGLES, 0, 3);
+
+        assertEquals(GREEN_ARGB, firstRasterized(commands, frameBuffer));
+    }
+
+    @Test
+    void breaksSortDepthTiesByRecordingOrder() {
+        Renderer renderer = new Renderer();
+        FrameBuffer frameBuffer = frameBuffer(32, 32);
+        ShaderProgram<ColorVertexShaderIo, ColorFragmentShaderIo> program = colorProgram();
+        CommandBuffer commands = renderer.newCommandBuffer();
+        commands.setSortDepth(1.0f);
+        for (int argb : new int[]{BLUE_ARGB, RED_ARGB, GREEN_ARGB}) {
+            commands.draw(frameBuffer, program, triangle(0.0f, 0.0f, argb), PrimitiveType.TRIANGLES, 0, 3);
+        }
+
+        assertEquals(BLUE_ARGB, firstRasterized(commands, frameBuffer));
+    }
+
+    @Test
+    void keepsTranslucentDrawsInRecordingOrder() {
+        Renderer renderer = new Renderer();
+        FrameBuffer frameBuffer = frameBuffer(32, 32);
+        ShaderProgram<ColorVertexShaderIo, ColorFragmentShaderIo> program = colorProgram();
+        CommandBuffer commands = renderer.newCommandBuffer();
+        commands.setOpaque(false);
+        commands.setSortDepth(5.0f);
+        commands.draw(frameBuffer, program, triangle(0.0f, 0.0f, RED_ARGB), PrimitiveType.TRIANGLES, 0, 3);
+        commands.setSortDepth(1.0f);
+        commands.draw(frameBuffer, program, triangle(0.0f, 0.0f, GREEN_ARGB), PrimitiveType.TRIANGLES, 0, 3);
+
+        assertEquals(RED_ARGB, firstRasterized(commands, frameBuffer));
+    }
+
+    @Test
+    void rejectsBuffersOfOtherRenderers() {
+        CommandBuffer commands = new Renderer().newCommandBuffer();
+        assertThrows(IllegalArgumentException.class, () -> new Renderer().submit(commands));
+    }
+}
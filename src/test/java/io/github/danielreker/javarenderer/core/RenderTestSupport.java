@@ -0,0 +1,76 @@
+package io.github.danielreker.javarenderer.core;
+
+import io.github.danielreker.javarenderer.core.container.FrameBuffer;
+import io.github.danielreker.javarenderer.core.shader.AbstractFragmentShader;
+import io.github.danielreker.javarenderer.core.shader.AbstractVertexShader;
+import io.github.danielreker.javarenderer.core.shader.ShaderProgram;
+import io.github.danielreker.javarenderer.core.shader.annotations.Attribute;
+import io.github.danielreker.javarenderer.core.shader.annotations.Varying;
+import io.github.danielreker.javarenderer.core.shader.io.FragmentShaderIoBase;
+import io.github.danielreker.javarenderer.core.shader.io.VertexShaderIoBase;
+import org.joml.Vector4f;
+
+// Clip-space vertices with a flat color per vertex, and helpers to read back packed ARGB pixels.
+final class RenderTestSupport {
+    static final int CLEAR_ARGB = 0xFF000000;
+
+    private RenderTestSupport() {}
+
+    static class ColoredVertex {
+        Vector4f position;
+        Vector4f color;
+
+        ColoredVertex(float x, float y, float z, Vector4f color) {
+            this.position = new Vector4f(x, y, z, 1.0f);
+            this.color = color;
+        }
+    }
+
+    public static class ColorVertexShaderIo extends VertexShaderIoBase {
+        @Attribute public Vector4f position;
+        @Attribute public Vector4f color;
+
+        @Varying public Vector4f colorVarying = new Vector4f();
+    }
+
+    public static class ColorVertexShader extends AbstractVertexShader<ColorVertexShaderIo> {
+        @Override
+        public void main(ColorVertexShaderIo io) {
+            io.gl_Position.set(io.position);
+            io.colorVarying.set(io.color);
+        }
+    }
+
+    public static class ColorFragmentShaderIo extends FragmentShaderIoBase {
+        @Varying public Vector4f colorVarying;
+    }
+
+    public static class ColorFragmentShader extends AbstractFragmentShader<ColorFragmentShaderIo> {
+        @Override
+        public void main(ColorFragmentShaderIo io) {
+            io.gl_FragColor.set(io.colorVarying);
+        }
+    }
+
+    static ShaderProgram<ColorVertexShaderIo, ColorFragmentShaderIo> colorProgram() {
+        return ShaderProgram.create(new ColorVertexShader(), new ColorFragmentShader());
+    }
+
+    static FrameBuffer frameBuffer(int width, int height) {
+        return FrameBuffer.create(width, height, new Vector4f(0.0f, 0.0f, 0.0f, 1.0f), 1.0f);
+    }
+
+    static int[] pixels(FrameBuffer frameBuffer) {
+        int[] argb = new int[frameBuffer.getWidth() * frameBuffer.getHeight()];
+        frameBuffer.resolveColor(argb, false, false);
+        return argb;
+    }
+
+    static int countPixels(FrameBuffer frameBuffer, int argb) {
+        int count = 0;
+        for (int pixel : pixels(frameBuffer)) {
+            if (pixel == argb) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.danielreker.javarenderer.core;
+
+import io.github.danielreker.javarenderer.core.container.FrameBuffer;
+import io.github.danielreker.javarenderer.core.container.VertexBuffer;
+import io.github.danielreker.javarenderer.core.enums.PrimitiveType;
+import io.github.danielreker.javarenderer.core.shader.AbstractFragmentShader;
+import io.github.danielreker.javarenderer.core.shader.AbstractVertexShader;
+import io.github.danielreker.javarenderer.core.shader.ShaderProgram;
+import io.github.danielreker.javarenderer.core.shader.annotations.Attribute;
+import io.github.danielreker.javarenderer.core.shader.io.FragmentShaderIoBase;
+import io.github.danielreker.javarenderer.core.shader.io.VertexShaderIoBase;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+class RendererClippingTest {
+
+    static class ClipSpaceVertex {
+        Vector4f position;
+
+        ClipSpaceVertex(float x, float y, float z, float w) {
+            this.position = new Vector4f(x, y, z, w);
+        }
+    }
+
+    public static class PassThroughVertexShaderIo extends VertexShaderIoBase {
+        @Attribute public Vector4f position;
+    }
+
+    public static class PassThroughVertexShader extends AbstractVertexShader<PassThroughVertexShaderIo> {
+        @Override
+        public void main(PassThroughVertexShaderIo io) {
+            io.gl_Position.set(io.position);
+        }
+    }
+
+    public static class WhiteFragmentShaderIo extends FragmentShaderIoBase {
+    }
+
+    public static class WhiteFragmentShader extends AbstractFragmentShader<WhiteFragmentShaderIo> {
+        @Override
+        public void main(WhiteFragmentShaderIo io) {
+            io.gl_FragColor.set(1.0f, 1.0f, 1.0f, 1.0f);
+        }
+    }
+
+    // Rounding makes this triangle's clipped polygon slightly non-convex, so one guard band plane adds two
+    // vertices; the polygon grows to nine vertices before the last plane.
+    @Test
+    void clipsTriangleWhoseClippedPolygonIsNotConvex() {
+        Renderer renderer = new Renderer();
+        FrameBuffer frameBuffer = FrameBuffer.create(800, 600, new Vector4f(0.0f, 0.0f, 0.0f, 1.0f), 1.0f);
+        VertexBuffer<ClipSpaceVertex> vbo = VertexBuffer.create(List.of(
+                new ClipSpaceVertex(-801.5442f, 1497.7087f, 0.59574246f, 0.374498f),
+                new ClipSpaceVertex(2.7897395E8f, -1.7176869E9f, 328177.7f, 1.00005105E-4f),
+                new ClipSpaceVertex(1.121726f, -1.617848f, -3.174894E-4f, 9.9950565E-5f)
+        ));
+        ShaderProgram<PassThroughVertexShaderIo, WhiteFragmentShaderIo> program =
+                ShaderProgram.create(new PassThroughVertexShader(), new WhiteFragmentShader());
+
+        assertDoesNotThrow(() -> renderer.render(frameBuffer, program, vbo, PrimitiveType.TRIANGLES, 0, 3));
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.danielreker.javarenderer.core;
+
+import io.github.danielreker.javarenderer.core.RenderTestSupport.ColoredVertex;
+import io.github.danielreker.javarenderer.core.container.FrameBuffer;
+import io.github.danielreker.javarenderer.core.container.VertexBuffer;
+import io.github.danielreker.javarenderer.core.enums.CullMode;
+import io.github.danielreker.javarenderer.core.enums.FrontFace;
+import io.github.danielreker.javarenderer.core.enums.PrimitiveType;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.danielreker.javarenderer.core.RenderTestSupport.colorProgram;
+import static io.github.danielreker.javarenderer.core.RenderTestSupport.countPixels;
+import static io.github.danielreker.javarenderer.core.RenderTestSupport.frameBuffer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RendererCullingTest {
+    private static final Vector4f WHITE = new Vector4f(1.0f, 1.0f, 1.0f, 1.0f);
+    private static final int WHITE_ARGB = 0xFFFFFFFF;
+
+    // Counter-clockwise in normalized device coordinates, which is front-facing by default.
+    private static final VertexBuffer<ColoredVertex> COUNTER_CLOCKWISE = VertexBuffer.create(List.of(
+            new ColoredVertex(-0.5f, -0.5f, 0.0f, WHITE),
+            new ColoredVertex(0.5f, -0.5f, 0.0f, WHITE),
+            new ColoredVertex(0.0f, 0.5f, 0.0f, WHITE)
+    ));
+    private static final VertexBuffer<ColoredVertex> CLOCKWISE = VertexBuffer.create(List.of(
+            new ColoredVertex(-0.5f, -0.5f, 0.0f, WHITE),
+            new ColoredVertex(0.0f, 0.5f, 0.0f, WHITE),
+            new ColoredVertex(0.5f, -0.5f, 0.0f, WHITE)
+    ));
+
+    // Whether the triangle covered any pixels; also checks the culled counter against the outcome.
+    private static boolean isDrawn(CullMode cullMode, FrontFace frontFace, VertexBuffer<ColoredVertex> triangle) {
+        Renderer renderer = new Renderer();
+        renderer.setCullMode(cullMode);
+        renderer.setFrontFace(frontFace);
+        FrameBuffer frameBuffer = frameBuffer(32, 32);
+        renderer.render(frameBuffer, colorProgram(), triangle, PrimitiveType.TRIANGLES, 0, 3);
+
+        boolean drawn = countPixels(frameBuffer, WHITE_ARGB) > 0;
+        assertEquals(drawn ? 0 : 1, renderer.getCulledTriangleCount());
+        assertEquals(0, renderer.getDegenerateTriangleCount());
+        return drawn;
+    }
+
+    @Test
+    void noneDrawsBothWindings() {
+        for (FrontFace frontFace : FrontFace.values()) {
+            assertTrue(isDrawn(CullMode.NONE, frontFace, COUNTER_CLOCKWISE));
+            assertTrue(isDrawn(CullMode.NONE, frontFace, CLOCKWISE));
+        }
+    }
+
+    @Test
+    void backCullsTrianglesFacingAway() {
+        assertTrue(isDrawn(CullMode.BACK, FrontFace.COUNTER_CLOCKWISE, COUNTER_CLOCKWISE));
+        assertFalse(isDrawn(CullMode.BACK, FrontFace.COUNTER_CLOCKWISE, CLOCKWISE));
+        assertFalse(isDrawn(CullMode.BACK, FrontFace.CLOCKWISE, COUNTER_CLOCKWISE));
+        assertTrue(isDrawn(CullMode.BACK, FrontFace.CLOCKWISE, CLOCKWISE));
+    }
+
+    @Test
+    void frontCullsTrianglesFacingTheViewer() {
+        assertFalse(isDrawn(CullMode.FRONT, FrontFace.COUNTER_CLOCKWISE, COUNTER_CLOCKWISE));
+        assertTrue(isDrawn(CullMode.FRONT, FrontFace.COUNTER_CLOCKWISE, CLOCKWISE));
+        assertTrue(isDrawn(CullMode.FRONT, FrontFace.CLOCKWISE, COUNTER_CLOCKWISE));
+        assertFalse(isDrawn(CullMode.FRONT, FrontFace.CLOCKWISE, CLOCKWISE));
+    }
+
+    @Test
+    void countsDegenerateTrianglesSeparately() {
+        Renderer renderer = new Renderer();
+        renderer.setCullMode(CullMode.BACK);
+        renderer.setStatisticsEnabled(true);
+        VertexBuffer<ColoredVertex> collinear = VertexBuffer.create(List.of(
+                new ColoredVertex(-0.5f, -0.5f, 0.0f, WHITE),
+                new ColoredVertex(0.0f, 0.0f, 0.0f, WHITE),
+                new ColoredVertex(0.5f, 0.5f, 0.0f, WHITE)
+        ));
+        FrameBuffer frameBuffer = frameBuffer(32, 32);
+        renderer.render(frameBuffer, colorProgram(), collinear, PrimitiveType.TRIANGLES, 0, 3);
+        renderer.render(frameBuffer, colorProgram(), CLOCKWISE, PrimitiveType.TRIANGLES, 0, 3);
+
+        assertEquals(0, countPixels(frameBuffer, WHITE_ARGB));
+        assertEquals(1, renderer.getDegenerateTriangleCount());
+        assertEquals(1, renderer.getCulledTriangleCount());
+        assertEquals(1, renderer.getStatistics().getTrianglesDegenerate());
+        assertEquals(1, renderer.getStatistics().getTrianglesCulled());
+        assertEquals(0, renderer.getStatistics().getTrianglesRasterized());
+
+        renderer.resetTriangleCounters();
+        assertEquals(0, renderer.getDegenerateTriangleCount());
+        assertEquals(0, renderer.getCulledTriangleCount());
+    }
+
+    @Test
+    void rejectsNullModes() {
+        Renderer renderer = new Renderer();
+        assertThrows(NullPointerException.class, () -> renderer.setCullMode(null));
+        assertThrows(NullPointerException.class, () -> renderer.setFrontFace(null));
+    }
+}
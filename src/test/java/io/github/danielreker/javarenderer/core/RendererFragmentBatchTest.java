@@ -0,0 +1,77 @@
+package io.github.danielreker.javarenderer.core;
+
+import io.github.danielreker.javarenderer.core.RenderTestSupport.ColorFragmentShader;
+import io.github.danielreker.javarenderer.core.RenderTestSupport.ColorFragmentShaderIo;
+import io.github.danielreker.javarenderer.core.RenderTestSupport.ColorVertexShader;
+import io.github.danielreker.javarenderer.core.RenderTestSupport.ColorVertexShaderIo;
+import io.github.danielreker.javarenderer.core.RenderTestSupport.ColoredVertex;
+import io.github.danielreker.javarenderer.core.container.FrameBuffer;
+import io.github.danielreker.javarenderer.core.container.VertexBuffer;
+import io.github.danielreker.javarenderer.core.enums.PrimitiveType;
+import io.github.danielreker.javarenderer.core.enums.RasterMode;
+import io.github.danielreker.javarenderer.core.shader.PerFragmentShaderAdapter;
+import io.github.danielreker.javarenderer.core.shader.ShaderProgram;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.danielreker.javarenderer.core.RenderTestSupport.colorProgram;
+import static io.github.danielreker.javarenderer.core.RenderTestSupport.frameBuffer;
+import static io.github.danielreker.javarenderer.core.RenderTestSupport.pixels;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RendererFragmentBatchTest {
+    // Two overlapping triangles at different depths with interpolated colors, crossing many 8x8 blocks.
+    private static final VertexBuffer<ColoredVertex> SCENE = VertexBuffer.create(List.of(
+            new ColoredVertex(-0.9f, -0.7f, 0.5f, new Vector4f(1.0f, 0.0f, 0.0f, 1.0f)),
+            new ColoredVertex(0.8f, -0.9f, 0.5f, new Vector4f(0.0f, 1.0f, 0.0f, 1.0f)),
+            new ColoredVertex(0.1f, 0.95f, 0.5f, new Vector4f(0.0f, 0.0f, 1.0f, 1.0f)),
+            new ColoredVertex(-0.6f, 0.6f, -0.2f, new Vector4f(1.0f, 1.0f, 0.0f, 1.0f)),
+            new ColoredVertex(-0.3f, -0.8f, 0.9f, new Vector4f(0.0f, 1.0f, 1.0f, 0.5f)),
+            new ColoredVertex(0.9f, 0.3f, 0.2f, new Vector4f(1.0f, 0.0f, 1.0f, 1.0f))
+    ));
+
+    private static int[] render(Renderer renderer, ShaderProgram<ColorVertexShaderIo, ColorFragmentShaderIo> program) {
+        FrameBuffer frameBuffer = frameBuffer(61, 47);
+        renderer.render(frameBuffer, program, SCENE, PrimitiveType.TRIANGLES, 0, 6);
+        return pixels(frameBuffer);
+    }
+
+    private static ShaderProgram<ColorVertexShaderIo, ColorFragmentShaderIo> adaptedProgram() {
+        return ShaderProgram.create(new ColorVertexShader(), new PerFragmentShaderAdapter<>(new ColorFragmentShader()));
+    }
+
+    @Test
+    void adaptedPerFragmentShaderMatchesPerPixelPath() {
+        ShaderProgram<ColorVertexShaderIo, ColorFragmentShaderIo> perPixel = colorProgram();
+        ShaderProgram<ColorVertexShaderIo, ColorFragmentShaderIo> batched = adaptedProgram();
+        assertFalse(perPixel.isFragmentShaderBatched());
+        assertTrue(batched.isFragmentShaderBatched());
+
+        int[] expected = render(new Renderer(), perPixel);
+        assertNotEquals(RenderTestSupport.CLEAR_ARGB, expected[23 * 61 + 30]);
+        assertArrayEquals(expected, render(new Renderer(), batched));
+    }
+
+    @Test
+    void adaptedPerFragmentShaderMatchesPerPixelPathWhenTiled() {
+        Renderer renderer = new Renderer();
+        renderer.setRasterMode(RasterMode.TILED_PARALLEL);
+        try {
+            assertArrayEquals(render(renderer, colorProgram()), render(renderer, adaptedProgram()));
+        } finally {
+            renderer.shutdown();
+        }
+    }
+
+    @Test
+    void perFragmentProgramRejectsBatchExecution() {
+        ShaderProgram<ColorVertexShaderIo, ColorFragmentShaderIo> perPixel = colorProgram();
+        assertThrows(IllegalStateException.class, () -> perPixel.executeFragmentBatch(null));
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.danielreker.javarenderer.core;
+
+import io.github.danielreker.javarenderer.core.RenderTestSupport.ColorFragmentShaderIo;
+import io.github.danielreker.javarenderer.core.RenderTestSupport.ColorVertexShaderIo;
+import io.github.danielreker.javarenderer.core.RenderTestSupport.ColoredVertex;
+import io.github.danielreker.javarenderer.core.container.FrameBuffer;
+import io.github.danielreker.javarenderer.core.container.IndexBuffer;
+import io.github.danielreker.javarenderer.core.container.VertexBuffer;
+import io.github.danielreker.javarenderer.core.enums.PrimitiveType;
+import io.github.danielreker.javarenderer.core.shader.ShaderProgram;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.danielreker.javarenderer.core.RenderTestSupport.colorProgram;
+import static io.github.danielreker.javarenderer.core.RenderTestSupport.frameBuffer;
+import static io.github.danielreker.javarenderer.core.RenderTestSupport.pixels;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RendererIndexedDrawTest {
+    private static final Vector4f RED = new Vector4f(1.0f, 0.0f, 0.0f, 1.0f);
+    private static final Vector4f GREEN = new Vector4f(0.0f, 1.0f, 0.0f, 1.0f);
+    private static final Vector4f BLUE = new Vector4f(0.0f, 0.0f, 1.0f, 1.0f);
+    private static final Vector4f WHITE = new Vector4f(1.0f, 1.0f, 1.0f, 1.0f);
+
+    private static final ColoredVertex[] QUAD = {
+            new ColoredVertex(-0.8f, -0.8f, 0.0f, RED),
+            new ColoredVertex(0.8f, -0.8f, 0.0f, GREEN),
+            new ColoredVertex(0.8f, 0.8f, 0.0f, BLUE),
+            new ColoredVertex(-0.8f, 0.8f, 0.0f, WHITE)
+    };
+    private static final int[] QUAD_INDICES = {0, 1, 2, 0, 2, 3};
+
+    // The quad's corners sit at the given vertex indices of an otherwise unused buffer.
+    private static VertexBuffer<ColoredVertex> spreadQuad(int[] cornerIndices, int vertexCount) {
+        List<ColoredVertex> vertices = new ArrayList<>(vertexCount);
+        for (int i = 0; i < vertexCount; i++) {
+            vertices.add(new ColoredVertex(0.0f, 0.0f, 0.0f, RED));
+        }
+        for (int corner = 0; corner < QUAD.length; corner++) {
+            vertices.set(cornerIndices[corner], QUAD[corner]);
+        }
+        return VertexBuffer.create(vertices);
+    }
+
+    private static int[] remapIndices(int[] cornerIndices) {
+        int[] indices = new int[QUAD_INDICES.length];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = cornerIndices[QUAD_INDICES[i]];
+        }
+        return indices;
+    }
+
+    private static int[] renderUnindexedQuad() {
+        List<ColoredVertex> triangles = new ArrayList<>();
+        for (int index : QUAD_INDICES) {
+            triangles.add(QUAD[index]);
+        }
+        FrameBuffer frameBuffer = frameBuffer(64, 64);
+        new Renderer().render(frameBuffer, colorProgram(), VertexBuffer.create(triangles),
+                PrimitiveType.TRIANGLES, 0, triangles.size());
+        return pixels(frameBuffer);
+    }
+
+    private static int[] renderIndexedQuad(
+            Renderer renderer,
+            ShaderProgram<ColorVertexShaderIo, ColorFragmentShaderIo> program,
+            int[] cornerIndices,
+            int vertexCount
+    ) {
+        FrameBuffer frameBuffer = frameBuffer(64, 64);
+        renderer.renderIndexed(frameBuffer, program, spreadQuad(cornerIndices, vertexCount),
+                IndexBuffer.create(remapIndices(cornerIndices)), PrimitiveType.TRIANGLES, 0, QUAD_INDICES.length);
+        return pixels(frameBuffer);
+    }
+
+    @Test
+    void denseIndicesMatchUnindexedDraw() {
+        Renderer renderer = new Renderer();
+        renderer.setStatisticsEnabled(true);
+        int[] pixels = renderIndexedQuad(renderer, colorProgram(), new int[]{3, 5, 4, 6}, 8);
+
+        assertNotEquals(RenderTestSupport.CLEAR_ARGB, pixels[32 * 64 + 32]);
+        assertArrayEquals(renderUnindexedQuad(), pixels);
+        assertEquals(4, renderer.getStatistics().getVertexShaderInvocations());
+    }
+
+    @Test
+    void sparseIndicesMatchUnindexedDraw() {
+        Renderer renderer = new Renderer();
+        renderer.setStatisticsEnabled(true);
+        int[] pixels = renderIndexedQuad(renderer, colorProgram(), new int[]{0, 70_000, 20_000, 99_999}, 100_000);
+
+        assertArrayEquals(renderUnindexedQuad(), pixels);
+        assertEquals(4, renderer.getStatistics().getVertexShaderInvocations());
+    }
+
+    @Test
+    void ioPoolScalesWithDistinctIndicesNotTheirSpan() {
+        ShaderProgram<ColorVertexShaderIo, ColorFragmentShaderIo> program = colorProgram();
+        program.setIoReuse(true);
+        renderIndexedQuad(new Renderer(), program, new int[]{0, 70_000, 20_000, 99_999}, 100_000);
+
+        assertTrue(program.acquireVertexIoPool(0).getCapacity() <= QUAD.length);
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.danielreker.javarenderer.core.mesh;
+
+import io.github.danielreker.javarenderer.core.container.IndexBuffer;
+import io.github.danielreker.javarenderer.core.container.LayoutVertexBuffer;
+import io.github.danielreker.javarenderer.core.container.VertexLayout;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MeshFileTest {
+    private static final String LAYOUT = "position: float3, weight: float, model: mat4";
+    private static final int VERTEX_COUNT = 3;
+    private static final int[] INDICES = {0, 1, 2, 2, 1, 0, 1};
+
+    @TempDir
+    Path tempDir;
+
+    private static float[] sequence(int length, float start) {
+        float[] values = new float[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = start + i;
+        }
+        return values;
+    }
+
+    private Path writeSampleMesh() throws IOException {
+        LayoutVertexBuffer vertices = LayoutVertexBuffer.create(VertexLayout.parse(LAYOUT), VERTEX_COUNT,
+                sequence(3 * VERTEX_COUNT, 0.5f), sequence(VERTEX_COUNT, 100.0f), sequence(16 * VERTEX_COUNT, -8.0f));
+        Path path = tempDir.resolve("sample.jrmesh");
+        MeshFile.write(path, vertices, IndexBuffer.create(INDICES));
+        return path;
+    }
+
+    private static void assertColumn(float[] expected, FloatBuffer actual) {
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual.get(i));
+        }
+    }
+
+    private static void overwriteInt(Path path, int offset, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(0, value), offset);
+        }
+    }
+
+    @Test
+    void mapsWhatWasWritten() throws IOException {
+        Mesh mesh = MeshFile.map(writeSampleMesh());
+        LayoutVertexBuffer vertices = mesh.getVertexBuffer();
+
+        assertEquals(LAYOUT, vertices.getLayout().toString());
+        assertEquals(VERTEX_COUNT, vertices.getVertexCount());
+        assertColumn(sequence(3 * VERTEX_COUNT, 0.5f), vertices.getColumn(0));
+        assertColumn(sequence(VERTEX_COUNT, 100.0f), vertices.getColumn(1));
+        assertColumn(sequence(16 * VERTEX_COUNT, -8.0f), vertices.getColumn(2));
+        assertEquals(INDICES.length, mesh.getIndexBuffer().getIndexCount());
+        for (int i = 0; i < INDICES.length; i++) {
+            assertEquals(INDICES[i], mesh.getIndexBuffer().getIndex(i));
+        }
+    }
+
+    @Test
+    void startsEverySectionOnA16ByteBoundary() throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(writeSampleMesh())).order(ByteOrder.LITTLE_ENDIAN);
+        int layoutLength = LAYOUT.getBytes(StandardCharsets.UTF_8).length;
+
+        // 20 header bytes plus the layout; a 9-float, a 3-float and a 48-float column; then the indices.
+        int positions = align16(20 + layoutLength);
+        int weights = align16(positions + 9 * Float.BYTES);
+        int models = align16(weights + 3 * Float.BYTES);
+        int indices = align16(models + 48 * Float.BYTES);
+        assertEquals(0.5f, bytes.getFloat(positions));
+        assertEquals(100.0f, bytes.getFloat(weights));
+        assertEquals(-8.0f, bytes.getFloat(models));
+        assertEquals(INDICES[1], bytes.getInt(indices + Integer.BYTES));
+        assertEquals(indices + INDICES.length * Integer.BYTES, bytes.capacity());
+        for (int padding = weights + 3 * Float.BYTES; padding < models; padding++) {
+            assertEquals(0, bytes.get(padding));
+        }
+    }
+
+    private static int align16(int offset) {
+        return (offset + 15) & -16;
+    }
+
+    @Test
+    void rejectsTruncatedFiles() throws IOException {
+        Path path = writeSampleMesh();
+        long size = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 1);
+        }
+        assertThrows(IOException.class, () -> MeshFile.map(path));
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(12);
+        }
+        assertThrows(IOException.class, () -> MeshFile.map(path));
+    }
+
+    @Test
+    void rejectsCorruptHeaders() throws IOException {
+        Path badMagic = writeSampleMesh();
+        overwriteInt(badMagic, 0, 0x12345678);
+        assertThrows(IOException.class, () -> MeshFile.map(badMagic));
+
+        Path badVersion = writeSampleMesh();
+        overwriteInt(badVersion, 4, 99);
+        assertThrows(IOException.class, () -> MeshFile.map(badVersion));
+
+        Path negativeVertexCount = writeSampleMesh();
+        overwriteInt(negativeVertexCount, 8, -1);
+        assertThrows(IOException.class, () -> MeshFile.map(negativeVertexCount));
+
+        Path hugeIndexCount = writeSampleMesh();
+        overwriteInt(hugeIndexCount, 12, 1 << 20);
+        assertThrows(IOException.class, () -> MeshFile.map(hugeIndexCount));
+
+        Path badLayout = writeSampleMesh();
+        // Turns the first "float3" into an unknown type name.
+        overwriteInt(badLayout, 20 + LAYOUT.indexOf("float3"), 0x7A7A7A7A);
+        assertThrows(IOException.class, () -> MeshFile.map(badLayout));
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.danielreker.javarenderer.core.mesh;
+
+import io.github.danielreker.javarenderer.core.container.IndexBuffer;
+import io.github.danielreker.javarenderer.core.container.LayoutVertexBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.FloatBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ObjConverterTest {
+    private static final String QUAD_POSITIONS = """
+            v 0 0 0
+            v 1 0 0
+            v 1 1 0
+            v 0 1 0
+            """;
+
+    private static Mesh read(String obj) throws IOException {
+        return ObjConverter.read(new StringReader(obj));
+    }
+
+    private static float[] column(Mesh mesh, String name) {
+        LayoutVertexBuffer vertices = mesh.getVertexBuffer();
+        FloatBuffer column = vertices.getColumn(vertices.getLayout().indexOf(name));
+        int componentCount = vertices.getLayout().getAttribute(vertices.getLayout().indexOf(name))
+                .getFormat().getComponentCount();
+        float[] values = new float[vertices.getVertexCount() * componentCount];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = column.get(i);
+        }
+        return values;
+    }
+
+    private static int[] indices(Mesh mesh) {
+        IndexBuffer indexBuffer = mesh.getIndexBuffer();
+        int[] indices = new int[indexBuffer.getIndexCount()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = indexBuffer.getIndex(i);
+        }
+        return indices;
+    }
+
+    @Test
+    void fansQuadsAndKeepsPositionOnlyLayout() throws IOException {
+        Mesh mesh = read(QUAD_POSITIONS + "f 1 2 3 4\n");
+
+        assertEquals("position: float3", mesh.getVertexBuffer().getLayout().toString());
+        assertEquals(4, mesh.getVertexBuffer().getVertexCount());
+        assertArrayEquals(new int[]{0, 1, 2, 0, 2, 3}, indices(mesh));
+        assertArrayEquals(new float[]{0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 1, 0}, column(mesh, "position"));
+    }
+
+    @Test
+    void readsPositionAndNormalWithoutTexCoord() throws IOException {
+        Mesh mesh = read(QUAD_POSITIONS + """
+                vn 0 0 1
+                vn 0 0 -1
+                f 1//1 2//1 3//2
+                """);
+
+        assertEquals("position: float3, normal: float3", mesh.getVertexBuffer().getLayout().toString());
+        assertArrayEquals(new float[]{0, 0, 1, 0, 0, 1, 0, 0, -1}, column(mesh, "normal"));
+    }
+
+    @Test
+    void readsPositionAndTexCoordWithoutNormal() throws IOException {
+        Mesh mesh = read(QUAD_POSITIONS + """
+                vt 0.25 0.5
+                vt 0.75 1
+                f 1/1 2/2 3/1
+                """);
+
+        assertEquals("position: float3, texCoord: float2", mesh.getVertexBuffer().getLayout().toString());
+        assertArrayEquals(new float[]{0.25f, 0.5f, 0.75f, 1, 0.25f, 0.5f}, column(mesh, "texCoord"));
+    }
+
+    @Test
+    void resolvesNegativeIndicesFromTheEnd() throws IOException {
+        Mesh mesh = read(QUAD_POSITIONS + "f -3 -2 -1\n");
+
+        assertArrayEquals(new float[]{1, 0, 0, 1, 1, 0, 0, 1, 0}, column(mesh, "position"));
+    }
+
+    @Test
+    void sharesVerticesOfRepeatedTriplesOnly() throws IOException {
+        Mesh mesh = read(QUAD_POSITIONS + """
+                vn 0 0 1
+                vn 0 0 -1
+                f 1//1 2//1 3//1
+                f 1//1 3//1 4//1
+                f 1//2 3//2 2//2
+                """);
+
+        assertEquals(7, mesh.getVertexBuffer().getVertexCount());
+        assertArrayEquals(new int[]{0, 1, 2, 0, 2, 3, 4, 5, 6}, indices(mesh));
+    }
+
+    @Test
+    void backfillsZerosBeforeFirstTexCoordAndNormal() throws IOException {
+        Mesh mesh = read(QUAD_POSITIONS + """
+                vt 0.5 0.5
+                vn 1 0 0
+                f 1 2 3
+                f 1/1/1 3/1/1 4/1/1
+                """);
+
+        assertEquals(6, mesh.getVertexBuffer().getVertexCount());
+        assertArrayEquals(new float[]{0, 0, 0, 0, 0, 0, 0.5f, 0.5f, 0.5f, 0.5f, 0.5f, 0.5f}, column(mesh, "texCoord"));
+        assertArrayEquals(new float[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 1, 0, 0, 1, 0, 0}, column(mesh, "normal"));
+    }
+
+    @Test
+    void reportsLineNumberOfMalformedLines() {
+        IOException shortVertex = assertThrows(IOException.class, () -> read("# comment\nv 0 0 0\nv 1 2\n"));
+        assertTrue(shortVertex.getMessage().contains("line 3"), shortVertex.getMessage());
+
+        IOException badIndex = assertThrows(IOException.class, () -> read(QUAD_POSITIONS + "\nf 1 2 9\n"));
+        assertTrue(badIndex.getMessage().contains("line 6"), badIndex.getMessage());
+
+        IOException zeroIndex = assertThrows(IOException.class, () -> read(QUAD_POSITIONS + "f 0 1 2\n"));
+        assertTrue(zeroIndex.getMessage().contains("line 5"), zeroIndex.getMessage());
+
+        IOException notANumber = assertThrows(IOException.class, () -> read("v 0 zero 0\n"));
+        assertTrue(notANumber.getMessage().contains("line 1"), notANumber.getMessage());
+    }
+}
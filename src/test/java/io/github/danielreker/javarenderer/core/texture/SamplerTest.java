@@ -0,0 +1,116 @@
+package io.github.danielreker.javarenderer.core.texture;
+
+import io.github.danielreker.javarenderer.core.enums.TextureFilter;
+import io.github.danielreker.javarenderer.core.enums.WrapMode;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SamplerTest {
+    private static final float EPSILON = 1e-6f;
+
+    // Three texels along u whose blue channel is the texel's x.
+    private static final Texture2D RAMP = Texture2D.create(3, 1, new int[]{0xFF000000, 0xFF000001, 0xFF000002}, false);
+
+    private static int nearestTexelX(WrapMode wrap, float u) {
+        Vector4f color = Sampler.create(TextureFilter.NEAREST, wrap).sample(RAMP, u, 0.5f, new Vector4f());
+        return Math.round(color.z * 255.0f);
+    }
+
+    // Texel centers of x = 0..2, shifted by whole periods of the texture.
+    private static float u(int x, int period) {
+        return (x + 0.5f) / 3.0f + period;
+    }
+
+    @Test
+    void repeatWrapsNonPowerOfTwoSizes() {
+        for (int period = -2; period <= 2; period++) {
+            for (int x = 0; x < 3; x++) {
+                assertEquals(x, nearestTexelX(WrapMode.REPEAT, u(x, period)), "u = " + u(x, period));
+            }
+        }
+    }
+
+    @Test
+    void mirroredRepeatReflectsEveryOtherPeriod() {
+        for (int period = -2; period <= 2; period++) {
+            for (int x = 0; x < 3; x++) {
+                int expected = Math.floorMod(period, 2) == 0 ? x : 2 - x;
+                assertEquals(expected, nearestTexelX(WrapMode.MIRRORED_REPEAT, u(x, period)), "u = " + u(x, period));
+            }
+        }
+    }
+
+    @Test
+    void clampToEdgeRepeatsBorderTexels() {
+        assertEquals(0, nearestTexelX(WrapMode.CLAMP_TO_EDGE, -5.0f));
+        assertEquals(2, nearestTexelX(WrapMode.CLAMP_TO_EDGE, 5.0f));
+    }
+
+    @Test
+    void computesLodFromLargerFootprint() {
+        Texture2D texture = Texture2D.create(256, 128, new int[256 * 128], true);
+
+        assertEquals(0.0f, Sampler.computeLod(texture, 1 / 256.0f, 0, 0, 1 / 128.0f), 1e-3f);
+        assertEquals(2.0f, Sampler.computeLod(texture, 4 / 256.0f, 0, 0, 1 / 128.0f), 1e-3f);
+        assertEquals(3.0f, Sampler.computeLod(texture, 1 / 256.0f, 0, 0, 8 / 128.0f), 1e-3f);
+        // Rotated footprints measure the length of the derivative, not its components.
+        assertEquals(2.5f, Sampler.computeLod(texture, 4 / 256.0f, 4 / 128.0f, 0, 0), 1e-3f);
+        assertEquals(-1.0f, Sampler.computeLod(texture, 0.5f / 256.0f, 0, 0, 0), 1e-3f);
+        assertEquals(Float.NEGATIVE_INFINITY, Sampler.computeLod(texture, 0, 0, 0, 0));
+        assertTrue(Float.isNaN(Sampler.computeLod(texture, Float.NaN, 0, 0, 0)));
+    }
+
+    @Test
+    void computeLodStaysCloseToExactLog() {
+        Texture2D texture = Texture2D.create(1, 1, new int[1], false);
+        for (float footprint = 1e-3f; footprint < 1e4f; footprint *= 1.01f) {
+            double exact = Math.log(footprint) / Math.log(2.0);
+            assertEquals(exact, Sampler.computeLod(texture, footprint, 0, 0, 0), 2.5e-4, "footprint " + footprint);
+        }
+    }
+
+    // A white 4x4 base with one black texel at (0, 0): level 0, 1 and 2 hold 0, 191 and 239 at that corner.
+    private static Texture2D cornerTexture() {
+        int[] argb = new int[16];
+        Arrays.fill(argb, 0xFFFFFFFF);
+        argb[0] = 0xFF000000;
+        return Texture2D.create(4, 4, argb, true);
+    }
+
+    @Test
+    void selectsLevelFromDerivatives() {
+        Texture2D texture = cornerTexture();
+        Sampler sampler = Sampler.create(TextureFilter.NEAREST, WrapMode.CLAMP_TO_EDGE);
+        Vector4f color = new Vector4f();
+
+        assertEquals(0.0f, sampler.sampleGrad(texture, 0.1f, 0.1f, 0.25f, 0, 0, 0.25f, color).x, EPSILON);
+        assertEquals(191 / 255.0f, sampler.sampleGrad(texture, 0.1f, 0.1f, 0.5f, 0, 0, 0.5f, color).x, EPSILON);
+        assertEquals(239 / 255.0f, sampler.sampleGrad(texture, 0.1f, 0.1f, 1.0f, 0, 0, 1.0f, color).x, EPSILON);
+        // Beyond the last level the smallest one is used.
+        assertEquals(239 / 255.0f, sampler.sampleGrad(texture, 0.1f, 0.1f, 16.0f, 0, 0, 0, color).x, EPSILON);
+    }
+
+    @Test
+    void lodBiasShiftsTheSelectedLevel() {
+        Texture2D texture = cornerTexture();
+        Sampler sampler = Sampler.create(TextureFilter.NEAREST, WrapMode.CLAMP_TO_EDGE, WrapMode.CLAMP_TO_EDGE, 1.0f);
+
+        assertEquals(191 / 255.0f, sampler.sampleLod(texture, 0.1f, 0.1f, 0.0f, new Vector4f()).x, EPSILON);
+    }
+
+    @Test
+    void trilinearBlendsAdjacentLevels() {
+        Texture2D texture = cornerTexture();
+        Sampler sampler = Sampler.create(TextureFilter.TRILINEAR, WrapMode.CLAMP_TO_EDGE);
+
+        // (0.25, 0.25) is the center of texel (0, 0) on level 1, so the bilinear weights there are exact.
+        Vector4f color = sampler.sampleLod(texture, 0.25f, 0.25f, 1.25f, new Vector4f());
+        assertEquals((0.75f * 191 + 0.25f * 239) / 255.0f, color.x, 1e-5f);
+        assertEquals(1.0f, color.w, 1e-5f);
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.danielreker.javarenderer.core.texture;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class Texture2DTest {
+
+    @Test
+    void getTexelRoundTripsSizesThatAreNotWholeTiles() {
+        int width = 13;
+        int height = 5;
+        int[] argb = new int[width * height];
+        for (int i = 0; i < argb.length; i++) {
+            argb[i] = 0xFF000000 | i;
+        }
+        Texture2D texture = Texture2D.create(width, height, argb, false);
+
+        boolean[] used = new boolean[texture.getLevelData(0).length];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                assertEquals(argb[y * width + x], texture.getTexel(0, x, y));
+                int index = texture.texelIndex(0, x, y);
+                assertFalse(used[index], "texel (" + x + ", " + y + ") shares storage");
+                used[index] = true;
+            }
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> texture.getTexel(0, width, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> texture.getTexel(0, 0, height));
+    }
+
+    @Test
+    void buildsMipChainOfThreeByOne() {
+        int t0 = 0x80102030;
+        int t1 = 0xFF503010;
+        int t2 = 0x00FFFFFF;
+        Texture2D texture = Texture2D.create(3, 1, new int[]{t0, t1, t2}, true);
+
+        assertEquals(2, texture.getLevelCount());
+        assertEquals(3, texture.getLevelWidth(0));
+        assertEquals(1, texture.getLevelHeight(0));
+        assertEquals(1, texture.getLevelWidth(1));
+        assertEquals(1, texture.getLevelHeight(1));
+        // The odd third column is dropped; the single row is repeated rather than halved.
+        assertEquals(0xC0302820, texture.getTexel(1, 0, 0));
+    }
+
+    @Test
+    void halvesEachLevelDownToOneByOne() {
+        Texture2D texture = Texture2D.create(16, 4, new int[16 * 4], true);
+
+        assertEquals(5, texture.getLevelCount());
+        int[] expectedWidths = {16, 8, 4, 2, 1};
+        int[] expectedHeights = {4, 2, 1, 1, 1};
+        for (int level = 0; level < texture.getLevelCount(); level++) {
+            assertEquals(expectedWidths[level], texture.getLevelWidth(level));
+            assertEquals(expectedHeights[level], texture.getLevelHeight(level));
+        }
+    }
+
+    @Test
+    void rejectsMismatchedTexelData() {
+        assertThrows(IllegalArgumentException.class, () -> Texture2D.create(4, 4, new int[15], false));
+        assertThrows(IllegalArgumentException.class, () -> Texture2D.create(0, 4, new int[0], false));
+    }
+}